@@ -0,0 +1,23 @@
+#!/bin/sh
+# Runs the k6 load test against the platform thread build and then the virtual thread build,
+# keeping both summaries in loadtest/results for comparison.
+set -e
+cd "$(dirname "$0")/.."
+mkdir -p loadtest/results
+
+run() {
+    name=$1
+    docker compose up --build -d
+    until curl -sf http://localhost:8080/actuator/health > /dev/null; do sleep 2; done
+    k6 run --summary-export "loadtest/results/$name.json" loadtest/shortener.js
+    docker compose logs url > "loadtest/results/$name.log"
+    docker compose down
+}
+
+mvn -B package -DskipTests
+JAVA_VERSION=17 VIRTUAL_THREADS_ENABLED=false run platform-threads
+
+mvn -B package -DskipTests -Pjdk21
+JAVA_VERSION=21 VIRTUAL_THREADS_ENABLED=true JAVA_OPTS="-Djdk.tracePinnedThreads=short" run virtual-threads
+# -Djdk.tracePinnedThreads prints a stack trace whenever a virtual thread blocks while pinned to its carrier
+grep -A10 "pinned" loadtest/results/virtual-threads.log || echo "No pinned virtual threads reported"
@@ -0,0 +1,55 @@
+// k6 load test mixing redirects and creates, used to compare platform and virtual thread request handling.
+//   k6 run -e BASE_URL=http://localhost:8080 loadtest/shortener.js
+import http from 'k6/http';
+import { check } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+const LINKS = parseInt(__ENV.LINKS || '1000');
+
+export const options = {
+    scenarios: {
+        resolve: {
+            executor: 'constant-arrival-rate',
+            exec: 'resolve',
+            rate: parseInt(__ENV.RESOLVE_RATE || '5000'),
+            timeUnit: '1s',
+            duration: __ENV.DURATION || '2m',
+            preAllocatedVUs: 500,
+            maxVUs: 5000,
+        },
+        shorten: {
+            executor: 'constant-arrival-rate',
+            exec: 'shorten',
+            rate: parseInt(__ENV.SHORTEN_RATE || '50'),
+            timeUnit: '1s',
+            duration: __ENV.DURATION || '2m',
+            preAllocatedVUs: 50,
+            maxVUs: 500,
+        },
+    },
+    summaryTrendStats: ['avg', 'p(50)', 'p(95)', 'p(99)', 'max'],
+};
+
+export function setup() {
+    const codes = [];
+    for (let i = 0; i < LINKS; i++) {
+        const res = http.post(`${BASE_URL}/url`, JSON.stringify({ longUrl: `https://example.com/setup/${i}` }),
+            { headers: { 'Content-Type': 'application/json' } });
+        if (res.status === 201) {
+            codes.push(res.body.substring(res.body.lastIndexOf('/') + 1));
+        }
+    }
+    return { codes };
+}
+
+export function resolve(data) {
+    const code = data.codes[Math.floor(Math.random() * data.codes.length)];
+    const res = http.get(`${BASE_URL}/${code}`, { redirects: 0, tags: { name: 'resolve' } });
+    check(res, { 'redirected': r => r.status >= 300 && r.status < 400 });
+}
+
+export function shorten() {
+    const res = http.post(`${BASE_URL}/url`, JSON.stringify({ longUrl: `https://example.com/${__VU}/${__ITER}` }),
+        { headers: { 'Content-Type': 'application/json' }, tags: { name: 'shorten' } });
+    check(res, { 'created': r => r.status === 201 });
+}
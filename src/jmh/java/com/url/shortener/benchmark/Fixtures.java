@@ -0,0 +1,37 @@
+package com.url.shortener.benchmark;
+
+import com.url.shortener.dedup.UrlDeduplicator;
+import com.url.shortener.events.UrlEventPublisher;
+import com.url.shortener.filter.ShortUrlFilter;
+import com.url.shortener.generator.ShortUrlGenerator;
+import com.url.shortener.persistence.DirectUrlWriter;
+import com.url.shortener.persistence.UrlWriter;
+import com.url.shortener.repository.UrlRepository;
+import com.url.shortener.service.UrlService;
+import com.url.shortener.store.JpaUrlMappingStore;
+import com.url.shortener.store.UrlMappingStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.time.Duration;
+
+final class Fixtures {
+
+    static final String[] LONG_URLS = {
+            "https://example.com",
+            "example.com/path/to/page",
+            "http://www.example.org/search?q=url+shortener&lang=en",
+            "https://sub.domain.example.net:8443/a/b/c/d/e/f/index.html#section",
+    };
+
+    private Fixtures() {
+    }
+
+    static UrlService urlService(UrlRepository urlRepository, ShortUrlGenerator generator) {
+        UrlMappingStore store = new JpaUrlMappingStore(urlRepository);
+        UrlWriter writer = new DirectUrlWriter(urlRepository, UrlEventPublisher.NONE);
+        ShortUrlFilter filter = new ShortUrlFilter(store, writer, null, false, 1, 0.01, 1, Duration.ofSeconds(1));
+        return new UrlService(store, writer, generator, filter,
+                new UrlDeduplicator(store, new ConcurrentMapCacheManager(), false, "global"), new SimpleMeterRegistry());
+    }
+}
@@ -0,0 +1,48 @@
+package com.url.shortener.benchmark;
+
+import com.url.shortener.entity.Url;
+import com.url.shortener.repository.UrlRepository;
+
+import java.lang.reflect.Proxy;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * {@link UrlRepository} stand-in backed by a map, implementing the lookups and inserts the hot paths use.
+ */
+final class InMemoryUrlRepository {
+
+    private InMemoryUrlRepository() {
+    }
+
+    static UrlRepository create() {
+        return create(new ConcurrentHashMap<>());
+    }
+
+    @SuppressWarnings("unchecked")
+    static UrlRepository create(Map<String, Url> urls) {
+        return (UrlRepository) Proxy.newProxyInstance(UrlRepository.class.getClassLoader(), new Class<?>[]{UrlRepository.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "findByShortUrl" -> urls.get((String) args[0]);
+                    case "save" -> {
+                        Url url = (Url) args[0];
+                        urls.put(url.getShortUrl(), url);
+                        yield url;
+                    }
+                    case "saveAll" -> {
+                        for (Url url : (Iterable<Url>) args[0]) {
+                            urls.put(url.getShortUrl(), url);
+                        }
+                        yield args[0];
+                    }
+                    case "findExistingShortUrls" -> ((Collection<String>) args[0]).stream().filter(urls::containsKey).toList();
+                    case "findLiveShortUrls", "findExpiredShortUrls" -> List.of();
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    case "toString" -> "InMemoryUrlRepository";
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+}
@@ -0,0 +1,132 @@
+package com.url.shortener.benchmark;
+
+import com.url.shortener.cache.EarlyRefreshRedisCacheManager;
+import com.url.shortener.config.RedisConfig;
+import com.url.shortener.service.UrlService;
+import com.url.shortener.store.UrlMapping;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.autoconfigure.data.redis.RedisProperties;
+import org.springframework.cache.Cache;
+import org.springframework.data.redis.cache.RedisCacheWriter;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.jedis.JedisConnectionFactory;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Concurrent resolve lookups through the pooled Jedis connections and the shared Lettuce connection, built by
+ * {@link RedisConfig} as the application builds them. {@code resolve} is a {@code longUrl} cache read (a script returning
+ * the value and its TTL), {@code get} a single {@code GET}. Runs against the Redis at {@code -Dredis.host}
+ * (and {@code -Dredis.port}) when given, otherwise against {@link StandInRedisServer} on loopback:
+ * <pre>
+ * mvn -Pbenchmarks test-compile exec:exec -Djmh.args="RedisClientBenchmark -jvmArgs -Dredis.host=localhost"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(32)
+@Fork(1)
+public class RedisClientBenchmark {
+
+    private static final int URLS = 1 << 10;
+
+    @Param({"jedis", "lettuce"})
+    public String client;
+
+    private StandInRedisServer server;
+
+    private RedisConnectionFactory connectionFactory;
+
+    private StringRedisTemplate redisTemplate;
+
+    private Cache cache;
+
+    private final String[] shortUrls = new String[URLS];
+
+    @Setup
+    public void setUp() throws Exception {
+        RedisProperties redisProperties = new RedisProperties();
+        redisProperties.setTimeout(Duration.ofSeconds(2));
+        redisProperties.getJedis().getPool().setMaxActive(64);
+        redisProperties.getJedis().getPool().setMaxIdle(64);
+        String host = System.getProperty("redis.host");
+        if (host != null) {
+            redisProperties.setHost(host);
+            redisProperties.setPort(Integer.getInteger("redis.port", 6379));
+        } else {
+            server = new StandInRedisServer();
+            redisProperties.setHost("localhost");
+            redisProperties.setPort(server.getPort());
+        }
+
+        RedisConfig redisConfig = new RedisConfig(redisProperties, "compact");
+        switch (client) {
+            case "jedis" -> {
+                JedisConnectionFactory jedisConnectionFactory = redisConfig.jedisConnectionFactory();
+                jedisConnectionFactory.afterPropertiesSet();
+                jedisConnectionFactory.start();
+                connectionFactory = jedisConnectionFactory;
+            }
+            case "lettuce" -> {
+                LettuceConnectionFactory lettuceConnectionFactory = redisConfig.lettuceConnectionFactory();
+                lettuceConnectionFactory.afterPropertiesSet();
+                lettuceConnectionFactory.start();
+                connectionFactory = lettuceConnectionFactory;
+            }
+            default -> throw new IllegalArgumentException(client);
+        }
+        redisTemplate = new StringRedisTemplate(connectionFactory);
+        EarlyRefreshRedisCacheManager cacheManager = new EarlyRefreshRedisCacheManager(
+                RedisCacheWriter.nonLockingRedisCacheWriter(connectionFactory), redisConfig.redisCacheConfiguration(),
+                redisTemplate, Duration.ofMinutes(1));
+        cacheManager.afterPropertiesSet();
+        cache = cacheManager.getCache(UrlService.URL_MAPPING_CACHE);
+        for (int i = 0; i < URLS; i++) {
+            shortUrls[i] = String.format("b%06d", i);
+            cache.put(shortUrls[i], new UrlMapping(Fixtures.LONG_URLS[i % Fixtures.LONG_URLS.length], LocalDate.now().plusDays(30)));
+            redisTemplate.opsForValue().set(shortUrls[i], Fixtures.LONG_URLS[i % Fixtures.LONG_URLS.length]);
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        if (connectionFactory instanceof JedisConnectionFactory jedisConnectionFactory) {
+            jedisConnectionFactory.destroy();
+        } else if (connectionFactory instanceof LettuceConnectionFactory lettuceConnectionFactory) {
+            lettuceConnectionFactory.destroy();
+        }
+        if (server != null) {
+            server.close();
+        }
+    }
+
+    @Benchmark
+    public Object resolve() {
+        return cache.get(shortUrls[ThreadLocalRandom.current().nextInt(URLS)]).get();
+    }
+
+    @Benchmark
+    public String get() {
+        return redisTemplate.opsForValue().get(shortUrls[ThreadLocalRandom.current().nextInt(URLS)]);
+    }
+}
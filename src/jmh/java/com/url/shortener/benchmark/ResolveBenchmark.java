@@ -0,0 +1,151 @@
+package com.url.shortener.benchmark;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.url.shortener.cache.CacheInvalidationPublisher;
+import com.url.shortener.cache.TwoTierCache;
+import com.url.shortener.entity.Url;
+import com.url.shortener.generator.RandomShortUrlGenerator;
+import com.url.shortener.index.CompactUrlIndex;
+import com.url.shortener.serialization.CompactRedisSerializer;
+import com.url.shortener.service.UrlService;
+import com.url.shortener.store.UrlMapping;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Resolve cost per tier: near cache hit, remote hit (an in-memory stand-in that stores serialized bytes like Redis
+ * does, without the network) and a full miss that goes to the repository.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ResolveBenchmark {
+
+    private static final String SHORT_URL = "aB3dE5g";
+
+    private TwoTierCache nearCache;
+
+    private Cache remoteCache;
+
+    private CompactUrlIndex index;
+
+    private UrlService urlService;
+
+    @Setup
+    public void setUp() {
+        remoteCache = new SerializingCache(UrlService.URL_MAPPING_CACHE, new CompactRedisSerializer(false));
+        remoteCache.put(SHORT_URL, new UrlMapping(Fixtures.LONG_URLS[2], LocalDate.now().plusDays(30)));
+        nearCache = new TwoTierCache(UrlService.URL_MAPPING_CACHE, Caffeine.newBuilder().maximumSize(10_000).recordStats().build(),
+                remoteCache, CacheInvalidationPublisher.NONE);
+        nearCache.get(SHORT_URL);
+        index = new CompactUrlIndex(1 << 20);
+        index.put(SHORT_URL, Fixtures.LONG_URLS[2], LocalDate.now().plusDays(30));
+
+        Url url = new Url();
+        url.setShortUrl(SHORT_URL);
+        url.setLongUrl(Fixtures.LONG_URLS[2]);
+        url.setExpirationDate(LocalDate.now().plusDays(30));
+        urlService = Fixtures.urlService(InMemoryUrlRepository.create(Map.of(SHORT_URL, url)), new RandomShortUrlGenerator(7));
+    }
+
+    @Benchmark
+    public Object nearCacheHit() {
+        return nearCache.get(SHORT_URL).get();
+    }
+
+    @Benchmark
+    public UrlMapping indexHit() {
+        return index.get(SHORT_URL);
+    }
+
+    @Benchmark
+    public Object remoteCacheHit() {
+        return remoteCache.get(SHORT_URL).get();
+    }
+
+    @Benchmark
+    public UrlMapping repositoryLookup() {
+        return urlService.resolve(SHORT_URL);
+    }
+
+    static final class SerializingCache extends AbstractValueAdaptingCache {
+
+        private final String name;
+
+        private final CompactRedisSerializer serializer;
+
+        private final Map<Object, byte[]> store = new ConcurrentHashMap<>();
+
+        SerializingCache(String name, CompactRedisSerializer serializer) {
+            super(false);
+            this.name = name;
+            this.serializer = serializer;
+        }
+
+        @Override
+        protected Object lookup(Object key) {
+            byte[] bytes = store.get(key);
+            return bytes != null ? serializer.deserialize(bytes) : null;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public Object getNativeCache() {
+            return store;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> T get(Object key, Callable<T> valueLoader) {
+            Object value = lookup(key);
+            if (value != null) {
+                return (T) value;
+            }
+            try {
+                T loaded = valueLoader.call();
+                put(key, loaded);
+                return loaded;
+            } catch (Exception e) {
+                throw new ValueRetrievalException(key, valueLoader, e);
+            }
+        }
+
+        @Override
+        public void put(Object key, Object value) {
+            store.put(key, serializer.serialize(value));
+        }
+
+        @Override
+        public void evict(Object key) {
+            store.remove(key);
+        }
+
+        @Override
+        public void clear() {
+            store.clear();
+        }
+    }
+}
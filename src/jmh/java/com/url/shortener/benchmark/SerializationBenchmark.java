@@ -0,0 +1,59 @@
+package com.url.shortener.benchmark;
+
+import com.url.shortener.serialization.CompactRedisSerializer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encode and decode cost of a cached long url with JDK serialization and the compact serializer. The bytes stored per
+ * entry are printed at the start of each trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializationBenchmark {
+
+    @Param({"jdk", "compact"})
+    private String serializer;
+
+    private RedisSerializer<Object> redisSerializer;
+
+    private String value;
+
+    private byte[] bytes;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        redisSerializer = "jdk".equals(serializer) ? new JdkSerializationRedisSerializer() : new CompactRedisSerializer(false);
+        value = Fixtures.LONG_URLS[3];
+        bytes = redisSerializer.serialize(value);
+        System.out.printf("%n%s: %d bytes per entry for a %d character url%n", serializer, bytes.length, value.length());
+    }
+
+    @Benchmark
+    public byte[] serialize() {
+        return redisSerializer.serialize(value);
+    }
+
+    @Benchmark
+    public Object deserialize() {
+        return redisSerializer.deserialize(bytes);
+    }
+}
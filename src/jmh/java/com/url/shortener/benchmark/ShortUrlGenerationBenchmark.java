@@ -0,0 +1,72 @@
+package com.url.shortener.benchmark;
+
+import com.url.shortener.generator.Base62;
+import com.url.shortener.generator.RandomShortUrlGenerator;
+import com.url.shortener.generator.RangeShortUrlGenerator;
+import com.url.shortener.service.UrlService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ShortUrlGenerationBenchmark {
+
+    private RandomShortUrlGenerator randomGenerator;
+
+    private RangeShortUrlGenerator rangeGenerator;
+
+    private UrlService randomUrlService;
+
+    private UrlService rangeUrlService;
+
+    private long id;
+
+    @Setup
+    public void setUp() {
+        AtomicLong nextId = new AtomicLong();
+        randomGenerator = new RandomShortUrlGenerator(7);
+        rangeGenerator = new RangeShortUrlGenerator(size -> nextId.getAndAdd(size), 10_000, 7);
+        randomUrlService = Fixtures.urlService(InMemoryUrlRepository.create(), randomGenerator);
+        rangeUrlService = Fixtures.urlService(InMemoryUrlRepository.create(), new RangeShortUrlGenerator(size -> nextId.getAndAdd(size), 10_000, 7));
+    }
+
+    @Benchmark
+    public String randomCode() {
+        return randomGenerator.next();
+    }
+
+    @Benchmark
+    public String rangeCode() {
+        return rangeGenerator.next();
+    }
+
+    @Benchmark
+    public String base62Encode() {
+        return Base62.encode(id++ % Base62.capacity(7), 7);
+    }
+
+    @Benchmark
+    public String shortenRandom() throws Exception {
+        return randomUrlService.shortenURL("https://example.com", "127.0.0.1");
+    }
+
+    @Benchmark
+    public String shortenRange() throws Exception {
+        return rangeUrlService.shortenURL("https://example.com", "127.0.0.1");
+    }
+}
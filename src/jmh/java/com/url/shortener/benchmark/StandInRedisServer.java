@@ -0,0 +1,160 @@
+package com.url.shortener.benchmark;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Just enough of a Redis server on loopback for the client benchmarks: RESP2 requests, {@code GET}, {@code SET}
+ * (options ignored, nothing expires), {@code PTTL} and {@code EVAL}/{@code EVALSHA} of the cache's get-with-TTL
+ * script, whatever the script. {@code HELLO} is refused so clients fall back to RESP2, and any other command is
+ * answered with {@code +OK}. Like Redis, commands from all connections are executed one at a time, and replies to
+ * pipelined commands are written in one flush, so the measured difference between clients is the client and the
+ * round trips rather than server parallelism.
+ */
+final class StandInRedisServer implements Closeable {
+
+    private static final long TTL_MILLIS = 3_600_000;
+
+    private final ServerSocket serverSocket;
+
+    private final Map<String, byte[]> values = new ConcurrentHashMap<>();
+
+    private final ReentrantLock commandLock = new ReentrantLock();
+
+    StandInRedisServer() throws IOException {
+        serverSocket = new ServerSocket(0, 128, InetAddress.getLoopbackAddress());
+        Thread acceptor = new Thread(this::accept, "stand-in-redis");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+    }
+
+    private void accept() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                socket.setTcpNoDelay(true);
+                Thread connection = new Thread(() -> serve(socket), "stand-in-redis-connection");
+                connection.setDaemon(true);
+                connection.start();
+            } catch (IOException e) {
+                return;
+            }
+        }
+    }
+
+    private void serve(Socket socket) {
+        try (socket) {
+            InputStream in = new BufferedInputStream(socket.getInputStream());
+            OutputStream out = new BufferedOutputStream(socket.getOutputStream());
+            while (true) {
+                byte[][] command = readCommand(in);
+                if (command == null) {
+                    return;
+                }
+                commandLock.lock();
+                try {
+                    reply(command, out);
+                    if (in.available() == 0) {
+                        out.flush();
+                    }
+                } finally {
+                    commandLock.unlock();
+                }
+            }
+        } catch (IOException e) {
+            // client went away
+        }
+    }
+
+    private void reply(byte[][] command, OutputStream out) throws IOException {
+        String name = new String(command[0], StandardCharsets.US_ASCII).toUpperCase();
+        switch (name) {
+            case "GET" -> writeGet(key(command), out);
+            case "SET" -> {
+                values.put(key(command), command[2]);
+                out.write("+OK\r\n".getBytes(StandardCharsets.US_ASCII));
+            }
+            case "PTTL" -> writePttl(key(command), out);
+            case "EVAL", "EVALSHA" -> {
+                // EVAL[SHA] script 1 key
+                String key = new String(command[3], StandardCharsets.UTF_8);
+                out.write("*2\r\n".getBytes(StandardCharsets.US_ASCII));
+                writeGet(key, out);
+                writePttl(key, out);
+            }
+            case "HELLO" -> out.write("-ERR unknown command 'HELLO'\r\n".getBytes(StandardCharsets.US_ASCII));
+            default -> out.write("+OK\r\n".getBytes(StandardCharsets.US_ASCII));
+        }
+    }
+
+    private void writeGet(String key, OutputStream out) throws IOException {
+        byte[] value = values.get(key);
+        if (value == null) {
+            out.write("$-1\r\n".getBytes(StandardCharsets.US_ASCII));
+        } else {
+            out.write(("$" + value.length + "\r\n").getBytes(StandardCharsets.US_ASCII));
+            out.write(value);
+            out.write('\r');
+            out.write('\n');
+        }
+    }
+
+    private void writePttl(String key, OutputStream out) throws IOException {
+        out.write((":" + (values.containsKey(key) ? TTL_MILLIS : -2) + "\r\n").getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static String key(byte[][] command) {
+        return new String(command[1], StandardCharsets.UTF_8);
+    }
+
+    private static byte[][] readCommand(InputStream in) throws IOException {
+        int type = in.read();
+        if (type < 0) {
+            return null;
+        }
+        if (type != '*') {
+            throw new IOException("Expected an array, got " + (char) type);
+        }
+        byte[][] command = new byte[readLength(in)][];
+        for (int i = 0; i < command.length; i++) {
+            if (in.read() != '$') {
+                throw new IOException("Expected a bulk string");
+            }
+            command[i] = in.readNBytes(readLength(in));
+            in.skipNBytes(2);
+        }
+        return command;
+    }
+
+    private static int readLength(InputStream in) throws IOException {
+        int length = 0;
+        for (int c = in.read(); c != '\r'; c = in.read()) {
+            if (c < 0) {
+                throw new IOException("Connection closed");
+            }
+            length = length * 10 + (c - '0');
+        }
+        in.read();
+        return length;
+    }
+}
@@ -0,0 +1,126 @@
+package com.url.shortener.benchmark;
+
+import com.url.shortener.entity.Url;
+import com.url.shortener.repository.UrlRepository;
+import com.url.shortener.store.EmbeddedLogUrlMappingStore;
+import com.url.shortener.store.JdbcUrlMappingStore;
+import com.url.shortener.store.JpaUrlMappingStore;
+import com.url.shortener.store.UrlMapping;
+import com.url.shortener.store.UrlMappingStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.Banner;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.data.redis.RedisAutoConfiguration;
+import org.springframework.boot.autoconfigure.data.redis.RedisRepositoriesAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.Closeable;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lookup cost of each {@link UrlMappingStore} against an in-memory H2 database, so it measures the store and its
+ * mapping overhead rather than the network. The embedded store is read once up front, so every lookup hits its log.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UrlMappingStoreBenchmark {
+
+    private static final int URLS = 1 << 13;
+
+    @Param({"jpa", "jdbc", "embedded"})
+    public String store;
+
+    private ConfigurableApplicationContext context;
+
+    private UrlMappingStore urlMappingStore;
+
+    private Path logFile;
+
+    private final String[] shortUrls = new String[URLS];
+
+    private int next;
+
+    @Setup
+    public void setUp() throws Exception {
+        context = new SpringApplicationBuilder(StoreConfiguration.class)
+                .web(WebApplicationType.NONE)
+                .bannerMode(Banner.Mode.OFF)
+                .logStartupInfo(false)
+                .properties("spring.datasource.url=jdbc:h2:mem:stores", "logging.level.root=WARN")
+                .run();
+        UrlRepository urlRepository = context.getBean(UrlRepository.class);
+        List<Url> urls = new ArrayList<>(URLS);
+        for (int i = 0; i < URLS; i++) {
+            shortUrls[i] = String.format("%07d", i);
+            Url url = new Url();
+            url.setShortUrl(shortUrls[i]);
+            url.setLongUrl(Fixtures.LONG_URLS[i % Fixtures.LONG_URLS.length]);
+            url.setExpirationDate(LocalDate.now().plusDays(30));
+            urls.add(url);
+        }
+        urlRepository.saveAll(urls);
+
+        JdbcUrlMappingStore jdbcStore = new JdbcUrlMappingStore(context.getBean(JdbcTemplate.class));
+        switch (store) {
+            case "jpa" -> urlMappingStore = new JpaUrlMappingStore(urlRepository);
+            case "jdbc" -> urlMappingStore = jdbcStore;
+            case "embedded" -> {
+                logFile = Files.createTempFile("url-mappings", ".log");
+                urlMappingStore = new EmbeddedLogUrlMappingStore(logFile, 16 << 20, jdbcStore);
+                for (String shortUrl : shortUrls) {
+                    urlMappingStore.find(shortUrl);
+                }
+            }
+            default -> throw new IllegalArgumentException(store);
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        if (urlMappingStore instanceof Closeable closeable) {
+            closeable.close();
+        }
+        if (logFile != null) {
+            Files.delete(logFile);
+        }
+        context.close();
+    }
+
+    @Benchmark
+    public UrlMapping find() {
+        return urlMappingStore.find(shortUrls[next++ & (URLS - 1)]);
+    }
+
+    @SpringBootConfiguration
+    @EnableAutoConfiguration(exclude = {RedisAutoConfiguration.class, RedisRepositoriesAutoConfiguration.class})
+    @EntityScan(basePackageClasses = Url.class)
+    @EnableJpaRepositories(basePackageClasses = UrlRepository.class)
+    static class StoreConfiguration {
+    }
+}
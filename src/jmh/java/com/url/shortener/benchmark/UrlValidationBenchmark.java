@@ -0,0 +1,45 @@
+package com.url.shortener.benchmark;
+
+import com.url.shortener.generator.RandomShortUrlGenerator;
+import com.url.shortener.request.UrlRequest;
+import com.url.shortener.service.UrlService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UrlValidationBenchmark {
+
+    @Param({"0", "1", "2", "3"})
+    private int url;
+
+    private UrlService urlService;
+
+    private String longUrl;
+
+    @Setup
+    public void setUp() {
+        urlService = Fixtures.urlService(InMemoryUrlRepository.create(), new RandomShortUrlGenerator(7));
+        longUrl = Fixtures.LONG_URLS[url];
+    }
+
+    @Benchmark
+    public boolean isValidURL() {
+        return urlService.isValidURL(new UrlRequest(longUrl));
+    }
+}
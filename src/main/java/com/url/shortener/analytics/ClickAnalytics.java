@@ -0,0 +1,148 @@
+package com.url.shortener.analytics;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Click analytics: redirects are counted in memory by {@link ClickCounter} and flushed to Redis in one pipeline per
+ * interval. Totals live in the {@value #TOTALS_KEY} hash; per minute counts in one hash per short url and UTC day,
+ * {@code #clicks:<shortUrl>:<yyyy-MM-dd>}, keyed by minute of the day and expiring after the retention period.
+ * If a flush fails its deltas are retried with the next one, up to {@code max-backlog} short url minutes. Totals are
+ * removed when the expiry sweeper deletes their url, so the hash does not grow forever and a reused code starts at 0.
+ */
+@Slf4j
+@Component
+public class ClickAnalytics {
+
+    public static final String TOTALS_KEY = "#clicks:total";
+
+    private static final String SERIES_KEY_PREFIX = "#clicks:";
+
+    private final ClickCounter counter;
+
+    private final StringRedisTemplate redisTemplate;
+
+    private final boolean enabled;
+
+    private final Duration retention;
+
+    public ClickAnalytics(StringRedisTemplate redisTemplate,
+                          @Value("${shortener.analytics.enabled:true}") boolean enabled,
+                          @Value("${shortener.analytics.retention:P7D}") Duration retention,
+                          @Value("${shortener.analytics.max-backlog:100000}") int maxBacklog,
+                          MeterRegistry meterRegistry) {
+        this.redisTemplate = redisTemplate;
+        this.enabled = enabled;
+        this.retention = retention;
+        this.counter = new ClickCounter(maxBacklog);
+        FunctionCounter.builder("shortener.analytics.dropped", counter, ClickCounter::droppedClicks)
+                .description("Clicks dropped because too many counts were waiting to be flushed")
+                .register(meterRegistry);
+    }
+
+    public void record(String shortUrl) {
+        if (enabled) {
+            counter.record(shortUrl);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${shortener.analytics.flush-interval:PT10S}")
+    public void flush() {
+        if (!enabled) {
+            return;
+        }
+        List<ClickCounter.ClickDelta> deltas = counter.drain();
+        if (deltas.isEmpty()) {
+            return;
+        }
+        byte[] totalsKey = bytes(TOTALS_KEY);
+        long retentionSeconds = retention.toSeconds();
+        try {
+            redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                for (ClickCounter.ClickDelta delta : deltas) {
+                    byte[] seriesKey = bytes(seriesKey(delta.shortUrl(), day(delta.minute())));
+                    connection.hashCommands().hIncrBy(totalsKey, bytes(delta.shortUrl()), delta.clicks());
+                    connection.hashCommands().hIncrBy(seriesKey, bytes(Long.toString(minuteOfDay(delta.minute()))), delta.clicks());
+                    connection.keyCommands().expire(seriesKey, retentionSeconds);
+                }
+                return null;
+            });
+        } catch (Exception e) {
+            log.warn("Could not flush {} click counts, retrying with the next flush", deltas.size(), e);
+            counter.restore(deltas);
+        }
+    }
+
+    /**
+     * Forgets the totals of deleted short urls.
+     */
+    public void removed(List<String> shortUrls) {
+        if (shortUrls.isEmpty()) {
+            return;
+        }
+        try {
+            redisTemplate.opsForHash().delete(TOTALS_KEY, shortUrls.toArray());
+        } catch (Exception e) {
+            log.warn("Could not remove the click totals of {} deleted urls", shortUrls.size(), e);
+        }
+    }
+
+    public int maxSeriesMinutes() {
+        return (int) retention.toMinutes();
+    }
+
+    public long total(String shortUrl) {
+        Object total = redisTemplate.opsForHash().get(TOTALS_KEY, shortUrl);
+        return total != null ? Long.parseLong(total.toString()) : 0;
+    }
+
+    /**
+     * @return clicks per minute over the last {@code minutes} minutes, oldest first, including minutes without clicks
+     */
+    public Map<Instant, Long> series(String shortUrl, int minutes) {
+        long to = TimeUnit.MILLISECONDS.toMinutes(System.currentTimeMillis());
+        long from = to - minutes + 1;
+        Map<LocalDate, Map<Object, Object>> days = new HashMap<>();
+        Map<Instant, Long> series = new LinkedHashMap<>();
+        for (long minute = from; minute <= to; minute++) {
+            Map<Object, Object> day = days.computeIfAbsent(day(minute),
+                    date -> redisTemplate.opsForHash().entries(seriesKey(shortUrl, date)));
+            Object clicks = day.get(Long.toString(minuteOfDay(minute)));
+            series.put(Instant.ofEpochSecond(TimeUnit.MINUTES.toSeconds(minute)),
+                    clicks != null ? Long.parseLong(clicks.toString()) : 0L);
+        }
+        return series;
+    }
+
+    private static String seriesKey(String shortUrl, LocalDate day) {
+        return SERIES_KEY_PREFIX + shortUrl + ":" + day;
+    }
+
+    private static LocalDate day(long minute) {
+        return LocalDate.ofEpochDay(TimeUnit.MINUTES.toDays(minute));
+    }
+
+    private static long minuteOfDay(long minute) {
+        return minute % TimeUnit.DAYS.toMinutes(1);
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
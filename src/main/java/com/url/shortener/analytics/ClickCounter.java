@@ -0,0 +1,128 @@
+package com.url.shortener.analytics;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * In-memory click counts per short url, bucketed by minute. Counting a click on a code that was already clicked in
+ * the current window allocates nothing. Clicks are attributed to the minute the window was opened; windows are
+ * rolled by {@link #drain()}, so attribution is exact to within one flush interval.
+ * <p>
+ * Deltas that could not be flushed are kept merged by short url and minute, so repeated failures do not multiply
+ * them, and at most {@code maxBacklog} of them are kept: clicks of further short url minutes are dropped and counted
+ * by {@link #droppedClicks()}.
+ */
+public class ClickCounter {
+
+    private final LongSupplier clock;
+
+    private final int maxBacklog;
+
+    // Only touched by drain and restore, which the flusher calls one after the other
+    private final Map<DeltaKey, Long> backlog = new HashMap<>();
+
+    private final LongAdder dropped = new LongAdder();
+
+    private volatile Window current;
+
+    private Window retired;
+
+    public ClickCounter(int maxBacklog) {
+        this(System::currentTimeMillis, maxBacklog);
+    }
+
+    ClickCounter(LongSupplier clock, int maxBacklog) {
+        this.clock = clock;
+        this.maxBacklog = maxBacklog;
+        this.current = new Window(currentMinute());
+    }
+
+    public void record(String shortUrl) {
+        Map<String, LongAdder> counts = current.counts;
+        LongAdder adder = counts.get(shortUrl);
+        if (adder == null) {
+            adder = counts.computeIfAbsent(shortUrl, key -> new LongAdder());
+        }
+        adder.increment();
+    }
+
+    /**
+     * Opens a new window and returns the counts of the previous one, merged with late clicks on the window before it
+     * and deltas handed back with {@link #restore(List)}. Must not be called concurrently with itself or
+     * {@link #restore(List)}.
+     */
+    public List<ClickDelta> drain() {
+        Window previous = retired;
+        retired = current;
+        current = new Window(currentMinute());
+
+        if (previous != null) {
+            collect(previous);
+        }
+        collect(retired);
+        List<ClickDelta> deltas = new ArrayList<>(backlog.size());
+        backlog.forEach((key, clicks) -> deltas.add(new ClickDelta(key.shortUrl(), key.minute(), clicks)));
+        backlog.clear();
+        return deltas;
+    }
+
+    /**
+     * Hands back deltas that could not be flushed, to be returned again by the next {@link #drain()}.
+     */
+    public void restore(List<ClickDelta> deltas) {
+        for (ClickDelta delta : deltas) {
+            DeltaKey key = new DeltaKey(delta.shortUrl(), delta.minute());
+            if (backlog.size() >= maxBacklog && !backlog.containsKey(key)) {
+                dropped.add(delta.clicks());
+            } else {
+                backlog.merge(key, delta.clicks(), Long::sum);
+            }
+        }
+    }
+
+    /**
+     * @return the clicks dropped because too many deltas were waiting to be flushed
+     */
+    public long droppedClicks() {
+        return dropped.sum();
+    }
+
+    private void collect(Window window) {
+        window.counts.forEach((shortUrl, adder) -> {
+            long clicks = adder.sumThenReset();
+            if (clicks > 0) {
+                backlog.merge(new DeltaKey(shortUrl, window.minute), clicks, Long::sum);
+            }
+        });
+    }
+
+    private long currentMinute() {
+        return TimeUnit.MILLISECONDS.toMinutes(clock.getAsLong());
+    }
+
+    private static final class Window {
+
+        private final long minute;
+
+        private final Map<String, LongAdder> counts = new ConcurrentHashMap<>();
+
+        private Window(long minute) {
+            this.minute = minute;
+        }
+    }
+
+    private record DeltaKey(String shortUrl, long minute) {
+    }
+
+    /**
+     * @param minute minutes since the epoch
+     */
+    public record ClickDelta(String shortUrl, long minute, long clicks) {
+    }
+}
@@ -0,0 +1,40 @@
+package com.url.shortener.cache;
+
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.util.Collection;
+
+/**
+ * Evicts many keys of a Redis backed cache at once: a single DEL for the remote entries, then the near cache copies.
+ */
+public class BulkCacheEvictor {
+
+    private final CacheManager cacheManager;
+
+    private final StringRedisTemplate redisTemplate;
+
+    private final RedisCacheConfiguration redisCacheConfiguration;
+
+    public BulkCacheEvictor(CacheManager cacheManager, StringRedisTemplate redisTemplate,
+                            RedisCacheConfiguration redisCacheConfiguration) {
+        this.cacheManager = cacheManager;
+        this.redisTemplate = redisTemplate;
+        this.redisCacheConfiguration = redisCacheConfiguration;
+    }
+
+    public void evictAll(String cacheName, Collection<String> keys) {
+        if (keys.isEmpty()) {
+            return;
+        }
+        String prefix = redisCacheConfiguration.getKeyPrefixFor(cacheName);
+        redisTemplate.delete(keys.stream().map(key -> prefix + key).toList());
+        if (cacheManager instanceof TwoTierCacheManager twoTierCacheManager) {
+            TwoTierCache cache = twoTierCacheManager.getLocalCache(cacheName);
+            if (cache != null) {
+                cache.evictAllLocal(keys);
+            }
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.url.shortener.cache;
+
+import java.util.Collection;
+
+public interface CacheInvalidationPublisher {
+
+    CacheInvalidationPublisher NONE = new CacheInvalidationPublisher() {
+        @Override
+        public void publishEvict(String cacheName, Object key) {
+        }
+
+        @Override
+        public void publishClear(String cacheName) {
+        }
+    };
+
+    void publishEvict(String cacheName, Object key);
+
+    default void publishEvictAll(String cacheName, Collection<?> keys) {
+        keys.forEach(key -> publishEvict(cacheName, key));
+    }
+
+    void publishClear(String cacheName);
+}
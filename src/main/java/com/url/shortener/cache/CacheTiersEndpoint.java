@@ -0,0 +1,30 @@
+package com.url.shortener.cache;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Hit and miss counters of each cache tier, served at {@code /actuator/cachetiers}.
+ */
+@Endpoint(id = "cachetiers")
+public class CacheTiersEndpoint {
+
+    private final TwoTierCacheManager cacheManager;
+
+    public CacheTiersEndpoint(TwoTierCacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    @ReadOperation
+    public Map<String, Map<String, TwoTierCache.TierStats>> tiers() {
+        Map<String, Map<String, TwoTierCache.TierStats>> tiers = new TreeMap<>();
+        for (String name : cacheManager.getCacheNames()) {
+            TwoTierCache cache = cacheManager.getLocalCache(name);
+            tiers.put(name, Map.of("local", cache.localStats(), "remote", cache.remoteStats()));
+        }
+        return tiers;
+    }
+}
@@ -0,0 +1,83 @@
+package com.url.shortener.cache;
+
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheWriter;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.DoubleSupplier;
+
+/**
+ * Redis cache with probabilistic early expiration (XFetch): each read fetches the entry and its remaining TTL with one
+ * script call, a single command that can share a multiplexed connection where a pipeline could not, and reports a
+ * miss with a probability that grows as expiry approaches, so one caller reloads and rewrites a popular entry before
+ * it expires instead of every caller missing at once. A reader refreshes early when
+ * {@code remainingTtl <= -window * ln(random)}; the expected number of early refreshes before expiry is the read rate
+ * times the window.
+ */
+public class EarlyRefreshRedisCache extends RedisCache {
+
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> GET_WITH_TTL = new DefaultRedisScript<>(
+            "return {redis.call('GET', KEYS[1]), redis.call('PTTL', KEYS[1])}", List.class);
+
+    /**
+     * Applied to each element of the script's result, so the value stays raw bytes and the TTL a long.
+     */
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private static final RedisSerializer<List> ELEMENTS_AS_BYTES = (RedisSerializer) RedisSerializer.byteArray();
+
+    private final StringRedisTemplate redisTemplate;
+
+    private final long windowMillis;
+
+    private final DoubleSupplier random;
+
+    public EarlyRefreshRedisCache(String name, RedisCacheWriter cacheWriter, RedisCacheConfiguration cacheConfiguration,
+                                  StringRedisTemplate redisTemplate, Duration window) {
+        this(name, cacheWriter, cacheConfiguration, redisTemplate, window,
+                () -> 1 - ThreadLocalRandom.current().nextDouble());
+    }
+
+    EarlyRefreshRedisCache(String name, RedisCacheWriter cacheWriter, RedisCacheConfiguration cacheConfiguration,
+                           StringRedisTemplate redisTemplate, Duration window, DoubleSupplier random) {
+        super(name, cacheWriter, cacheConfiguration);
+        this.redisTemplate = redisTemplate;
+        this.windowMillis = window.toMillis();
+        this.random = random;
+    }
+
+    @Override
+    protected Object lookup(Object key) {
+        return lookup(key, true);
+    }
+
+    /**
+     * Reads the entry without ever reporting an early miss, for background readers that would drop the entry on a
+     * miss rather than reload it.
+     */
+    public ValueWrapper getWithoutEarlyRefresh(Object key) {
+        return toValueWrapper(lookup(key, false));
+    }
+
+    private Object lookup(Object key, boolean earlyRefresh) {
+        List<?> results = redisTemplate.execute(GET_WITH_TTL, RedisSerializer.string(), ELEMENTS_AS_BYTES,
+                List.of(createCacheKey(key)));
+        byte[] value = (byte[]) results.get(0);
+        if (value == null || earlyRefresh && refreshEarly((Long) results.get(1))) {
+            return null;
+        }
+        return deserializeCacheValue(value);
+    }
+
+    private boolean refreshEarly(Long remainingTtlMillis) {
+        return remainingTtlMillis != null && remainingTtlMillis >= 0
+                && remainingTtlMillis <= -windowMillis * Math.log(random.getAsDouble());
+    }
+}
@@ -0,0 +1,32 @@
+package com.url.shortener.cache;
+
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.cache.RedisCacheWriter;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Duration;
+
+/**
+ * {@link RedisCacheManager} creating {@link EarlyRefreshRedisCache}s.
+ */
+public class EarlyRefreshRedisCacheManager extends RedisCacheManager {
+
+    private final StringRedisTemplate redisTemplate;
+
+    private final Duration window;
+
+    public EarlyRefreshRedisCacheManager(RedisCacheWriter cacheWriter, RedisCacheConfiguration defaultCacheConfiguration,
+                                         StringRedisTemplate redisTemplate, Duration window) {
+        super(cacheWriter, defaultCacheConfiguration);
+        this.redisTemplate = redisTemplate;
+        this.window = window;
+    }
+
+    @Override
+    protected RedisCache createRedisCache(String name, RedisCacheConfiguration cacheConfiguration) {
+        return new EarlyRefreshRedisCache(name, getCacheWriter(), cacheConfiguration != null ? cacheConfiguration : getDefaultCacheConfiguration(),
+                redisTemplate, window);
+    }
+}
@@ -0,0 +1,91 @@
+package com.url.shortener.cache;
+
+import com.url.shortener.messaging.TopicMessageListener;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.Topic;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+
+/**
+ * Broadcasts cache evictions over Redis pub/sub and applies the ones received from other nodes.
+ * Messages are {@code <cacheName>:<key>}; an empty key clears the whole local tier.
+ */
+@Slf4j
+public class RedisCacheInvalidation implements CacheInvalidationPublisher, TopicMessageListener {
+
+    public static final String CHANNEL = "#cache-invalidation";
+
+    private final StringRedisTemplate redisTemplate;
+
+    private TwoTierCacheManager cacheManager;
+
+    public RedisCacheInvalidation(StringRedisTemplate redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+
+    public void setCacheManager(TwoTierCacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    @Override
+    public void publishEvict(String cacheName, Object key) {
+        publish(cacheName + ":" + key);
+    }
+
+    @Override
+    public void publishEvictAll(String cacheName, Collection<?> keys) {
+        byte[] channel = CHANNEL.getBytes(StandardCharsets.UTF_8);
+        try {
+            redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                for (Object key : keys) {
+                    connection.publish(channel, (cacheName + ":" + key).getBytes(StandardCharsets.UTF_8));
+                }
+                return null;
+            });
+        } catch (Exception e) {
+            log.warn("Could not publish cache invalidation of {} keys", keys.size(), e);
+        }
+    }
+
+    @Override
+    public void publishClear(String cacheName) {
+        publish(cacheName + ":");
+    }
+
+    private void publish(String message) {
+        try {
+            redisTemplate.convertAndSend(CHANNEL, message);
+        } catch (Exception e) {
+            log.warn("Could not publish cache invalidation {}", message, e);
+        }
+    }
+
+    @Override
+    public Topic getTopic() {
+        return new ChannelTopic(CHANNEL);
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        int separator = body.indexOf(':');
+        if (separator < 0 || cacheManager == null) {
+            return;
+        }
+        TwoTierCache cache = cacheManager.getLocalCache(body.substring(0, separator));
+        if (cache == null) {
+            return;
+        }
+        String key = body.substring(separator + 1);
+        if (key.isEmpty()) {
+            cache.clearLocal();
+        } else {
+            cache.evictLocal(key);
+        }
+    }
+}
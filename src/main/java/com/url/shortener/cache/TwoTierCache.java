@@ -0,0 +1,287 @@
+package com.url.shortener.cache;
+
+import com.url.shortener.hotkey.HotKeyTracker;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Bounded in-process cache in front of a shared remote cache. Reads are served locally when possible,
+ * writes go to both tiers and evictions are broadcast so every node drops its local copy.
+ * <p>
+ * With a {@link HotKeyTracker}, keys it reports as hot are pinned locally and re-read from the remote tier by
+ * {@link #refreshPinned()} in the background, so reads of hot keys never wait on a remote call. A pinned key is
+ * unpinned when it is evicted, cools down or is gone from the remote tier; an early refresh miss of an
+ * {@link EarlyRefreshRedisCache} does not count as gone.
+ */
+public class TwoTierCache implements Cache {
+
+    private final String name;
+
+    private final com.github.benmanes.caffeine.cache.Cache<Object, Object> local;
+
+    private final Cache remote;
+
+    private final CacheInvalidationPublisher invalidationPublisher;
+
+    private final LongAdder remoteHits = new LongAdder();
+
+    private final LongAdder remoteMisses = new LongAdder();
+
+    private final HotKeyTracker hotKeyTracker;
+
+    private final Map<Object, Object> pinned = new ConcurrentHashMap<>();
+
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public TwoTierCache(String name, com.github.benmanes.caffeine.cache.Cache<Object, Object> local, Cache remote,
+                        CacheInvalidationPublisher invalidationPublisher) {
+        this(name, local, remote, invalidationPublisher, null);
+    }
+
+    public TwoTierCache(String name, com.github.benmanes.caffeine.cache.Cache<Object, Object> local, Cache remote,
+                        CacheInvalidationPublisher invalidationPublisher, HotKeyTracker hotKeyTracker) {
+        this.name = name;
+        this.local = local;
+        this.remote = remote;
+        this.invalidationPublisher = invalidationPublisher;
+        this.hotKeyTracker = hotKeyTracker;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return this;
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        ValueWrapper localWrapper = getLocal(key);
+        if (localWrapper != null) {
+            return localWrapper;
+        }
+        ValueWrapper wrapper = remote.get(key);
+        if (wrapper == null || wrapper.get() == null) {
+            remoteMisses.increment();
+            return null;
+        }
+        remoteHits.increment();
+        local.put(key, wrapper.get());
+        return wrapper;
+    }
+
+    /**
+     * Reads the pinned and local copies only, for callers that read the remote tier themselves without blocking.
+     * The read counts towards hot key tracking like {@link #get(Object)}.
+     */
+    public ValueWrapper getLocal(Object key) {
+        if (hotKeyTracker != null) {
+            hotKeyTracker.record(key);
+            Object pinnedValue = pinned.get(key);
+            if (pinnedValue != null) {
+                return new SimpleValueWrapper(pinnedValue);
+            }
+        }
+        Object value = local.getIfPresent(key);
+        return value != null ? new SimpleValueWrapper(value) : null;
+    }
+
+    /**
+     * Keeps a value the caller read from the remote tier itself, counted as a remote hit.
+     */
+    public void putLocal(Object key, Object value) {
+        remoteHits.increment();
+        local.put(key, value);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        Object value = wrapper != null ? wrapper.get() : null;
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException("Cached value is not of required type [" + type.getName() + "]: " + value);
+        }
+        return (T) value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        ValueWrapper wrapper = get(key);
+        if (wrapper != null) {
+            return (T) wrapper.get();
+        }
+        T value;
+        try {
+            value = valueLoader.call();
+        } catch (Exception e) {
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+        if (value != null) {
+            put(key, value);
+        }
+        return value;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        if (value == null) {
+            evict(key);
+            return;
+        }
+        remote.put(key, value);
+        local.put(key, value);
+        pinned.replace(key, value);
+    }
+
+    @Override
+    public void evict(Object key) {
+        remote.evict(key);
+        evictLocal(key);
+        invalidationPublisher.publishEvict(name, key);
+    }
+
+    @Override
+    public void clear() {
+        remote.clear();
+        clearLocal();
+        invalidationPublisher.publishClear(name);
+    }
+
+    /**
+     * Drops the local copy only, used when another node broadcasts an eviction.
+     */
+    public void evictLocal(Object key) {
+        invalidations.incrementAndGet();
+        pinned.remove(key);
+        local.invalidate(key);
+    }
+
+    /**
+     * Drops local copies of keys whose remote entries were already removed in bulk, on this node and on every other.
+     */
+    public void evictAllLocal(Collection<?> keys) {
+        invalidations.incrementAndGet();
+        pinned.keySet().removeAll(keys);
+        local.invalidateAll(keys);
+        invalidationPublisher.publishEvictAll(name, keys);
+    }
+
+    public void clearLocal() {
+        invalidations.incrementAndGet();
+        pinned.clear();
+        local.invalidateAll();
+    }
+
+    /**
+     * Pins the keys that are currently hot and re-reads every pinned value from the remote tier. Values read while
+     * an eviction happened are discarded, the key is pinned again on the next refresh.
+     */
+    public void refreshPinned() {
+        if (hotKeyTracker == null) {
+            return;
+        }
+        List<HotKeyTracker.HotKey> hotKeys = hotKeyTracker.hotKeys();
+        Set<Object> hot = new HashSet<>();
+        hotKeys.forEach(hotKey -> hot.add(hotKey.key()));
+        pinned.keySet().retainAll(hot);
+        for (Object key : hot) {
+            long invalidationsBefore = invalidations.get();
+            ValueWrapper wrapper = remote instanceof EarlyRefreshRedisCache earlyRefreshCache
+                    ? earlyRefreshCache.getWithoutEarlyRefresh(key)
+                    : remote.get(key);
+            Object value = wrapper != null ? wrapper.get() : null;
+            if (value == null) {
+                pinned.remove(key);
+            } else if (invalidations.get() == invalidationsBefore) {
+                pinned.put(key, value);
+            }
+        }
+    }
+
+    public void decayHotKeys() {
+        if (hotKeyTracker != null) {
+            hotKeyTracker.decay();
+        }
+    }
+
+    /**
+     * @return the hot keys with their estimated recent accesses and whether they are pinned, hottest first
+     */
+    public List<HotKeyStats> hotKeys() {
+        if (hotKeyTracker == null) {
+            return List.of();
+        }
+        return hotKeyTracker.hotKeys().stream()
+                .map(hotKey -> new HotKeyStats(hotKey.key(), hotKey.hits(), pinned.containsKey(hotKey.key())))
+                .toList();
+    }
+
+    /**
+     * @return up to {@code limit} keys of the local tier, most likely to be read again first
+     */
+    public List<Object> hottestLocalKeys(int limit) {
+        return local.policy().eviction()
+                .map(eviction -> List.copyOf(eviction.hottest(limit).keySet()))
+                .orElseGet(() -> local.asMap().keySet().stream().limit(limit).toList());
+    }
+
+    public TierStats localStats() {
+        com.github.benmanes.caffeine.cache.stats.CacheStats stats = local.stats();
+        return new TierStats(stats.hitCount(), stats.missCount(), stats.evictionCount(), local.estimatedSize());
+    }
+
+    public TierStats remoteStats() {
+        return new TierStats(remoteHits.sum(), remoteMisses.sum(), 0, -1);
+    }
+
+    /**
+     * Registers {@code cache.tier.gets} counters per tier and result and the {@code cache.tier.size} of the local tier,
+     * read from the existing counters when scraped, so reads pay nothing extra.
+     */
+    void bindTo(MeterRegistry registry) {
+        tierCounter(registry, "local", "hit", () -> local.stats().hitCount());
+        tierCounter(registry, "local", "miss", () -> local.stats().missCount());
+        tierCounter(registry, "remote", "hit", remoteHits::sum);
+        tierCounter(registry, "remote", "miss", remoteMisses::sum);
+        Gauge.builder("cache.tier.size", local, com.github.benmanes.caffeine.cache.Cache::estimatedSize)
+                .description("Entries in the local tier")
+                .tags("cache", name, "tier", "local")
+                .register(registry);
+    }
+
+    /**
+     * Meters only keep a weak reference to the object they read, so they read this cache rather than the supplier,
+     * which nothing else references and would be collected.
+     */
+    private void tierCounter(MeterRegistry registry, String tier, String result, LongSupplier count) {
+        FunctionCounter.builder("cache.tier.gets", this, cache -> count.getAsLong())
+                .description("Cache reads per tier")
+                .tags("cache", name, "tier", tier, "result", result)
+                .register(registry);
+    }
+
+    public record TierStats(long hits, long misses, long evictions, long size) {
+    }
+
+    public record HotKeyStats(Object key, long hits, boolean pinned) {
+    }
+}
@@ -0,0 +1,101 @@
+package com.url.shortener.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.url.shortener.hotkey.HotKeyTracker;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+public class TwoTierCacheManager implements CacheManager, MeterBinder {
+
+    private final CacheManager remoteCacheManager;
+
+    private final CacheInvalidationPublisher invalidationPublisher;
+
+    private final long maximumSize;
+
+    private final Duration timeToLive;
+
+    private final Supplier<HotKeyTracker> hotKeyTrackers;
+
+    private final Map<String, TwoTierCache> caches = new ConcurrentHashMap<>();
+
+    private volatile MeterRegistry meterRegistry;
+
+    public TwoTierCacheManager(CacheManager remoteCacheManager, CacheInvalidationPublisher invalidationPublisher,
+                               long maximumSize, Duration timeToLive) {
+        this(remoteCacheManager, invalidationPublisher, maximumSize, timeToLive, null);
+    }
+
+    /**
+     * @param hotKeyTrackers creates the hot key tracker of each cache, null to not pin hot keys
+     */
+    public TwoTierCacheManager(CacheManager remoteCacheManager, CacheInvalidationPublisher invalidationPublisher,
+                               long maximumSize, Duration timeToLive, Supplier<HotKeyTracker> hotKeyTrackers) {
+        this.remoteCacheManager = remoteCacheManager;
+        this.invalidationPublisher = invalidationPublisher;
+        this.maximumSize = maximumSize;
+        this.timeToLive = timeToLive;
+        this.hotKeyTrackers = hotKeyTrackers;
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        return caches.computeIfAbsent(name, this::createCache);
+    }
+
+    /**
+     * @return the cache if it was already created on this node, without creating it
+     */
+    public TwoTierCache getLocalCache(String name) {
+        return caches.get(name);
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return Collections.unmodifiableSet(caches.keySet());
+    }
+
+    /**
+     * Registers the tier counters of every cache, including the ones created later.
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        this.meterRegistry = registry;
+        caches.values().forEach(cache -> cache.bindTo(registry));
+    }
+
+    @Scheduled(fixedDelayString = "${shortener.cache.hot-keys.refresh-interval:PT5S}")
+    public void refreshHotKeys() {
+        caches.values().forEach(TwoTierCache::refreshPinned);
+    }
+
+    @Scheduled(fixedDelayString = "${shortener.cache.hot-keys.window:PT1M}")
+    public void decayHotKeys() {
+        caches.values().forEach(TwoTierCache::decayHotKeys);
+    }
+
+    private TwoTierCache createCache(String name) {
+        com.github.benmanes.caffeine.cache.Cache<Object, Object> local = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(timeToLive)
+                .recordStats()
+                .build();
+        TwoTierCache cache = new TwoTierCache(name, local, remoteCacheManager.getCache(name), invalidationPublisher,
+                hotKeyTrackers != null ? hotKeyTrackers.get() : null);
+        MeterRegistry registry = meterRegistry;
+        if (registry != null) {
+            cache.bindTo(registry);
+        }
+        return cache;
+    }
+}
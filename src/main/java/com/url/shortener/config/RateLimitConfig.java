@@ -0,0 +1,53 @@
+package com.url.shortener.config;
+
+import com.url.shortener.ratelimit.RateLimitInterceptor;
+import com.url.shortener.ratelimit.RateLimiter;
+import com.url.shortener.ratelimit.RedisTokenBucket;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.Set;
+
+/**
+ * Rate limits creates per client, see {@link RateLimiter}. Batches are charged one token for the request here and
+ * one per url by the {@link com.url.shortener.service.UrlBatchService}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "shortener.rate-limit.enabled", havingValue = "true", matchIfMissing = true)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class RateLimitConfig implements WebMvcConfigurer {
+
+    private final RateLimiter rateLimiter;
+
+    private final Set<String> apiKeys;
+
+    public RateLimitConfig(StringRedisTemplate stringRedisTemplate,
+                           @Value("${shortener.rate-limit.permits-per-second:10}") double permitsPerSecond,
+                           @Value("${shortener.rate-limit.burst:20}") int burst,
+                           @Value("${shortener.rate-limit.max-clients:100000}") long maxClients,
+                           @Value("${shortener.rate-limit.global.enabled:true}") boolean globalEnabled,
+                           @Value("${shortener.rate-limit.global.permits-per-second:10}") double globalPermitsPerSecond,
+                           @Value("${shortener.rate-limit.global.burst:20}") int globalBurst,
+                           @Value("${shortener.rate-limit.api-keys:}") Set<String> apiKeys) {
+        this.rateLimiter = new RateLimiter(permitsPerSecond, burst, maxClients, globalEnabled
+                ? new RedisTokenBucket(stringRedisTemplate, globalPermitsPerSecond, globalBurst)
+                : null);
+        this.apiKeys = apiKeys;
+    }
+
+    @Bean
+    public RateLimiter rateLimiter() {
+        return rateLimiter;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new RateLimitInterceptor(rateLimiter, apiKeys)).addPathPatterns("/url", "/url/batch");
+    }
+}
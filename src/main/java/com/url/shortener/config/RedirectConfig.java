@@ -0,0 +1,24 @@
+package com.url.shortener.config;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.boot.web.embedded.netty.NettyServerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Reactive redirect profile, see {@link com.url.shortener.controller.ReactiveUrlResolverController}. Tomcat stays on
+ * the classpath for the servlet application and would be preferred, so Netty is chosen explicitly.
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class RedirectConfig {
+
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory(ObjectProvider<NettyServerCustomizer> serverCustomizers) {
+        NettyReactiveWebServerFactory serverFactory = new NettyReactiveWebServerFactory();
+        serverFactory.getServerCustomizers().addAll(serverCustomizers.orderedStream().toList());
+        return serverFactory;
+    }
+}
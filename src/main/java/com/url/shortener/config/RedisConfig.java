@@ -1,55 +1,256 @@
 package com.url.shortener.config;
 
+import com.url.shortener.cache.BulkCacheEvictor;
+import com.url.shortener.cache.CacheInvalidationPublisher;
+import com.url.shortener.cache.CacheTiersEndpoint;
+import com.url.shortener.cache.EarlyRefreshRedisCacheManager;
+import com.url.shortener.cache.RedisCacheInvalidation;
+import com.url.shortener.cache.TwoTierCacheManager;
+import com.url.shortener.hotkey.HotKeyTracker;
+import com.url.shortener.hotkey.HotKeysEndpoint;
+import com.url.shortener.messaging.TopicMessageListener;
+import com.url.shortener.serialization.CompactRedisSerializer;
+import io.lettuce.core.ClientOptions;
+import io.lettuce.core.SocketOptions;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.apache.commons.pool2.impl.GenericObjectPoolConfig;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.data.redis.RedisProperties;
+import org.springframework.cache.CacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.cache.RedisCacheWriter;
+import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.jedis.JedisClientConfiguration;
 import org.springframework.data.redis.connection.jedis.JedisConnectionFactory;
+import org.springframework.data.redis.connection.lettuce.LettuceClientConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnection;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.connection.lettuce.LettucePoolingClientConfiguration;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.repository.configuration.EnableRedisRepositories;
-import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
+import redis.clients.jedis.Jedis;
 
 import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
 
 @Configuration
 @EnableRedisRepositories
 public class RedisConfig {
 
+    private static final int HOT_KEY_SKETCH_WIDTH = 1 << 14;
+
+    private static final int HOT_KEY_SKETCH_DEPTH = 4;
+
+    private final RedisProperties redisProperties;
+
+    private final RedisSerializer<Object> valueSerializer;
+
+    public RedisConfig(RedisProperties redisProperties,
+                       @Value("${shortener.redis.serializer:compact}") String serializer) {
+        this.redisProperties = redisProperties;
+        this.valueSerializer = new CompactRedisSerializer("jdk".equals(serializer));
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "shortener.redis.client", havingValue = "jedis", matchIfMissing = true)
+    public JedisConnectionFactory jedisConnectionFactory() {
+        return new JedisConnectionFactory(standaloneConfiguration(), jedisClientConfiguration());
+    }
+
+    /**
+     * All non-blocking commands share one multiplexed connection: concurrent callers write their commands to it
+     * without waiting for earlier replies, so simultaneous resolve lookups are pipelined on the wire instead of each
+     * borrowing a pooled connection. Explicit pipelines are written in a single flush when they are closed.
+     */
     @Bean
-    public JedisConnectionFactory connectionFactory() {
+    @ConditionalOnProperty(name = "shortener.redis.client", havingValue = "lettuce")
+    public LettuceConnectionFactory lettuceConnectionFactory() {
+        LettuceConnectionFactory connectionFactory = new LettuceConnectionFactory(standaloneConfiguration(), lettuceClientConfiguration());
+        connectionFactory.setShareNativeConnection(true);
+        connectionFactory.setPipeliningFlushPolicy(LettuceConnection.PipeliningFlushPolicy.flushOnClose());
+        return connectionFactory;
+    }
+
+    private RedisStandaloneConfiguration standaloneConfiguration() {
         RedisStandaloneConfiguration configuration = new RedisStandaloneConfiguration();
-        configuration.setHostName("cache");
-        configuration.setPort(6379);
-        return new JedisConnectionFactory(configuration);
+        configuration.setHostName(redisProperties.getHost());
+        configuration.setPort(redisProperties.getPort());
+        configuration.setDatabase(redisProperties.getDatabase());
+        configuration.setUsername(redisProperties.getUsername());
+        if (redisProperties.getPassword() != null) {
+            configuration.setPassword(redisProperties.getPassword());
+        }
+        return configuration;
+    }
+
+    /**
+     * Pool bounds come from {@code spring.data.redis.jedis.pool.*}. With virtual threads there is no longer a
+     * thread pool limiting concurrent Redis calls, so max-active is what bounds them and max-wait keeps callers from
+     * queueing forever when Redis is slow.
+     */
+    private JedisClientConfiguration jedisClientConfiguration() {
+        JedisClientConfiguration.JedisClientConfigurationBuilder builder = JedisClientConfiguration.builder();
+        GenericObjectPoolConfig<Jedis> poolConfig = poolConfig(redisProperties.getJedis().getPool());
+        builder.usePooling().poolConfig(poolConfig);
+        if (redisProperties.getTimeout() != null) {
+            builder.readTimeout(redisProperties.getTimeout());
+        }
+        if (redisProperties.getConnectTimeout() != null) {
+            builder.connectTimeout(redisProperties.getConnectTimeout());
+        }
+        return builder.build();
+    }
+
+    /**
+     * Timeouts come from {@code spring.data.redis.timeout}, {@code connect-timeout} and
+     * {@code lettuce.shutdown-timeout}. A pool ({@code spring.data.redis.lettuce.pool.*}, off unless
+     * {@code enabled}) is only used for blocking commands and transactions, which cannot share the connection.
+     */
+    private LettuceClientConfiguration lettuceClientConfiguration() {
+        RedisProperties.Pool pool = redisProperties.getLettuce().getPool();
+        LettuceClientConfiguration.LettuceClientConfigurationBuilder builder = Boolean.TRUE.equals(pool.getEnabled())
+                ? LettucePoolingClientConfiguration.builder().poolConfig(poolConfig(pool))
+                : LettuceClientConfiguration.builder();
+        SocketOptions.Builder socketOptions = SocketOptions.builder();
+        if (redisProperties.getConnectTimeout() != null) {
+            socketOptions.connectTimeout(redisProperties.getConnectTimeout());
+        }
+        builder.clientOptions(ClientOptions.builder().socketOptions(socketOptions.build()).build());
+        if (redisProperties.getTimeout() != null) {
+            builder.commandTimeout(redisProperties.getTimeout());
+        }
+        if (redisProperties.getLettuce().getShutdownTimeout() != null) {
+            builder.shutdownTimeout(redisProperties.getLettuce().getShutdownTimeout());
+        }
+        return builder.build();
+    }
+
+    private static <T> GenericObjectPoolConfig<T> poolConfig(RedisProperties.Pool pool) {
+        GenericObjectPoolConfig<T> poolConfig = new GenericObjectPoolConfig<>();
+        poolConfig.setMaxTotal(pool.getMaxActive());
+        poolConfig.setMaxIdle(pool.getMaxIdle());
+        poolConfig.setMinIdle(pool.getMinIdle());
+        if (pool.getMaxWait() != null) {
+            poolConfig.setMaxWait(pool.getMaxWait());
+        }
+        return poolConfig;
     }
 
     @Bean
-    public RedisTemplate<String, Object> template() {
+    public RedisTemplate<String, Object> template(RedisConnectionFactory connectionFactory) {
         RedisTemplate<String, Object> template = new RedisTemplate<>();
-        template.setConnectionFactory(connectionFactory());
+        template.setConnectionFactory(connectionFactory);
         template.setKeySerializer(new StringRedisSerializer());
         template.setHashKeySerializer(new StringRedisSerializer());
-        template.setHashKeySerializer(new JdkSerializationRedisSerializer());
-        template.setValueSerializer(new JdkSerializationRedisSerializer());
-        template.setEnableTransactionSupport(true);
+        template.setValueSerializer(valueSerializer);
+        template.setHashValueSerializer(valueSerializer);
         template.afterPropertiesSet();
         return template;
     }
 
+    /**
+     * Same serialization as {@link #template}, over the shared Lettuce connection.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "shortener.redis.client", havingValue = "lettuce")
+    public ReactiveRedisTemplate<String, Object> reactiveTemplate(ReactiveRedisConnectionFactory connectionFactory) {
+        RedisSerializationContext<String, Object> serializationContext = RedisSerializationContext
+                .<String, Object>newSerializationContext(new StringRedisSerializer())
+                .value(valueSerializer)
+                .hashValue(valueSerializer)
+                .build();
+        return new ReactiveRedisTemplate<>(connectionFactory, serializationContext);
+    }
+
 
     @Bean
-    public RedisCacheManager cacheManager(RedisConnectionFactory connectionFactory) {
-        RedisCacheConfiguration config = RedisCacheConfiguration.defaultCacheConfig()
+    public RedisCacheConfiguration redisCacheConfiguration() {
+        return RedisCacheConfiguration.defaultCacheConfig()
                 .prefixCacheNameWith(this.getClass().getPackageName() + ".")
                 .entryTtl(Duration.ofHours(1))
+                .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(valueSerializer))
                 .disableCachingNullValues();
+    }
 
-        return RedisCacheManager.builder(connectionFactory)
-                .cacheDefaults(config)
-                .build();
+    @Bean
+    public CacheManager cacheManager(RedisConnectionFactory connectionFactory, RedisCacheConfiguration redisCacheConfiguration,
+                                     StringRedisTemplate stringRedisTemplate,
+                                     Optional<RedisCacheInvalidation> cacheInvalidation,
+                                     @Value("${shortener.cache.early-refresh.window:PT1M}") Duration earlyRefreshWindow,
+                                     @Value("${shortener.cache.near.enabled:true}") boolean nearCacheEnabled,
+                                     @Value("${shortener.cache.near.maximum-size:10000}") long nearCacheMaximumSize,
+                                     @Value("${shortener.cache.near.ttl:60s}") Duration nearCacheTtl,
+                                     @Value("${shortener.cache.hot-keys.enabled:true}") boolean hotKeysEnabled,
+                                     @Value("${shortener.cache.hot-keys.top-k:100}") int hotKeysTopK,
+                                     @Value("${shortener.cache.hot-keys.min-hits:1000}") long hotKeysMinHits) {
+        RedisCacheManager redisCacheManager = earlyRefreshWindow.isZero()
+                ? RedisCacheManager.builder(connectionFactory).cacheDefaults(redisCacheConfiguration).build()
+                : new EarlyRefreshRedisCacheManager(RedisCacheWriter.nonLockingRedisCacheWriter(connectionFactory),
+                        redisCacheConfiguration, stringRedisTemplate, earlyRefreshWindow);
+        if (!nearCacheEnabled) {
+            return redisCacheManager;
+        }
+        redisCacheManager.afterPropertiesSet();
+        TwoTierCacheManager cacheManager = new TwoTierCacheManager(redisCacheManager,
+                cacheInvalidation.<CacheInvalidationPublisher>map(invalidation -> invalidation).orElse(CacheInvalidationPublisher.NONE),
+                nearCacheMaximumSize, nearCacheTtl,
+                hotKeysEnabled ? () -> new HotKeyTracker(hotKeysTopK, hotKeysMinHits, HOT_KEY_SKETCH_WIDTH, HOT_KEY_SKETCH_DEPTH) : null);
+        cacheInvalidation.ifPresent(invalidation -> invalidation.setCacheManager(cacheManager));
+        return cacheManager;
+    }
+
+    @Bean
+    public BulkCacheEvictor bulkCacheEvictor(CacheManager cacheManager, StringRedisTemplate stringRedisTemplate,
+                                             RedisCacheConfiguration redisCacheConfiguration) {
+        return new BulkCacheEvictor(cacheManager, stringRedisTemplate, redisCacheConfiguration);
+    }
+
+    @Configuration
+    @ConditionalOnProperty(name = "shortener.cache.near.enabled", havingValue = "true", matchIfMissing = true)
+    static class NearCacheConfig {
+
+        @Bean
+        public CacheTiersEndpoint cacheTiersEndpoint(CacheManager cacheManager) {
+            return new CacheTiersEndpoint((TwoTierCacheManager) cacheManager);
+        }
+
+        @Bean
+        public HotKeysEndpoint hotKeysEndpoint(CacheManager cacheManager) {
+            return new HotKeysEndpoint((TwoTierCacheManager) cacheManager);
+        }
+
+        @Bean
+        public MeterBinder cacheTierMetrics(CacheManager cacheManager) {
+            return (TwoTierCacheManager) cacheManager;
+        }
+
+        @Bean
+        public RedisCacheInvalidation cacheInvalidation(StringRedisTemplate stringRedisTemplate) {
+            return new RedisCacheInvalidation(stringRedisTemplate);
+        }
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "shortener.redis.listener.enabled", havingValue = "true", matchIfMissing = true)
+    public RedisMessageListenerContainer redisMessageListenerContainer(RedisConnectionFactory connectionFactory,
+                                                                       List<TopicMessageListener> listeners) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        listeners.forEach(listener -> container.addMessageListener(listener, listener.getTopic()));
+        return container;
     }
 
 }
\ No newline at end of file
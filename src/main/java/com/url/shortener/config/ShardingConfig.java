@@ -0,0 +1,58 @@
+package com.url.shortener.config;
+
+import com.url.shortener.events.UrlEventPublisher;
+import com.url.shortener.persistence.ShardedUrlWriter;
+import com.url.shortener.persistence.UrlWriter;
+import com.url.shortener.shard.ReshardEndpoint;
+import com.url.shortener.shard.UrlResharder;
+import com.url.shortener.shard.UrlShards;
+import com.url.shortener.store.ShardedUrlMappingStore;
+import com.url.shortener.store.UrlMappingStore;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Shards the url table by short url. Replaces the {@link UrlWriterConfig} and {@link UrlMappingStoreConfig} beans.
+ */
+@Configuration
+@ConditionalOnProperty(name = "shortener.sharding.enabled", havingValue = "true")
+public class ShardingConfig {
+
+    @Bean(destroyMethod = "close")
+    public UrlShards urlShards(DataSource dataSource,
+                               @Value("${shortener.sharding.urls:}") List<String> urls,
+                               @Value("${shortener.sharding.previous-urls:#{null}}") List<String> previousUrls,
+                               @Value("${shortener.sharding.username:${spring.datasource.username:}}") String username,
+                               @Value("${shortener.sharding.password:${spring.datasource.password:}}") String password,
+                               @Value("${shortener.sharding.maximum-pool-size:20}") int maximumPoolSize,
+                               @Value("${shortener.sharding.connection-timeout:2000ms}") Duration connectionTimeout,
+                               @Value("${shortener.sharding.virtual-nodes:160}") int virtualNodes,
+                               ObjectProvider<MeterRegistry> meterRegistry) {
+        return new UrlShards(dataSource, urls, previousUrls, username, password, maximumPoolSize, connectionTimeout,
+                virtualNodes, meterRegistry.getIfAvailable());
+    }
+
+    @Bean
+    public UrlMappingStore shardedUrlMappingStore(UrlShards urlShards) {
+        return new ShardedUrlMappingStore(urlShards);
+    }
+
+    @Bean
+    public UrlWriter shardedUrlWriter(UrlShards urlShards, UrlEventPublisher eventPublisher) {
+        return new ShardedUrlWriter(urlShards, eventPublisher);
+    }
+
+    @Bean
+    public ReshardEndpoint reshardEndpoint(UrlShards urlShards,
+                                           @Value("${shortener.sharding.reshard.page-size:1000}") int pageSize) {
+        return new ReshardEndpoint(new UrlResharder(urlShards, pageSize));
+    }
+}
@@ -0,0 +1,63 @@
+package com.url.shortener.config;
+
+import com.url.shortener.generator.IdRangeAllocator;
+import com.url.shortener.generator.JdbcIdRangeAllocator;
+import com.url.shortener.generator.RandomShortUrlGenerator;
+import com.url.shortener.generator.RangeShortUrlGenerator;
+import com.url.shortener.generator.RedisIdRangeAllocator;
+import com.url.shortener.generator.ShortUrlGenerator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@Configuration
+public class ShortUrlGeneratorConfig {
+
+    private static final String ID_BLOCK_NAME = "short-url";
+
+    // The length of the short-url column.
+    private static final int MAX_SHORT_URL_LENGTH = 7;
+
+    @Bean
+    @ConditionalOnProperty(name = "shortener.generator.type", havingValue = "random", matchIfMissing = true)
+    public ShortUrlGenerator randomShortUrlGenerator(@Value("${shortener.short-url-length:7}") int shortUrlLength) {
+        return new RandomShortUrlGenerator(checkLength(shortUrlLength));
+    }
+
+    @Configuration
+    @ConditionalOnProperty(name = "shortener.generator.type", havingValue = "range")
+    static class RangeGeneratorConfig {
+
+        @Bean
+        public ShortUrlGenerator rangeShortUrlGenerator(IdRangeAllocator idRangeAllocator,
+                                                        @Value("${shortener.short-url-length:7}") int shortUrlLength,
+                                                        @Value("${shortener.generator.range.block-size:10000}") int blockSize) {
+            return new RangeShortUrlGenerator(idRangeAllocator, blockSize, checkLength(shortUrlLength));
+        }
+
+        @Bean
+        @ConditionalOnProperty(name = "shortener.generator.range.allocator", havingValue = "redis")
+        public IdRangeAllocator redisIdRangeAllocator(StringRedisTemplate stringRedisTemplate) {
+            return new RedisIdRangeAllocator(stringRedisTemplate, "#" + ID_BLOCK_NAME + ":next-id");
+        }
+
+        @Bean
+        @ConditionalOnProperty(name = "shortener.generator.range.allocator", havingValue = "jdbc", matchIfMissing = true)
+        public IdRangeAllocator jdbcIdRangeAllocator(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+            return new JdbcIdRangeAllocator(jdbcTemplate, new TransactionTemplate(transactionManager), ID_BLOCK_NAME);
+        }
+    }
+
+    private static int checkLength(int shortUrlLength) {
+        if (shortUrlLength < 1 || shortUrlLength > MAX_SHORT_URL_LENGTH) {
+            throw new IllegalArgumentException("shortener.short-url-length must be between 1 and " + MAX_SHORT_URL_LENGTH
+                    + ", the length of the short-url column, not " + shortUrlLength);
+        }
+        return shortUrlLength;
+    }
+}
@@ -0,0 +1,83 @@
+package com.url.shortener.config;
+
+import com.url.shortener.repository.UrlRepository;
+import com.url.shortener.store.EmbeddedLogUrlMappingStore;
+import com.url.shortener.store.JdbcUrlMappingStore;
+import com.url.shortener.store.JpaUrlMappingStore;
+import com.url.shortener.store.ReplicaDataSources;
+import com.url.shortener.store.ReplicaRoutingUrlMappingStore;
+import com.url.shortener.store.UrlMappingStore;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+@Configuration
+@ConditionalOnProperty(name = "shortener.sharding.enabled", havingValue = "false", matchIfMissing = true)
+public class UrlMappingStoreConfig {
+
+    private static final String EMBEDDED_LOG_FILE = "url-mappings.log";
+
+    @Value("${shortener.datasource.replica.max-lag:5s}")
+    private Duration replicaMaxLag;
+
+    @Value("${shortener.datasource.replica.backoff:30s}")
+    private Duration replicaBackoff;
+
+    @Bean(destroyMethod = "close")
+    public ReplicaDataSources replicaDataSources(@Value("${shortener.datasource.replica.urls:}") List<String> urls,
+                                                 @Value("${shortener.datasource.replica.username:${spring.datasource.username:}}") String username,
+                                                 @Value("${shortener.datasource.replica.password:${spring.datasource.password:}}") String password,
+                                                 @Value("${shortener.datasource.replica.maximum-pool-size:20}") int maximumPoolSize,
+                                                 @Value("${shortener.datasource.replica.connection-timeout:2000ms}") Duration connectionTimeout,
+                                                 ObjectProvider<MeterRegistry> meterRegistry) {
+        return new ReplicaDataSources(urls, username, password, maximumPoolSize, connectionTimeout,
+                meterRegistry.getIfAvailable());
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "shortener.store.type", havingValue = "jpa")
+    public UrlMappingStore jpaUrlMappingStore(UrlRepository urlRepository, ReplicaDataSources replicaDataSources) {
+        return withReplicas(new JpaUrlMappingStore(urlRepository), replicaDataSources);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "shortener.store.type", havingValue = "jdbc", matchIfMissing = true)
+    public UrlMappingStore jdbcUrlMappingStore(JdbcTemplate jdbcTemplate, ReplicaDataSources replicaDataSources) {
+        return withReplicas(new JdbcUrlMappingStore(jdbcTemplate), replicaDataSources);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "shortener.store.type", havingValue = "embedded")
+    public UrlMappingStore embeddedUrlMappingStore(JdbcTemplate jdbcTemplate, ReplicaDataSources replicaDataSources,
+                                                   @Value("${shortener.store.embedded.directory:data}") Path directory,
+                                                   @Value("${shortener.store.embedded.max-size:256MB}") DataSize maxSize) throws IOException {
+        if (maxSize.toBytes() > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("shortener.store.embedded.max-size must be less than 2GB");
+        }
+        return new EmbeddedLogUrlMappingStore(directory.resolve(EMBEDDED_LOG_FILE), (int) maxSize.toBytes(),
+                withReplicas(new JdbcUrlMappingStore(jdbcTemplate), replicaDataSources));
+    }
+
+    /**
+     * Replicas are always read with the JDBC store, whatever store reads the primary.
+     */
+    private UrlMappingStore withReplicas(UrlMappingStore primary, ReplicaDataSources replicaDataSources) {
+        if (replicaDataSources.isEmpty()) {
+            return primary;
+        }
+        List<UrlMappingStore> replicas = replicaDataSources.getDataSources().stream()
+                .map(dataSource -> (UrlMappingStore) new JdbcUrlMappingStore(new JdbcTemplate(dataSource)))
+                .toList();
+        return new ReplicaRoutingUrlMappingStore(primary, replicas, replicaMaxLag, replicaBackoff);
+    }
+}
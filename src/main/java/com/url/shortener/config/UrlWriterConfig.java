@@ -0,0 +1,41 @@
+package com.url.shortener.config;
+
+import com.url.shortener.events.UrlEventPublisher;
+import com.url.shortener.persistence.DirectUrlWriter;
+import com.url.shortener.persistence.UrlWriter;
+import com.url.shortener.persistence.WriteBehindUrlWriter;
+import com.url.shortener.repository.UrlRepository;
+import com.url.shortener.service.UrlService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+
+@Configuration
+@ConditionalOnProperty(name = "shortener.sharding.enabled", havingValue = "false", matchIfMissing = true)
+public class UrlWriterConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "shortener.write-behind.enabled", havingValue = "false", matchIfMissing = true)
+    public UrlWriter directUrlWriter(UrlRepository urlRepository, UrlEventPublisher eventPublisher) {
+        return new DirectUrlWriter(urlRepository, eventPublisher);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "shortener.write-behind.enabled", havingValue = "true")
+    public UrlWriter writeBehindUrlWriter(UrlRepository urlRepository, UrlEventPublisher eventPublisher,
+                                          PlatformTransactionManager transactionManager, CacheManager cacheManager,
+                                          @Value("${shortener.write-behind.max-pending:10000}") int maxPending,
+                                          @Value("${shortener.write-behind.batch-size:500}") int batchSize,
+                                          @Value("${shortener.write-behind.max-delay:200ms}") Duration maxDelay,
+                                          @Value("${shortener.write-behind.offer-timeout:100ms}") Duration offerTimeout,
+                                          @Value("${shortener.write-behind.retry-delay:1s}") Duration retryDelay) {
+        return new WriteBehindUrlWriter(urlRepository, eventPublisher, new TransactionTemplate(transactionManager),
+                cacheManager.getCache(UrlService.URL_MAPPING_CACHE), maxPending, batchSize, maxDelay, offerTimeout, retryDelay);
+    }
+}
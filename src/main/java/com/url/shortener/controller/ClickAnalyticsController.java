@@ -0,0 +1,34 @@
+package com.url.shortener.controller;
+
+import com.url.shortener.analytics.ClickAnalytics;
+import com.url.shortener.response.ClickStats;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/url")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class ClickAnalyticsController {
+    @Autowired
+    private ClickAnalytics clickAnalytics;
+
+    /**
+     * Total clicks and clicks per minute over the last {@code minutes} minutes. Clicks show up after the next flush.
+     */
+    @GetMapping("/{shortUrl}/clicks")
+    public ResponseEntity<ClickStats> getClicks(@PathVariable String shortUrl,
+                                                @RequestParam(defaultValue = "60") int minutes) {
+        if (minutes < 1 || minutes > clickAnalytics.maxSeriesMinutes()) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+        ClickStats stats = new ClickStats(shortUrl, clickAnalytics.total(shortUrl), clickAnalytics.series(shortUrl, minutes));
+        return ResponseEntity.ok(stats);
+    }
+}
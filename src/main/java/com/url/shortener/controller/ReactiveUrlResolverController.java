@@ -0,0 +1,44 @@
+package com.url.shortener.controller;
+
+import com.url.shortener.analytics.ClickAnalytics;
+import com.url.shortener.redirect.RedirectPolicy;
+import com.url.shortener.service.ReactiveUrlResolver;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+
+/**
+ * {@link UrlResolverController} for the reactive redirect profile, resolving on the event loop.
+ */
+@Controller
+@RequestMapping("/")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveUrlResolverController {
+    @Autowired
+    private ReactiveUrlResolver urlResolver;
+    @Autowired
+    private ClickAnalytics clickAnalytics;
+    @Autowired
+    private RedirectPolicy redirectPolicy;
+
+    @GetMapping("/{shortUrl}")
+    public Mono<ResponseEntity<Object>> getOriginalUrl(@PathVariable String shortUrl, @RequestHeader HttpHeaders headers) {
+        return urlResolver.resolve(shortUrl)
+                .filter(mapping -> !mapping.isExpired(LocalDate.now()))
+                .map(mapping -> {
+                    clickAnalytics.record(shortUrl);
+                    return redirectPolicy.redirect(mapping, headers);
+                })
+                .defaultIfEmpty(new ResponseEntity<>(HttpStatus.NOT_FOUND));
+    }
+}
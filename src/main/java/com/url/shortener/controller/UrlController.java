@@ -1,34 +1,59 @@
 package com.url.shortener.controller;
 
+import com.url.shortener.exception.ServiceUnavailableException;
+import com.url.shortener.ratelimit.ConcurrencyLimiter;
+import com.url.shortener.ratelimit.RateLimitInterceptor;
 import com.url.shortener.request.UrlRequest;
+import com.url.shortener.service.UrlBatchService;
 import com.url.shortener.service.UrlService;
 import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.InputStream;
 
 @RestController
 @RequestMapping("/url")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class UrlController {
     @Autowired
     private HttpServletRequest request;
     @Autowired
     private UrlService urlService;
+    @Autowired
+    private UrlBatchService urlBatchService;
+    @Autowired
+    private ConcurrencyLimiter concurrencyLimiter;
     @PostMapping
     public ResponseEntity<String> generateShortUrl(@RequestBody UrlRequest urlRequest) {
         if (urlService.isValidURL(urlRequest)) {
             try {
-                String shortUrl = urlService.shortenURL(urlRequest.getLongUrl(), request.getRemoteAddr());
+                String shortUrl;
+                concurrencyLimiter.acquire();
+                try {
+                    shortUrl = urlService.shortenURL(urlRequest.getLongUrl(), request.getRemoteAddr());
+                } finally {
+                    concurrencyLimiter.release();
+                }
                 String host = urlService.getHost(request);
                 if(shortUrl!= null) {
                     return ResponseEntity.status(HttpStatus.CREATED).body(host+"/"+shortUrl);
                 } else {
                     return ResponseEntity.status(HttpStatus.CONFLICT).body("The short url could not be generated please try again later");
                 }
+            } catch (ServiceUnavailableException e) {
+                return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(e.getLocalizedMessage());
             } catch (Exception e) {
                 return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(e.getLocalizedMessage());
             }
@@ -37,4 +62,17 @@ public class UrlController {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Invalid Url: "+urlRequest.getLongUrl() + " max length 100 characters");
     }
 
+    @PostMapping(value = "/batch", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<StreamingResponseBody> generateShortUrls(@RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType) throws IOException {
+        boolean ndjson = MediaType.APPLICATION_NDJSON.includes(contentType);
+        InputStream input = request.getInputStream();
+        String host = urlService.getHost(request);
+        String remoteIp = request.getRemoteAddr();
+        String client = (String) request.getAttribute(RateLimitInterceptor.CLIENT_ATTRIBUTE);
+        StreamingResponseBody body = output -> urlBatchService.shortenURLs(input, output, ndjson, host, remoteIp, client);
+        return ResponseEntity.ok()
+                .contentType(ndjson ? MediaType.APPLICATION_NDJSON : MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+
 }
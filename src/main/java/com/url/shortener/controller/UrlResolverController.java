@@ -1,32 +1,45 @@
 package com.url.shortener.controller;
 
+import com.url.shortener.analytics.ClickAnalytics;
+import com.url.shortener.index.UrlIndex;
+import com.url.shortener.redirect.RedirectPolicy;
 import com.url.shortener.service.UrlService;
-import org.apache.commons.lang3.StringUtils;
+import com.url.shortener.store.UrlMapping;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 
-import java.net.URI;
+import java.time.LocalDate;
 
 @Controller
 @RequestMapping("/")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class UrlResolverController {
     @Autowired
     private UrlService urlService;
+    @Autowired
+    private ClickAnalytics clickAnalytics;
+    @Autowired
+    private RedirectPolicy redirectPolicy;
+    @Autowired
+    private UrlIndex urlIndex;
 
     @GetMapping("/{shortUrl}")
-    public ResponseEntity<Object> getOriginalUrl(@PathVariable String shortUrl) {
-        String longUrl = urlService.getOriginalUrl(shortUrl);
-        if (StringUtils.isNotEmpty(longUrl)) {
-            URI uri = URI.create(longUrl);
-            HttpHeaders httpHeaders = new HttpHeaders();
-            httpHeaders.setLocation(uri);
-            return new ResponseEntity<>(httpHeaders, HttpStatus.MOVED_PERMANENTLY);
+    public ResponseEntity<Object> getOriginalUrl(@PathVariable String shortUrl, @RequestHeader HttpHeaders headers) {
+        UrlMapping mapping = urlIndex.find(shortUrl);
+        if (mapping == null) {
+            mapping = urlService.resolve(shortUrl);
+        }
+        if (mapping != null && !mapping.isExpired(LocalDate.now())) {
+            clickAnalytics.record(shortUrl);
+            return redirectPolicy.redirect(mapping, headers);
         } else {
             return new ResponseEntity<>(HttpStatus.NOT_FOUND);
         }
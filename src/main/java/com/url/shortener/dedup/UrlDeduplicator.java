@@ -0,0 +1,191 @@
+package com.url.shortener.dedup;
+
+import com.url.shortener.entity.Url;
+import com.url.shortener.store.UrlMappingStore;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Finds an existing live short url for a long url that was already shortened, so repeated submissions return the
+ * same code instead of storing a new row. Long urls are fingerprinted with SHA-256: the first 8 bytes are stored in
+ * the indexed {@code long-url-hash} column, the full digest keys the {@link #SHORT_URL_CACHE} cache in front of it.
+ * Matches from the index, read through the {@link UrlMappingStore} so every shard is searched, are compared with the
+ * stored long url, so hash collisions never return a wrong code.
+ * <p>
+ * Only urls with at least a day left before expiring are reused, which is longer than a cache entry lives. Two
+ * concurrent creates of the same url may still produce two codes.
+ */
+@Slf4j
+@Component
+public class UrlDeduplicator {
+
+    public static final String SHORT_URL_CACHE = "shortUrl";
+
+    private static final int MAX_MATCHES = 10;
+
+    private final UrlMappingStore urlMappingStore;
+
+    private final CacheManager cacheManager;
+
+    private final boolean enabled;
+
+    private final boolean perSource;
+
+    public UrlDeduplicator(UrlMappingStore urlMappingStore, CacheManager cacheManager,
+                           @Value("${shortener.dedup.enabled:false}") boolean enabled,
+                           @Value("${shortener.dedup.scope:global}") String scope) {
+        this.urlMappingStore = urlMappingStore;
+        this.cacheManager = cacheManager;
+        this.enabled = enabled;
+        this.perSource = "source".equals(scope);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @param longUrl a normalized long url
+     * @return the fingerprint of the url, or null when deduplication is disabled
+     */
+    public Fingerprint fingerprint(String longUrl, String sourceIp) {
+        if (!enabled) {
+            return null;
+        }
+        MessageDigest digest = sha256();
+        digest.update(longUrl.getBytes(StandardCharsets.UTF_8));
+        String source = perSource ? sourceIp : null;
+        if (source != null) {
+            digest.update((byte) 0);
+            digest.update(source.getBytes(StandardCharsets.UTF_8));
+        }
+        byte[] bytes = digest.digest();
+        return new Fingerprint(ByteBuffer.wrap(bytes).getLong(),
+                Base64.getUrlEncoder().withoutPadding().encodeToString(bytes), longUrl, source);
+    }
+
+    /**
+     * @return a live short url for the fingerprinted long url, or null when there is none
+     */
+    public String find(Fingerprint fingerprint) {
+        String cached = getCached(fingerprint);
+        if (cached != null) {
+            return cached;
+        }
+        String shortUrl = match(fingerprint, urlMappingStore.findReusable(fingerprint.hash(), minimumExpirationDate(),
+                MAX_MATCHES));
+        if (shortUrl != null) {
+            added(fingerprint, shortUrl);
+        }
+        return shortUrl;
+    }
+
+    /**
+     * Bulk variant of {@link #find(Fingerprint)} with a single query for everything that is not cached, capped at
+     * {@value #MAX_MATCHES} matches per long url like the single lookup.
+     *
+     * @return the live short urls found, by fingerprint
+     */
+    public Map<Fingerprint, String> findAll(Collection<Fingerprint> fingerprints) {
+        Map<Fingerprint, String> found = new HashMap<>();
+        Map<Long, List<Fingerprint>> uncached = new HashMap<>();
+        for (Fingerprint fingerprint : fingerprints) {
+            String cached = getCached(fingerprint);
+            if (cached != null) {
+                found.put(fingerprint, cached);
+            } else {
+                uncached.computeIfAbsent(fingerprint.hash(), hash -> new ArrayList<>()).add(fingerprint);
+            }
+        }
+        if (uncached.isEmpty()) {
+            return found;
+        }
+        List<Url> candidates = urlMappingStore.findReusable(uncached.keySet(), minimumExpirationDate(),
+                MAX_MATCHES * uncached.size());
+        Map<Long, List<Url>> candidatesByHash = new HashMap<>();
+        candidates.forEach(url -> candidatesByHash.computeIfAbsent(url.getLongUrlHash(), hash -> new ArrayList<>()).add(url));
+        uncached.forEach((hash, sameHash) -> {
+            for (Fingerprint fingerprint : sameHash) {
+                String shortUrl = match(fingerprint, candidatesByHash.getOrDefault(hash, List.of()));
+                if (shortUrl != null) {
+                    found.put(fingerprint, shortUrl);
+                    added(fingerprint, shortUrl);
+                }
+            }
+        });
+        return found;
+    }
+
+    /**
+     * Records the short url just created for a fingerprinted long url.
+     */
+    public void added(Fingerprint fingerprint, String shortUrl) {
+        if (fingerprint == null) {
+            return;
+        }
+        try {
+            cache().put(fingerprint.digest(), shortUrl);
+        } catch (Exception e) {
+            log.warn("Could not cache short url {} for deduplication", shortUrl, e);
+        }
+    }
+
+    private String getCached(Fingerprint fingerprint) {
+        try {
+            return cache().get(fingerprint.digest(), String.class);
+        } catch (Exception e) {
+            log.warn("Could not read the deduplication cache", e);
+            return null;
+        }
+    }
+
+    private String match(Fingerprint fingerprint, List<Url> candidates) {
+        for (Url url : candidates) {
+            if (fingerprint.longUrl().equals(url.getLongUrl())
+                    && (fingerprint.sourceIp() == null || Objects.equals(fingerprint.sourceIp(), url.getSourceIp()))) {
+                return url.getShortUrl();
+            }
+        }
+        return null;
+    }
+
+    private LocalDate minimumExpirationDate() {
+        return LocalDate.now().plusDays(1);
+    }
+
+    private Cache cache() {
+        return cacheManager.getCache(SHORT_URL_CACHE);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * @param hash     the indexed prefix of the digest
+     * @param digest   the full SHA-256 digest, base64url encoded
+     * @param sourceIp the source the url is deduplicated within, null when deduplicating globally
+     */
+    public record Fingerprint(long hash, String digest, String longUrl, String sourceIp) {
+    }
+}
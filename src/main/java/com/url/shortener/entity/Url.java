@@ -1,10 +1,13 @@
 package com.url.shortener.entity;
 
+import com.url.shortener.validation.UrlNormalizer;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import lombok.Getter;
 import lombok.Setter;
@@ -15,15 +18,22 @@ import java.time.LocalDate;
 @Entity
 @Getter
 @Setter
-@Table(name = "url")
+@Table(name = "url", indexes = {
+        @Index(name = "url_expiration_date_idx", columnList = "expiration-date"),
+        @Index(name = "url_long_url_hash_idx", columnList = "long-url-hash")
+})
 public class Url {
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "url_seq")
+    @SequenceGenerator(name = "url_seq", sequenceName = "url_seq", allocationSize = 50)
     private BigInteger id;
 
-    @Column(name = "long-url")
+    @Column(name = "long-url", length = UrlNormalizer.MAX_LENGTH)
     private String longUrl;
 
+    @Column(name = "long-url-hash")
+    private Long longUrlHash;
+
     @Column(name = "short-url", unique = true, length = 7)
     private String shortUrl;
 
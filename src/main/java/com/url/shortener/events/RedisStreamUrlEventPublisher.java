@@ -0,0 +1,144 @@
+package com.url.shortener.events;
+
+import com.url.shortener.entity.Url;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.data.redis.connection.RedisStreamCommands;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.connection.stream.StreamRecords;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Appends url creations to the {@value #STREAM_KEY} Redis stream, capped at about {@code maxLength} entries with
+ * approximate {@code MAXLEN} trimming so it never grows without bound. Creates only queue their events; they are
+ * sent every {@code flush-interval} in pipelined batches of {@code batchSize} {@code XADD}s, one round-trip per
+ * batch. A batch that fails is sent again with the next flush. While Redis is unreachable at most {@code maxPending}
+ * events are kept and newer ones are dropped, so creates never wait on the stream.
+ * <p>
+ * On startup the {@value #LEGACY_LIST_KEY} list that urls were pushed to before the stream is removed.
+ */
+@Slf4j
+@Component
+public class RedisStreamUrlEventPublisher implements UrlEventPublisher, ApplicationRunner {
+
+    public static final String STREAM_KEY = "#url-events";
+
+    static final String LEGACY_LIST_KEY = "#shortUrl";
+
+    private final StringRedisTemplate redisTemplate;
+
+    private final boolean enabled;
+
+    private final int batchSize;
+
+    private final RedisStreamCommands.XAddOptions addOptions;
+
+    private final BlockingQueue<UrlEvent> queue;
+
+    private final List<UrlEvent> unsent = new ArrayList<>();
+
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    private final LongAdder dropped = new LongAdder();
+
+    public RedisStreamUrlEventPublisher(StringRedisTemplate redisTemplate,
+                                        @Value("${shortener.events.enabled:true}") boolean enabled,
+                                        @Value("${shortener.events.max-length:1000000}") long maxLength,
+                                        @Value("${shortener.events.max-pending:10000}") int maxPending,
+                                        @Value("${shortener.events.batch-size:500}") int batchSize) {
+        this.redisTemplate = redisTemplate;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.addOptions = RedisStreamCommands.XAddOptions.maxlen(maxLength).approximateTrimming(true);
+        this.queue = new ArrayBlockingQueue<>(maxPending);
+    }
+
+    @Override
+    public void published(Collection<Url> urls) {
+        if (!enabled) {
+            return;
+        }
+        for (Url url : urls) {
+            if (!queue.offer(UrlEvent.of(url))) {
+                dropped.increment();
+            }
+        }
+    }
+
+    /**
+     * {@code UNLINK} frees the list in the background and is a no-op once any node has removed it.
+     */
+    @Override
+    public void run(ApplicationArguments args) {
+        try {
+            redisTemplate.unlink(LEGACY_LIST_KEY);
+        } catch (Exception e) {
+            log.warn("Could not remove the {} list, retrying on the next start", LEGACY_LIST_KEY, e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${shortener.events.flush-interval:PT0.2S}")
+    public void flush() {
+        if (!flushLock.tryLock()) {
+            return;
+        }
+        try {
+            long lost = dropped.sumThenReset();
+            if (lost > 0) {
+                log.warn("Dropped {} url events while {} were waiting to be sent", lost, queue.size());
+            }
+            while (!unsent.isEmpty() || !queue.isEmpty()) {
+                queue.drainTo(unsent, batchSize - unsent.size());
+                try {
+                    send(unsent);
+                } catch (Exception e) {
+                    log.warn("Could not send {} url events, retrying with the next flush", unsent.size(), e);
+                    return;
+                }
+                unsent.clear();
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        flush();
+    }
+
+    int getPendingCount() {
+        return queue.size() + unsent.size();
+    }
+
+    private void send(List<UrlEvent> events) {
+        byte[] key = STREAM_KEY.getBytes(StandardCharsets.UTF_8);
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (UrlEvent event : events) {
+                Map<byte[], byte[]> fields = new LinkedHashMap<>();
+                event.fields().forEach((field, value) ->
+                        fields.put(field.getBytes(StandardCharsets.UTF_8), value.getBytes(StandardCharsets.UTF_8)));
+                MapRecord<byte[], byte[], byte[]> record = StreamRecords.newRecord().in(key).ofMap(fields);
+                connection.streamCommands().xAdd(record, addOptions);
+            }
+            return null;
+        });
+    }
+}
@@ -0,0 +1,48 @@
+package com.url.shortener.events;
+
+import com.url.shortener.entity.Url;
+
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A url creation on the {@value RedisStreamUrlEventPublisher#STREAM_KEY} stream.
+ *
+ * @param id the stream entry id, null until published
+ */
+public record UrlEvent(String id, String shortUrl, String longUrl, LocalDate expirationDate, String sourceIp) {
+
+    static final String SHORT_URL = "shortUrl";
+
+    static final String LONG_URL = "longUrl";
+
+    static final String EXPIRATION_DATE = "expirationDate";
+
+    static final String SOURCE_IP = "sourceIp";
+
+    public static UrlEvent of(Url url) {
+        return new UrlEvent(null, url.getShortUrl(), url.getLongUrl(), url.getExpirationDate(), url.getSourceIp());
+    }
+
+    static UrlEvent of(String id, Map<?, ?> fields) {
+        Object expirationDate = fields.get(EXPIRATION_DATE);
+        Object sourceIp = fields.get(SOURCE_IP);
+        return new UrlEvent(id, (String) fields.get(SHORT_URL), (String) fields.get(LONG_URL),
+                expirationDate != null ? LocalDate.parse(expirationDate.toString()) : null,
+                sourceIp != null ? sourceIp.toString() : null);
+    }
+
+    Map<String, String> fields() {
+        Map<String, String> fields = new LinkedHashMap<>();
+        fields.put(SHORT_URL, shortUrl);
+        fields.put(LONG_URL, longUrl);
+        if (expirationDate != null) {
+            fields.put(EXPIRATION_DATE, expirationDate.toString());
+        }
+        if (sourceIp != null) {
+            fields.put(SOURCE_IP, sourceIp);
+        }
+        return fields;
+    }
+}
@@ -0,0 +1,125 @@
+package com.url.shortener.events;
+
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.RedisSystemException;
+import org.springframework.data.redis.connection.Limit;
+import org.springframework.data.redis.connection.stream.Consumer;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.connection.stream.ReadOffset;
+import org.springframework.data.redis.connection.stream.StreamOffset;
+import org.springframework.data.redis.connection.stream.StreamReadOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Reads {@link UrlEvent}s incrementally through Redis consumer groups. Every group sees every event; within a group
+ * each event goes to one consumer and stays pending until it is {@linkplain #acknowledge acknowledged}, so a
+ * consumer that restarts picks its unacknowledged events up again with {@link #readPending}. Events older than the
+ * stream's cap are trimmed whether or not they were read. {@link #readAfter} tails the stream without a group, for
+ * readers that need every event on every node.
+ */
+@Component
+public class UrlEventConsumer {
+
+    public static final String START = "0-0";
+
+    private final StringRedisTemplate redisTemplate;
+
+    public UrlEventConsumer(StringRedisTemplate redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+
+    /**
+     * Creates the group, and the stream if needed, unless it already exists.
+     *
+     * @param fromStart whether the group starts with the oldest event kept rather than the next one published
+     */
+    public void createGroup(String group, boolean fromStart) {
+        try {
+            redisTemplate.opsForStream().createGroup(RedisStreamUrlEventPublisher.STREAM_KEY,
+                    fromStart ? ReadOffset.from("0") : ReadOffset.latest(), group);
+        } catch (RedisSystemException e) {
+            if (e.getMessage() == null || !e.getMessage().contains("BUSYGROUP")) {
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * @param block how long to wait for events when there are none, or null to return straight away
+     * @return up to {@code count} events not yet delivered to the group, oldest first
+     */
+    public List<UrlEvent> read(String group, String consumer, int count, Duration block) {
+        StreamReadOptions options = StreamReadOptions.empty().count(count);
+        if (block != null) {
+            options = options.block(block);
+        }
+        return read(group, consumer, options, ReadOffset.lastConsumed());
+    }
+
+    /**
+     * @return up to {@code count} events delivered to this consumer but not acknowledged, oldest first
+     */
+    public List<UrlEvent> readPending(String group, String consumer, int count) {
+        return read(group, consumer, StreamReadOptions.empty().count(count), ReadOffset.from("0"));
+    }
+
+    public void acknowledge(String group, Collection<String> ids) {
+        if (!ids.isEmpty()) {
+            redisTemplate.opsForStream().acknowledge(RedisStreamUrlEventPublisher.STREAM_KEY, group, ids.toArray(String[]::new));
+        }
+    }
+
+    /**
+     * @return the id of the newest event kept, or {@value #START} when there is none
+     */
+    public String lastId() {
+        List<MapRecord<String, Object, Object>> records = redisTemplate.opsForStream()
+                .reverseRange(RedisStreamUrlEventPublisher.STREAM_KEY, Range.unbounded(), Limit.limit().count(1));
+        return records == null || records.isEmpty() ? START : records.get(0).getId().getValue();
+    }
+
+    /**
+     * @return up to {@code count} events published after the event {@code id}, oldest first
+     */
+    public List<UrlEvent> readAfter(String id, int count) {
+        List<MapRecord<String, Object, Object>> records = redisTemplate.opsForStream().read(
+                StreamReadOptions.empty().count(count),
+                streamOffset(ReadOffset.from(id)));
+        return events(records);
+    }
+
+    /**
+     * @return the number of events currently kept in the stream
+     */
+    public long size() {
+        Long size = redisTemplate.opsForStream().size(RedisStreamUrlEventPublisher.STREAM_KEY);
+        return size != null ? size : 0;
+    }
+
+    private List<UrlEvent> read(String group, String consumer, StreamReadOptions options, ReadOffset offset) {
+        List<MapRecord<String, Object, Object>> records = redisTemplate.opsForStream().read(Consumer.from(group, consumer),
+                options, streamOffset(offset));
+        return events(records);
+    }
+
+    /**
+     * Passes the offset as the varargs array itself, so callers do not create a generic array. Java has no way to
+     * create a {@code StreamOffset<String>[]} other than a raw array and an unchecked conversion, hence both warnings.
+     */
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private static StreamOffset<String>[] streamOffset(ReadOffset offset) {
+        return new StreamOffset[]{StreamOffset.create(RedisStreamUrlEventPublisher.STREAM_KEY, offset)};
+    }
+
+    private static List<UrlEvent> events(List<MapRecord<String, Object, Object>> records) {
+        if (records == null) {
+            return List.of();
+        }
+        return records.stream().map(record -> UrlEvent.of(record.getId().getValue(), record.getValue())).toList();
+    }
+}
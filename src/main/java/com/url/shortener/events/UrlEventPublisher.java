@@ -0,0 +1,16 @@
+package com.url.shortener.events;
+
+import com.url.shortener.entity.Url;
+
+import java.util.Collection;
+
+/**
+ * Announces urls once they are stored, for downstream indexing and analytics.
+ */
+public interface UrlEventPublisher {
+
+    UrlEventPublisher NONE = urls -> {
+    };
+
+    void published(Collection<Url> urls);
+}
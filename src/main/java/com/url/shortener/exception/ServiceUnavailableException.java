@@ -0,0 +1,11 @@
+package com.url.shortener.exception;
+
+/**
+ * Thrown when a request is shed because the service is saturated; answered with 503 so clients back off and retry.
+ */
+public class ServiceUnavailableException extends RuntimeException {
+
+    public ServiceUnavailableException(String message) {
+        super(message);
+    }
+}
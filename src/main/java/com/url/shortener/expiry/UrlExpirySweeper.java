@@ -0,0 +1,141 @@
+package com.url.shortener.expiry;
+
+import com.url.shortener.analytics.ClickAnalytics;
+import com.url.shortener.cache.BulkCacheEvictor;
+import com.url.shortener.filter.ShortUrlFilter;
+import com.url.shortener.redirect.RedirectPurger;
+import com.url.shortener.repository.ShortUrlView;
+import com.url.shortener.service.UrlService;
+import com.url.shortener.store.UrlMappingStore;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Deletes expired urls in bounded chunks, evicts them from the resolve cache, drops their click totals and purges them
+ * from caches in front of the redirect endpoint, so the redirect path never has to write. A Redis lease makes sure only
+ * one node sweeps at a time. Purges are remote calls that may be slow, so they are sent once the sweep is over and the
+ * lease released.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "shortener.expiry.sweeper.enabled", havingValue = "true", matchIfMissing = true)
+public class UrlExpirySweeper {
+
+    static final String LEASE_KEY = "#expiry-sweeper:lease";
+
+    private static final RedisScript<Long> RELEASE_LEASE = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end", Long.class);
+
+    private final UrlMappingStore urlMappingStore;
+
+    private final BulkCacheEvictor bulkCacheEvictor;
+
+    private final ShortUrlFilter shortUrlFilter;
+
+    private final ClickAnalytics clickAnalytics;
+
+    private final StringRedisTemplate redisTemplate;
+
+    private final RedirectPurger redirectPurger;
+
+    private final int chunkSize;
+
+    private final int maxChunks;
+
+    private final Duration leaseTtl;
+
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private final Counter deletedCounter;
+
+    private final Timer chunkTimer;
+
+    public UrlExpirySweeper(UrlMappingStore urlMappingStore, BulkCacheEvictor bulkCacheEvictor,
+                            ShortUrlFilter shortUrlFilter, ClickAnalytics clickAnalytics,
+                            StringRedisTemplate redisTemplate,
+                            @Value("${shortener.expiry.sweeper.chunk-size:1000}") int chunkSize,
+                            @Value("${shortener.expiry.sweeper.max-chunks:100}") int maxChunks,
+                            @Value("${shortener.expiry.sweeper.lease-ttl:5m}") Duration leaseTtl,
+                            Optional<RedirectPurger> redirectPurger, MeterRegistry meterRegistry) {
+        this.urlMappingStore = urlMappingStore;
+        this.bulkCacheEvictor = bulkCacheEvictor;
+        this.shortUrlFilter = shortUrlFilter;
+        this.clickAnalytics = clickAnalytics;
+        this.redisTemplate = redisTemplate;
+        this.redirectPurger = redirectPurger.orElse(RedirectPurger.NONE);
+        this.chunkSize = chunkSize;
+        this.maxChunks = maxChunks;
+        this.leaseTtl = leaseTtl;
+        this.deletedCounter = Counter.builder("shortener.expiry.deleted")
+                .description("Expired urls deleted")
+                .register(meterRegistry);
+        this.chunkTimer = Timer.builder("shortener.expiry.chunk")
+                .description("Time to delete and evict a chunk of expired urls")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${shortener.expiry.sweeper.interval:PT1M}")
+    public void sweep() {
+        if (!Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(LEASE_KEY, nodeId, leaseTtl))) {
+            return;
+        }
+        List<List<String>> deletedChunks = new ArrayList<>();
+        try {
+            int deleted = 0;
+            for (int chunk = 0; chunk < maxChunks; chunk++) {
+                List<String> shortUrls = sweepChunk(LocalDate.now());
+                if (!shortUrls.isEmpty()) {
+                    deletedChunks.add(shortUrls);
+                }
+                deleted += shortUrls.size();
+                if (shortUrls.size() < chunkSize) {
+                    break;
+                }
+            }
+            if (deleted > 0) {
+                log.info("Deleted {} expired urls", deleted);
+            }
+        } catch (Exception e) {
+            log.error("Could not delete expired urls", e);
+        } finally {
+            redisTemplate.execute(RELEASE_LEASE, List.of(LEASE_KEY), nodeId);
+        }
+        deletedChunks.forEach(redirectPurger::purge);
+    }
+
+    /**
+     * @return the short urls deleted
+     */
+    List<String> sweepChunk(LocalDate today) {
+        long start = System.nanoTime();
+        List<ShortUrlView> expired = urlMappingStore.findExpired(today, chunkSize);
+        if (expired.isEmpty()) {
+            return List.of();
+        }
+        urlMappingStore.delete(expired);
+        List<String> shortUrls = expired.stream().map(ShortUrlView::getShortUrl).toList();
+        bulkCacheEvictor.evictAll(UrlService.URL_MAPPING_CACHE, shortUrls);
+        shortUrls.forEach(shortUrlFilter::removed);
+        clickAnalytics.removed(shortUrls);
+        deletedCounter.increment(expired.size());
+        chunkTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return shortUrls;
+    }
+}
@@ -0,0 +1,166 @@
+package com.url.shortener.filter;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.url.shortener.messaging.TopicMessageListener;
+import com.url.shortener.persistence.UrlWriter;
+import com.url.shortener.repository.ShortUrlView;
+import com.url.shortener.store.UrlMappingStore;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.Topic;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Answers "does this short url possibly exist" without I/O: a Bloom filter over every live short url, plus a short
+ * lived negative cache for codes that passed the filter but were not found. Codes created on other nodes arrive over
+ * Redis pub/sub. The filter is rebuilt from the database at startup and periodically, which also drops deleted codes;
+ * until the first build completes every code is reported as possibly existing. Codes accepted by the {@link UrlWriter}
+ * but not stored yet are invisible to the database scan, so they are added to the rebuilt filter from the writer.
+ */
+@Slf4j
+@Component
+public class ShortUrlFilter implements TopicMessageListener {
+
+    public static final String CHANNEL = "#short-url-created";
+
+    private static final int PAGE_SIZE = 10_000;
+
+    private final UrlMappingStore urlMappingStore;
+
+    private final UrlWriter urlWriter;
+
+    private final StringRedisTemplate redisTemplate;
+
+    private final boolean enabled;
+
+    private final long expectedInsertions;
+
+    private final double falsePositiveProbability;
+
+    private final Cache<String, Boolean> negativeCache;
+
+    private volatile BloomFilter filter;
+
+    private volatile BloomFilter building;
+
+    public ShortUrlFilter(UrlMappingStore urlMappingStore, UrlWriter urlWriter, StringRedisTemplate redisTemplate,
+                          @Value("${shortener.filter.enabled:true}") boolean enabled,
+                          @Value("${shortener.filter.expected-insertions:10000000}") long expectedInsertions,
+                          @Value("${shortener.filter.false-positive-probability:0.01}") double falsePositiveProbability,
+                          @Value("${shortener.filter.negative-cache.maximum-size:100000}") long negativeCacheSize,
+                          @Value("${shortener.filter.negative-cache.ttl:30s}") Duration negativeCacheTtl) {
+        this.urlMappingStore = urlMappingStore;
+        this.urlWriter = urlWriter;
+        this.redisTemplate = redisTemplate;
+        this.enabled = enabled;
+        this.expectedInsertions = expectedInsertions;
+        this.falsePositiveProbability = falsePositiveProbability;
+        this.negativeCache = Caffeine.newBuilder()
+                .maximumSize(negativeCacheSize)
+                .expireAfterWrite(negativeCacheTtl)
+                .build();
+    }
+
+    public boolean mightExist(String shortUrl) {
+        if (!enabled) {
+            return true;
+        }
+        if (negativeCache.getIfPresent(shortUrl) != null) {
+            return false;
+        }
+        BloomFilter current = filter;
+        return current == null || current.mightContain(shortUrl);
+    }
+
+    /**
+     * Remembers a code that was looked up and not found.
+     */
+    public void recordMiss(String shortUrl) {
+        if (enabled) {
+            negativeCache.put(shortUrl, Boolean.TRUE);
+        }
+    }
+
+    public void added(String shortUrl) {
+        if (!enabled) {
+            return;
+        }
+        addLocal(shortUrl);
+        try {
+            redisTemplate.convertAndSend(CHANNEL, shortUrl);
+        } catch (Exception e) {
+            log.warn("Could not publish created short url {}", shortUrl, e);
+        }
+    }
+
+    public void removed(String shortUrl) {
+        recordMiss(shortUrl);
+    }
+
+    private void addLocal(String shortUrl) {
+        negativeCache.invalidate(shortUrl);
+        BloomFilter current = filter;
+        if (current != null) {
+            current.put(shortUrl);
+        }
+        BloomFilter next = building;
+        if (next != null) {
+            next.put(shortUrl);
+        }
+    }
+
+    @Scheduled(initialDelayString = "0", fixedDelayString = "${shortener.filter.rebuild-interval:PT6H}")
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        BloomFilter next = new BloomFilter(expectedInsertions, falsePositiveProbability);
+        building = next;
+        try {
+            // Codes accepted from now on reach the new filter through added(); those queued before are either still
+            // pending here or were stored before the scan starts
+            urlWriter.pendingShortUrls().forEach(next::put);
+            LocalDate today = LocalDate.now();
+            BigInteger after = BigInteger.ZERO;
+            long count = 0;
+            List<ShortUrlView> page;
+            do {
+                page = urlMappingStore.findLive(after, today, PAGE_SIZE);
+                for (ShortUrlView view : page) {
+                    next.put(view.getShortUrl());
+                    after = view.getId();
+                }
+                count += page.size();
+            } while (page.size() == PAGE_SIZE);
+            filter = next;
+            log.info("Short url filter rebuilt with {} codes", count);
+        } catch (Exception e) {
+            log.error("Could not rebuild the short url filter", e);
+        } finally {
+            building = null;
+        }
+    }
+
+    @Override
+    public Topic getTopic() {
+        return new ChannelTopic(CHANNEL);
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        if (enabled) {
+            addLocal(new String(message.getBody(), StandardCharsets.UTF_8));
+        }
+    }
+}
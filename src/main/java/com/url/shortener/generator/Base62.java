@@ -0,0 +1,68 @@
+package com.url.shortener.generator;
+
+/**
+ * Fixed-length base62 encoding of numeric ids into short url codes of up to {@value #MAX_LENGTH} characters, the most
+ * whose code space fits in a {@code long}.
+ * Ids are scrambled with a bijection over the code space so consecutive ids do not produce consecutive codes.
+ */
+public final class Base62 {
+
+    public static final int MAX_LENGTH = 10;
+
+    static final char[] ALPHABET = "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz".toCharArray();
+
+    // Coprime with 62, and small enough that id * MULTIPLIER never overflows a long for 7 char codes.
+    // Longer codes fall back to scramble's overflow-free multiplication.
+    private static final long MULTIPLIER = 2_376_589L;
+
+    private static final long MAX_DIRECT_ID = Long.MAX_VALUE / MULTIPLIER;
+
+    private static final long OFFSET = 1_062_177_413L;
+
+    private Base62() {
+    }
+
+    public static long capacity(int length) {
+        if (length < 1 || length > MAX_LENGTH) {
+            throw new IllegalArgumentException("Short urls must be 1 to " + MAX_LENGTH + " characters, not " + length);
+        }
+        long capacity = 1;
+        for (int i = 0; i < length; i++) {
+            capacity *= ALPHABET.length;
+        }
+        return capacity;
+    }
+
+    public static String encode(long id, int length) {
+        long capacity = capacity(length);
+        if (id < 0 || id >= capacity) {
+            throw new IllegalArgumentException("Id " + id + " does not fit in " + length + " base62 characters");
+        }
+        long value = (scramble(id, capacity) + OFFSET) % capacity;
+        char[] chars = new char[length];
+        for (int i = length - 1; i >= 0; i--) {
+            chars[i] = ALPHABET[(int) (value % ALPHABET.length)];
+            value /= ALPHABET.length;
+        }
+        return new String(chars);
+    }
+
+    /**
+     * @return {@code id * MULTIPLIER % capacity}, multiplying bit by bit once the product would overflow. Every sum
+     * stays below twice the capacity, which is below {@code 2^63} up to {@value #MAX_LENGTH} characters.
+     */
+    private static long scramble(long id, long capacity) {
+        if (id <= MAX_DIRECT_ID) {
+            return id * MULTIPLIER % capacity;
+        }
+        long result = 0;
+        long addend = id;
+        for (long bits = MULTIPLIER; bits != 0; bits >>>= 1) {
+            if ((bits & 1) != 0) {
+                result = (result + addend) % capacity;
+            }
+            addend = (addend << 1) % capacity;
+        }
+        return result;
+    }
+}
@@ -0,0 +1,12 @@
+package com.url.shortener.generator;
+
+/**
+ * Leases blocks of ids shared by every node, so each node can mint codes locally without coordination.
+ */
+public interface IdRangeAllocator {
+
+    /**
+     * @return the first id of a block of {@code size} ids reserved for the caller
+     */
+    long allocate(int size);
+}
@@ -0,0 +1,50 @@
+package com.url.shortener.generator;
+
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Objects;
+
+/**
+ * Keeps the next free id in a single row and bumps it under the row lock taken by the update.
+ */
+public class JdbcIdRangeAllocator implements IdRangeAllocator {
+
+    private static final String TABLE = "short_url_id_block";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final String name;
+
+    public JdbcIdRangeAllocator(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate, String name) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.name = name;
+        initialize();
+    }
+
+    private void initialize() {
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + TABLE
+                + " (name VARCHAR(64) PRIMARY KEY, next_value BIGINT NOT NULL)");
+        Integer rows = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + TABLE + " WHERE name = ?", Integer.class, name);
+        if (rows == null || rows == 0) {
+            try {
+                jdbcTemplate.update("INSERT INTO " + TABLE + " (name, next_value) VALUES (?, 0)", name);
+            } catch (DuplicateKeyException e) {
+                // another node created the row first
+            }
+        }
+    }
+
+    @Override
+    public long allocate(int size) {
+        Long end = transactionTemplate.execute(status -> {
+            jdbcTemplate.update("UPDATE " + TABLE + " SET next_value = next_value + ? WHERE name = ?", size, name);
+            return jdbcTemplate.queryForObject("SELECT next_value FROM " + TABLE + " WHERE name = ?", Long.class, name);
+        });
+        return Objects.requireNonNull(end) - size;
+    }
+}
@@ -0,0 +1,30 @@
+package com.url.shortener.generator;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Draws codes uniformly from the base62 alphabet. Cheap, but callers still have to check for collisions.
+ */
+public class RandomShortUrlGenerator implements ShortUrlGenerator {
+
+    private final int length;
+
+    public RandomShortUrlGenerator(int length) {
+        this.length = length;
+    }
+
+    @Override
+    public String next() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        char[] chars = new char[length];
+        for (int i = 0; i < length; i++) {
+            chars[i] = Base62.ALPHABET[random.nextInt(Base62.ALPHABET.length)];
+        }
+        return new String(chars);
+    }
+
+    @Override
+    public boolean isCollisionFree() {
+        return false;
+    }
+}
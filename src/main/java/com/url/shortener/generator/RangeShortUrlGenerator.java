@@ -0,0 +1,57 @@
+package com.url.shortener.generator;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Collision free generator: hands out ids from a leased block and only goes remote when the block runs out.
+ */
+public class RangeShortUrlGenerator implements ShortUrlGenerator {
+
+    private final IdRangeAllocator allocator;
+
+    private final int blockSize;
+
+    private final int length;
+
+    private final long capacity;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private long next;
+
+    private long limit;
+
+    public RangeShortUrlGenerator(IdRangeAllocator allocator, int blockSize, int length) {
+        this.allocator = allocator;
+        this.blockSize = blockSize;
+        this.length = length;
+        this.capacity = Base62.capacity(length);
+    }
+
+    @Override
+    public String next() {
+        return Base62.encode(nextId(), length);
+    }
+
+    long nextId() {
+        lock.lock();
+        try {
+            if (next >= limit) {
+                long start = allocator.allocate(blockSize);
+                if (start + blockSize > capacity) {
+                    throw new IllegalStateException("Short url id space exhausted");
+                }
+                next = start;
+                limit = start + blockSize;
+            }
+            return next++;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean isCollisionFree() {
+        return true;
+    }
+}
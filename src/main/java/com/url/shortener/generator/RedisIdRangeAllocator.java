@@ -0,0 +1,23 @@
+package com.url.shortener.generator;
+
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.util.Objects;
+
+public class RedisIdRangeAllocator implements IdRangeAllocator {
+
+    private final StringRedisTemplate redisTemplate;
+
+    private final String key;
+
+    public RedisIdRangeAllocator(StringRedisTemplate redisTemplate, String key) {
+        this.redisTemplate = redisTemplate;
+        this.key = key;
+    }
+
+    @Override
+    public long allocate(int size) {
+        Long end = Objects.requireNonNull(redisTemplate.opsForValue().increment(key, size));
+        return end - size;
+    }
+}
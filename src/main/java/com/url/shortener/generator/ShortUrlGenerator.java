@@ -0,0 +1,14 @@
+package com.url.shortener.generator;
+
+/**
+ * Produces candidate short url codes for {@link com.url.shortener.service.UrlService}.
+ */
+public interface ShortUrlGenerator {
+
+    String next();
+
+    /**
+     * @return true when every code returned by {@link #next()} is unique, so callers can skip the existence check.
+     */
+    boolean isCollisionFree();
+}
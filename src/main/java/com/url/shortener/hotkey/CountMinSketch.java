@@ -0,0 +1,75 @@
+package com.url.shortener.hotkey;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Thread safe Count-Min Sketch: approximate per key counts in fixed memory, never underestimating. Counting hashes the
+ * key's {@code hashCode()} and allocates nothing.
+ */
+public class CountMinSketch {
+
+    private final AtomicLongArray counters;
+
+    private final int width;
+
+    private final int depth;
+
+    /**
+     * @param width counters per row, rounded up to a power of two
+     * @param depth number of rows
+     */
+    public CountMinSketch(int width, int depth) {
+        this.width = Integer.highestOneBit(Math.max(2, width) * 2 - 1);
+        this.depth = depth;
+        this.counters = new AtomicLongArray(this.width * depth);
+    }
+
+    /**
+     * @return the estimated count of {@code key} including this occurrence
+     */
+    public long add(Object key) {
+        long hash = hash(key);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, counters.incrementAndGet(index(row, h1, h2)));
+        }
+        return estimate;
+    }
+
+    public long estimate(Object key) {
+        long hash = hash(key);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, counters.get(index(row, h1, h2)));
+        }
+        return estimate;
+    }
+
+    /**
+     * Halves every counter so counts follow recent traffic. Increments racing with the halving may be lost.
+     */
+    public void decay() {
+        for (int i = 0; i < counters.length(); i++) {
+            counters.set(i, counters.get(i) >> 1);
+        }
+    }
+
+    private int index(int row, int h1, int h2) {
+        return row * width + ((h1 + row * h2) & (width - 1));
+    }
+
+    // murmur3 finalizer over the hash code, so both halves are usable as independent hashes.
+    private static long hash(Object key) {
+        long hash = key.hashCode() * 0x9e3779b97f4a7c15L;
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash | 1L << 32;
+    }
+}
@@ -0,0 +1,88 @@
+package com.url.shortener.hotkey;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Streaming heavy-hitter detection: every access is counted in a {@link CountMinSketch} and keys whose estimate
+ * reaches {@code minHits} compete for one of {@code topK} slots. Counts are halved on every {@link #decay()}, so a key
+ * stays hot only while its traffic lasts. Recording an access to a key that is not hot, or already tracked, takes no
+ * lock and allocates nothing.
+ */
+public class HotKeyTracker {
+
+    private final CountMinSketch sketch;
+
+    private final int topK;
+
+    private final long minHits;
+
+    private final Set<Object> candidates = ConcurrentHashMap.newKeySet();
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    public HotKeyTracker(int topK, long minHits, int sketchWidth, int sketchDepth) {
+        this.sketch = new CountMinSketch(sketchWidth, sketchDepth);
+        this.topK = topK;
+        this.minHits = minHits;
+    }
+
+    public void record(Object key) {
+        long hits = sketch.add(key);
+        if (hits < minHits || candidates.contains(key)) {
+            return;
+        }
+        lock.lock();
+        try {
+            if (candidates.size() < topK) {
+                candidates.add(key);
+                return;
+            }
+            Object coldest = null;
+            long coldestHits = Long.MAX_VALUE;
+            for (Object candidate : candidates) {
+                long candidateHits = sketch.estimate(candidate);
+                if (candidateHits < coldestHits) {
+                    coldest = candidate;
+                    coldestHits = candidateHits;
+                }
+            }
+            if (coldest != null && coldestHits < hits) {
+                candidates.remove(coldest);
+                candidates.add(key);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return the hot keys, hottest first
+     */
+    public List<HotKey> hotKeys() {
+        List<HotKey> hotKeys = new ArrayList<>(candidates.size());
+        for (Object key : candidates) {
+            long hits = sketch.estimate(key);
+            if (hits >= minHits) {
+                hotKeys.add(new HotKey(key, hits));
+            }
+        }
+        hotKeys.sort(Comparator.comparingLong(HotKey::hits).reversed());
+        return hotKeys;
+    }
+
+    public void decay() {
+        sketch.decay();
+        candidates.removeIf(key -> sketch.estimate(key) < minHits);
+    }
+
+    /**
+     * @param hits estimated recent accesses
+     */
+    public record HotKey(Object key, long hits) {
+    }
+}
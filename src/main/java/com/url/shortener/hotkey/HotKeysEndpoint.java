@@ -0,0 +1,33 @@
+package com.url.shortener.hotkey;
+
+import com.url.shortener.cache.TwoTierCache;
+import com.url.shortener.cache.TwoTierCacheManager;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Hot keys of each cache with their estimated recent accesses and whether they are pinned locally, served at
+ * {@code /actuator/hotkeys}.
+ */
+@Endpoint(id = "hotkeys")
+public class HotKeysEndpoint {
+
+    private final TwoTierCacheManager cacheManager;
+
+    public HotKeysEndpoint(TwoTierCacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    @ReadOperation
+    public Map<String, List<TwoTierCache.HotKeyStats>> hotKeys() {
+        Map<String, List<TwoTierCache.HotKeyStats>> hotKeys = new TreeMap<>();
+        for (String name : cacheManager.getCacheNames()) {
+            hotKeys.put(name, cacheManager.getLocalCache(name).hotKeys());
+        }
+        return hotKeys;
+    }
+}
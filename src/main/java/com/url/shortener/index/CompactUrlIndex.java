@@ -0,0 +1,359 @@
+package com.url.shortener.index;
+
+import com.url.shortener.store.UrlMapping;
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Memory-resident map from short url to {@link UrlMapping}, sized for every live url of a deployment. Short urls of up
+ * to {@value #MAX_KEY_LENGTH} base62 characters are packed into a {@code long} key of an open-addressed, linear probing
+ * table. The value next to each key packs the expiration epoch day into its low {@value #DAY_BITS} bits and the offset
+ * of the long url in an append-only arena of direct (off-heap) buffers into the rest. The heap only holds two
+ * {@code long[]}s however many urls there are, so the index adds nothing for the garbage collector to trace.
+ * <p>
+ * Lookups take no lock: writers are serialized, fill a slot's value before its key with release semantics, and
+ * publish a resized table as a whole. Long urls are never moved or freed, so replaced and removed urls waste their
+ * arena space until the node restarts. Once the arena reaches {@code maxBytes} nothing more is added.
+ */
+@Slf4j
+public class CompactUrlIndex {
+
+    static final int MAX_KEY_LENGTH = 10;
+
+    private static final int DAY_BITS = 24;
+
+    private static final long MAX_DAY = (1L << DAY_BITS) - 1;
+
+    private static final int CHUNK_BITS = 26;
+
+    private static final int MAX_CHUNKS = 1 << (Long.SIZE - DAY_BITS - CHUNK_BITS);
+
+    private static final int MIN_CAPACITY = 1 << 10;
+
+    private static final int MAX_CAPACITY = 1 << 30;
+
+    private static final long EMPTY = 0;
+
+    private static final long REMOVED = 0;
+
+    private static final VarHandle SLOTS = MethodHandles.arrayElementVarHandle(long[].class);
+
+    private final long maxBytes;
+
+    private final int chunkSize;
+
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    private volatile Table table = new Table(MIN_CAPACITY);
+
+    private volatile ByteBuffer[] chunks = new ByteBuffer[0];
+
+    private volatile int size;
+
+    private volatile long usedBytes;
+
+    private int removed;
+
+    // offset 0 is never handed out, so no live value packs to REMOVED
+    private int position = 1;
+
+    private boolean full;
+
+    public CompactUrlIndex(long maxBytes) {
+        this.maxBytes = maxBytes;
+        this.chunkSize = (int) Math.min(1 << CHUNK_BITS, maxBytes);
+    }
+
+    /**
+     * @return the mapping of the short url, expired or not, or null when it is not indexed
+     */
+    public UrlMapping get(String shortUrl) {
+        long key = pack(shortUrl);
+        if (key == EMPTY) {
+            return null;
+        }
+        Table table = this.table;
+        for (int slot = table.slot(key); ; slot = table.next(slot)) {
+            long slotKey = (long) SLOTS.getAcquire(table.keys, slot);
+            if (slotKey == EMPTY) {
+                return null;
+            }
+            if (slotKey == key) {
+                long value = (long) SLOTS.getAcquire(table.values, slot);
+                return value == REMOVED ? null : mapping(value);
+            }
+        }
+    }
+
+    /**
+     * Adds or replaces the mapping of a short url. Putting the mapping a short url already has does not use any arena
+     * space.
+     *
+     * @return false when the short url cannot be packed into a key or the arena is full
+     */
+    public boolean put(String shortUrl, String longUrl, LocalDate expirationDate) {
+        long key = pack(shortUrl);
+        long day = expirationDate != null ? expirationDate.toEpochDay() : -1;
+        byte[] bytes = longUrl.getBytes(StandardCharsets.UTF_8);
+        if (key == EMPTY || day < 0 || day > MAX_DAY || bytes.length > 0xFFFF) {
+            return false;
+        }
+        writeLock.lock();
+        try {
+            Table table = this.table;
+            int slot = table.find(key);
+            if (slot < 0) {
+                if (size + removed + 1 > table.threshold()) {
+                    table = resize();
+                    if (table == null) {
+                        return false;
+                    }
+                }
+                slot = table.find(key);
+            }
+            long current = slot >= 0 ? table.values[slot] : REMOVED;
+            if (current != REMOVED && (current & MAX_DAY) == day && sameBytes(current >>> DAY_BITS, bytes)) {
+                return true;
+            }
+            long offset = allocate(bytes);
+            if (offset < 0) {
+                return false;
+            }
+            long value = offset << DAY_BITS | day;
+            if (slot >= 0) {
+                SLOTS.setRelease(table.values, slot, value);
+                if (current == REMOVED) {
+                    removed--;
+                    size++;
+                }
+            } else {
+                int empty = -slot - 1;
+                SLOTS.setRelease(table.values, empty, value);
+                SLOTS.setRelease(table.keys, empty, key);
+                size++;
+            }
+            return true;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public void remove(String shortUrl) {
+        long key = pack(shortUrl);
+        if (key == EMPTY) {
+            return;
+        }
+        writeLock.lock();
+        try {
+            Table table = this.table;
+            int slot = table.find(key);
+            if (slot >= 0 && table.values[slot] != REMOVED) {
+                SLOTS.setRelease(table.values, slot, REMOVED);
+                size--;
+                removed++;
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Removes every url that expired before {@code today}.
+     *
+     * @return the number of urls removed
+     */
+    public int removeExpired(LocalDate today) {
+        long day = today.toEpochDay();
+        writeLock.lock();
+        try {
+            Table table = this.table;
+            int count = 0;
+            for (int slot = 0; slot < table.values.length; slot++) {
+                long value = table.values[slot];
+                if (value != REMOVED && (value & MAX_DAY) < day) {
+                    SLOTS.setRelease(table.values, slot, REMOVED);
+                    count++;
+                }
+            }
+            size -= count;
+            removed += count;
+            return count;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return the arena bytes taken by long urls, including those of replaced and removed urls
+     */
+    public long usedBytes() {
+        return usedBytes;
+    }
+
+    /**
+     * @return the packed key of the short url, or 0 when it is too long or not base62. Every character is stored as
+     * its digit plus one in base 63, so codes of different lengths never share a key.
+     */
+    static long pack(String shortUrl) {
+        int length = shortUrl.length();
+        if (length == 0 || length > MAX_KEY_LENGTH) {
+            return EMPTY;
+        }
+        long key = 0;
+        for (int i = 0; i < length; i++) {
+            int digit = digit(shortUrl.charAt(i));
+            if (digit < 0) {
+                return EMPTY;
+            }
+            key = key * 63 + digit + 1;
+        }
+        return key;
+    }
+
+    private static int digit(char c) {
+        if (c >= '0' && c <= '9') {
+            return c - '0';
+        }
+        if (c >= 'A' && c <= 'Z') {
+            return c - 'A' + 10;
+        }
+        if (c >= 'a' && c <= 'z') {
+            return c - 'a' + 36;
+        }
+        return -1;
+    }
+
+    private UrlMapping mapping(long value) {
+        long offset = value >>> DAY_BITS;
+        ByteBuffer chunk = chunks[(int) (offset >>> CHUNK_BITS)];
+        int position = (int) (offset & ((1 << CHUNK_BITS) - 1));
+        byte[] bytes = new byte[chunk.getShort(position) & 0xFFFF];
+        chunk.get(position + Short.BYTES, bytes);
+        return new UrlMapping(new String(bytes, StandardCharsets.UTF_8), LocalDate.ofEpochDay(value & MAX_DAY));
+    }
+
+    private boolean sameBytes(long offset, byte[] bytes) {
+        ByteBuffer chunk = chunks[(int) (offset >>> CHUNK_BITS)];
+        int position = (int) (offset & ((1 << CHUNK_BITS) - 1));
+        if ((chunk.getShort(position) & 0xFFFF) != bytes.length) {
+            return false;
+        }
+        byte[] stored = new byte[bytes.length];
+        chunk.get(position + Short.BYTES, stored);
+        return Arrays.equals(stored, bytes);
+    }
+
+    /**
+     * @return the arena offset the bytes were written at, or -1 when the arena is full
+     */
+    private long allocate(byte[] bytes) {
+        int length = Short.BYTES + bytes.length;
+        ByteBuffer[] chunks = this.chunks;
+        if (chunks.length == 0 || position + length > chunkSize) {
+            if (length > chunkSize || (long) (chunks.length + 1) * chunkSize > maxBytes || chunks.length == MAX_CHUNKS) {
+                full();
+                return -1;
+            }
+            chunks = Arrays.copyOf(chunks, chunks.length + 1);
+            chunks[chunks.length - 1] = ByteBuffer.allocateDirect(chunkSize);
+            this.chunks = chunks;
+            position = chunks.length == 1 ? 1 : 0;
+        }
+        ByteBuffer chunk = chunks[chunks.length - 1];
+        chunk.putShort(position, (short) bytes.length);
+        chunk.put(position + Short.BYTES, bytes);
+        long offset = (long) (chunks.length - 1) << CHUNK_BITS | position;
+        position += length;
+        usedBytes += length;
+        return offset;
+    }
+
+    private void full() {
+        if (!full) {
+            full = true;
+            log.warn("Url index is full after {} urls and {} bytes, new urls are no longer indexed", size, usedBytes);
+        }
+    }
+
+    /**
+     * Copies the live urls into a table with room for twice as many, dropping removed ones.
+     *
+     * @return the new table, or null when the table cannot grow any more
+     */
+    private Table resize() {
+        Table current = this.table;
+        int capacity = MIN_CAPACITY;
+        while (capacity < MAX_CAPACITY && capacity < (size + 1) * 2L) {
+            capacity <<= 1;
+        }
+        if (size + 1 > capacity / 4 * 3) {
+            full();
+            return null;
+        }
+        Table resized = new Table(capacity);
+        for (int slot = 0; slot < current.keys.length; slot++) {
+            long value = current.values[slot];
+            if (current.keys[slot] != EMPTY && value != REMOVED) {
+                int empty = -resized.find(current.keys[slot]) - 1;
+                resized.keys[empty] = current.keys[slot];
+                resized.values[empty] = value;
+            }
+        }
+        removed = 0;
+        this.table = resized;
+        return resized;
+    }
+
+    private static final class Table {
+
+        private final long[] keys;
+
+        private final long[] values;
+
+        private final int shift;
+
+        private Table(int capacity) {
+            this.keys = new long[capacity];
+            this.values = new long[capacity];
+            this.shift = Long.SIZE - Integer.numberOfTrailingZeros(capacity);
+        }
+
+        private int threshold() {
+            return keys.length / 4 * 3;
+        }
+
+        private int slot(long key) {
+            return (int) ((key * 0x9E3779B97F4A7C15L) >>> shift);
+        }
+
+        private int next(int slot) {
+            return (slot + 1) & (keys.length - 1);
+        }
+
+        /**
+         * @return the slot of the key, or {@code -(empty slot) - 1} for the slot it would go in
+         */
+        private int find(long key) {
+            for (int slot = slot(key); ; slot = next(slot)) {
+                long slotKey = keys[slot];
+                if (slotKey == key) {
+                    return slot;
+                }
+                if (slotKey == EMPTY) {
+                    return -slot - 1;
+                }
+            }
+        }
+    }
+}
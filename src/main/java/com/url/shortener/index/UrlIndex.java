@@ -0,0 +1,160 @@
+package com.url.shortener.index;
+
+import com.url.shortener.events.UrlEvent;
+import com.url.shortener.events.UrlEventConsumer;
+import com.url.shortener.repository.UrlMappingView;
+import com.url.shortener.store.UrlMapping;
+import com.url.shortener.store.UrlMappingStore;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.math.BigInteger;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Keeps every live url of the deployment in a {@link CompactUrlIndex}, so redirects are resolved without a cache or
+ * database call. The index is loaded before the node reports ready, by paging through the live urls of the
+ * {@link UrlMappingStore} by id (every shard when sharded), and is then kept up to date by tailing the url event stream
+ * from the newest event seen before the load started. Urls only disappear by expiring, which the index knows from their
+ * expiration date, so it needs no deletion events: expired urls are dropped every {@code sweep-interval}.
+ * <p>
+ * A miss is not a 404: urls created after the last tail, dropped from a stream that was read too late, or that did
+ * not fit in the index are resolved the usual way.
+ */
+@Slf4j
+@Component
+public class UrlIndex implements ApplicationRunner {
+
+    private final UrlMappingStore urlMappingStore;
+
+    private final UrlEventConsumer urlEventConsumer;
+
+    private final int pageSize;
+
+    private final int tailBatchSize;
+
+    private final CompactUrlIndex index;
+
+    private volatile String lastEventId;
+
+    public UrlIndex(UrlMappingStore urlMappingStore, UrlEventConsumer urlEventConsumer,
+                    @Value("${shortener.index.enabled:false}") boolean enabled,
+                    @Value("${shortener.index.max-size:2GB}") DataSize maxSize,
+                    @Value("${shortener.index.page-size:10000}") int pageSize,
+                    @Value("${shortener.index.tail-batch-size:1000}") int tailBatchSize,
+                    MeterRegistry meterRegistry) {
+        this.urlMappingStore = urlMappingStore;
+        this.urlEventConsumer = urlEventConsumer;
+        this.pageSize = pageSize;
+        this.tailBatchSize = tailBatchSize;
+        this.index = enabled ? new CompactUrlIndex(maxSize.toBytes()) : null;
+        if (enabled) {
+            Gauge.builder("shortener.index.size", index, CompactUrlIndex::size)
+                    .description("Urls in the url index")
+                    .register(meterRegistry);
+            Gauge.builder("shortener.index.arena", index, CompactUrlIndex::usedBytes)
+                    .description("Off-heap bytes taken by long urls in the url index")
+                    .baseUnit("bytes")
+                    .register(meterRegistry);
+        }
+    }
+
+    public boolean isEnabled() {
+        return index != null;
+    }
+
+    /**
+     * @return the mapping of the short url, which may have expired since the last sweep, or null when it is not
+     * indexed
+     */
+    public UrlMapping find(String shortUrl) {
+        return index != null ? index.get(shortUrl) : null;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (index == null) {
+            return;
+        }
+        long started = System.currentTimeMillis();
+        try {
+            lastEventId = startingEventId();
+            int loaded = load(LocalDate.now());
+            log.info("Loaded {} urls into the url index in {} ms, {} bytes off heap", loaded,
+                    System.currentTimeMillis() - started, index.usedBytes());
+        } catch (Exception e) {
+            log.warn("Could not load the url index, resolving unindexed urls as usual", e);
+        }
+    }
+
+    int load(LocalDate today) {
+        int loaded = 0;
+        BigInteger after = BigInteger.ZERO;
+        List<UrlMappingView> page;
+        do {
+            page = urlMappingStore.findLiveMappings(after, today, pageSize);
+            for (UrlMappingView url : page) {
+                if (index.put(url.getShortUrl(), url.getLongUrl(), url.getExpirationDate())) {
+                    loaded++;
+                }
+                after = url.getId();
+            }
+        } while (page.size() == pageSize);
+        return loaded;
+    }
+
+    /**
+     * Adds the urls created since the last tail. Events are read until the stream is caught up with.
+     */
+    @Scheduled(fixedDelayString = "${shortener.index.tail-interval:PT1S}")
+    public void tail() {
+        String after = lastEventId;
+        if (index == null || after == null) {
+            return;
+        }
+        try {
+            List<UrlEvent> events;
+            do {
+                events = urlEventConsumer.readAfter(after, tailBatchSize);
+                for (UrlEvent event : events) {
+                    index.put(event.shortUrl(), event.longUrl(), event.expirationDate());
+                    after = event.id();
+                }
+                lastEventId = after;
+            } while (events.size() == tailBatchSize);
+        } catch (Exception e) {
+            log.warn("Could not read url events after {}, retrying with the next tail", after, e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${shortener.index.sweep-interval:PT1H}")
+    public void sweep() {
+        if (index == null) {
+            return;
+        }
+        int removed = index.removeExpired(LocalDate.now());
+        if (removed > 0) {
+            log.info("Removed {} expired urls from the url index", removed);
+        }
+    }
+
+    /**
+     * Events published while the index loads are replayed by the first tails, putting the same mapping again is free.
+     */
+    private String startingEventId() {
+        try {
+            return urlEventConsumer.lastId();
+        } catch (Exception e) {
+            log.warn("Could not read the url event stream, tailing it from the oldest event kept", e);
+            return UrlEventConsumer.START;
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.url.shortener.messaging;
+
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.listener.Topic;
+
+/**
+ * Redis pub/sub listener that knows its own topic, so it is registered on the shared listener container.
+ */
+public interface TopicMessageListener extends MessageListener {
+
+    Topic getTopic();
+}
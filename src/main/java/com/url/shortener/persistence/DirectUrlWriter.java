@@ -0,0 +1,31 @@
+package com.url.shortener.persistence;
+
+import com.url.shortener.entity.Url;
+import com.url.shortener.events.UrlEventPublisher;
+import com.url.shortener.repository.UrlRepository;
+
+import java.util.List;
+
+public class DirectUrlWriter implements UrlWriter {
+
+    private final UrlRepository urlRepository;
+
+    private final UrlEventPublisher eventPublisher;
+
+    public DirectUrlWriter(UrlRepository urlRepository, UrlEventPublisher eventPublisher) {
+        this.urlRepository = urlRepository;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Override
+    public void write(Url url) {
+        urlRepository.save(url);
+        eventPublisher.published(List.of(url));
+    }
+
+    @Override
+    public void writeAll(List<Url> urls) {
+        urlRepository.saveAll(urls);
+        eventPublisher.published(urls);
+    }
+}
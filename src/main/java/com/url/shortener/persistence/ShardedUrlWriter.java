@@ -0,0 +1,63 @@
+package com.url.shortener.persistence;
+
+import com.url.shortener.entity.Url;
+import com.url.shortener.events.UrlEventPublisher;
+import com.url.shortener.shard.UrlShards;
+import com.url.shortener.store.JdbcUrlMappingStore;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Inserts urls on the shard that owns their short url, one batch per shard. Ids are derived from the short url
+ * instead of a sequence, so they are unique across shards without coordination and never collide with the sequence
+ * ids of urls stored before sharding.
+ */
+public class ShardedUrlWriter implements UrlWriter {
+
+    private static final BigInteger ID_OFFSET = BigInteger.ONE.shiftLeft(62);
+
+    private static final int MAX_SHORT_URL_LENGTH = 8;
+
+    private final UrlShards shards;
+
+    private final UrlEventPublisher eventPublisher;
+
+    public ShardedUrlWriter(UrlShards shards, UrlEventPublisher eventPublisher) {
+        this.shards = shards;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Override
+    public void write(Url url) {
+        writeAll(List.of(url));
+    }
+
+    @Override
+    public void writeAll(List<Url> urls) {
+        Map<JdbcUrlMappingStore, List<Url>> byShard = new HashMap<>();
+        for (Url url : urls) {
+            url.setId(idOf(url.getShortUrl()));
+            byShard.computeIfAbsent(shards.owner(url.getShortUrl()), shard -> new ArrayList<>()).add(url);
+        }
+        byShard.forEach(JdbcUrlMappingStore::insert);
+        eventPublisher.published(urls);
+    }
+
+    /**
+     * Packs the ASCII characters of the short url 7 bits each above 2^62, far above any sequence id.
+     */
+    static BigInteger idOf(String shortUrl) {
+        if (shortUrl.length() > MAX_SHORT_URL_LENGTH) {
+            throw new IllegalArgumentException("Short url " + shortUrl + " is too long for a sharded id");
+        }
+        long packed = 0;
+        for (int i = 0; i < shortUrl.length(); i++) {
+            packed = packed << 7 | (shortUrl.charAt(i) & 0x7f);
+        }
+        return ID_OFFSET.add(BigInteger.valueOf(packed));
+    }
+}
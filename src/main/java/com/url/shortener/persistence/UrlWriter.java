@@ -0,0 +1,32 @@
+package com.url.shortener.persistence;
+
+import com.url.shortener.entity.Url;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Persists newly created urls and announces them through a {@link com.url.shortener.events.UrlEventPublisher}.
+ */
+public interface UrlWriter {
+
+    void write(Url url);
+
+    default void writeAll(List<Url> urls) {
+        urls.forEach(this::write);
+    }
+
+    /**
+     * @return a url accepted by {@link #write(Url)} but not stored yet, or null
+     */
+    default Url findPending(String shortUrl) {
+        return null;
+    }
+
+    /**
+     * @return the short urls accepted by {@link #write(Url)} but not stored yet
+     */
+    default Collection<String> pendingShortUrls() {
+        return List.of();
+    }
+}
@@ -0,0 +1,215 @@
+package com.url.shortener.persistence;
+
+import com.url.shortener.entity.Url;
+import com.url.shortener.events.UrlEventPublisher;
+import com.url.shortener.exception.ServiceUnavailableException;
+import com.url.shortener.repository.UrlRepository;
+import com.url.shortener.store.UrlMapping;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.cache.Cache;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.SQLRecoverableException;
+import java.sql.SQLTransientException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Answers creates before they reach Postgres. Each url is put in the resolve cache straight away and queued; a single
+ * flusher thread inserts the queue in JDBC batches and publishes each batch once it is stored.
+ * <p>
+ * Durability is bounded by {@code maxPending} (queue capacity) and {@code maxDelay} (longest time an accepted url waits
+ * before its batch is flushed). When the queue is full, writers wait up to {@code offerTimeout} and are then rejected.
+ * Urls written together are queued together or not at all, so a rejected batch leaves nothing behind. A batch that
+ * fails with a transient error (lost connection, timeout) is retried until it succeeds, which stops the queue from
+ * draining and pushes back on writers instead of dropping urls. Any other failure is retried
+ * {@value #MAX_BATCH_ATTEMPTS} times, then the batch is stored one url at a time: urls that still fail are logged and
+ * dropped from the pending urls and the resolve cache, so one bad row never blocks the rest.
+ */
+@Slf4j
+public class WriteBehindUrlWriter implements UrlWriter, DisposableBean {
+
+    static final int MAX_BATCH_ATTEMPTS = 3;
+
+    private final UrlRepository urlRepository;
+
+    private final UrlEventPublisher eventPublisher;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final Cache resolveCache;
+
+    private final BlockingQueue<Url> queue;
+
+    // Free queue slots, taken before urls are queued and given back as the flusher drains them
+    private final Semaphore capacity;
+
+    private final Map<String, Url> pending = new ConcurrentHashMap<>();
+
+    private final int batchSize;
+
+    private final Duration maxDelay;
+
+    private final Duration offerTimeout;
+
+    private final Duration retryDelay;
+
+    private final Thread flusher;
+
+    private volatile boolean running = true;
+
+    public WriteBehindUrlWriter(UrlRepository urlRepository, UrlEventPublisher eventPublisher,
+                                TransactionTemplate transactionTemplate, Cache resolveCache,
+                                int maxPending, int batchSize, Duration maxDelay, Duration offerTimeout,
+                                Duration retryDelay) {
+        this.urlRepository = urlRepository;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = transactionTemplate;
+        this.resolveCache = resolveCache;
+        this.queue = new ArrayBlockingQueue<>(maxPending);
+        this.capacity = new Semaphore(maxPending);
+        this.batchSize = batchSize;
+        this.maxDelay = maxDelay;
+        this.offerTimeout = offerTimeout;
+        this.retryDelay = retryDelay;
+        this.flusher = new Thread(this::run, "url-write-behind");
+        this.flusher.setDaemon(true);
+        this.flusher.start();
+    }
+
+    @Override
+    public void write(Url url) {
+        writeAll(List.of(url));
+    }
+
+    /**
+     * Queues all the urls, or none of them when there is no room for all of them within {@code offerTimeout}.
+     */
+    @Override
+    public void writeAll(List<Url> urls) {
+        boolean accepted;
+        try {
+            accepted = capacity.tryAcquire(urls.size(), offerTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            accepted = false;
+        }
+        if (!accepted) {
+            throw new ServiceUnavailableException("Too many urls waiting to be stored, please try again later");
+        }
+        for (Url url : urls) {
+            pending.put(url.getShortUrl(), url);
+            queue.add(url);
+            resolveCache.put(url.getShortUrl(), UrlMapping.of(url));
+        }
+    }
+
+    @Override
+    public Url findPending(String shortUrl) {
+        return pending.get(shortUrl);
+    }
+
+    @Override
+    public Collection<String> pendingShortUrls() {
+        return List.copyOf(pending.keySet());
+    }
+
+    public int getPendingCount() {
+        return queue.size();
+    }
+
+    private void run() {
+        List<Url> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                Url first = queue.poll(maxDelay.toMillis(), TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                capacity.release(batch.size());
+                flush(batch);
+                batch.clear();
+            } catch (InterruptedException e) {
+                running = false;
+            }
+        }
+    }
+
+    private void flush(List<Url> batch) throws InterruptedException {
+        List<Url> stored = store(batch, MAX_BATCH_ATTEMPTS) ? batch : storeEach(batch);
+        batch.forEach(url -> pending.remove(url.getShortUrl()));
+        eventPublisher.published(stored);
+    }
+
+    /**
+     * @return the urls of the batch that could be stored on their own
+     */
+    private List<Url> storeEach(List<Url> batch) throws InterruptedException {
+        List<Url> stored = new ArrayList<>(batch.size());
+        for (Url url : batch) {
+            if (batch.size() > 1 && store(List.of(url), 1)) {
+                stored.add(url);
+            } else {
+                log.error("Dropping url {} for {}, it cannot be stored", url.getShortUrl(), url.getLongUrl());
+                resolveCache.evict(url.getShortUrl());
+            }
+        }
+        return stored;
+    }
+
+    /**
+     * @return false once storing the urls failed {@code attempts} times with errors that are not transient
+     */
+    private boolean store(List<Url> urls, int attempts) throws InterruptedException {
+        int failures = 0;
+        while (true) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> urlRepository.saveAll(urls));
+                return true;
+            } catch (Exception e) {
+                if (!isTransient(e) && ++failures >= attempts) {
+                    log.warn("Could not store {} urls after {} attempts", urls.size(), failures, e);
+                    return false;
+                }
+                log.error("Could not store {} urls, retrying", urls.size(), e);
+                Thread.sleep(retryDelay.toMillis());
+            }
+        }
+    }
+
+    private static boolean isTransient(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof TransientDataAccessException || cause instanceof RecoverableDataAccessException
+                    || cause instanceof DataAccessResourceFailureException
+                    || cause instanceof CannotCreateTransactionException
+                    || cause instanceof SQLTransientException || cause instanceof SQLRecoverableException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        running = false;
+        flusher.join(maxDelay.toMillis() + TimeUnit.SECONDS.toMillis(30));
+        if (flusher.isAlive()) {
+            log.error("Shutting down with {} urls not stored", pending.size());
+        }
+    }
+}
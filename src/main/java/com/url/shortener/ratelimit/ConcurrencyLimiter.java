@@ -0,0 +1,50 @@
+package com.url.shortener.ratelimit;
+
+import com.url.shortener.exception.ServiceUnavailableException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounds how many creates run at once, below the Hikari pool size, so a burst of writes is shed with 503 before it
+ * takes every database connection and redirects start timing out on the pool. A create waits at most
+ * {@code timeout} for a slot.
+ */
+@Component
+public class ConcurrencyLimiter {
+
+    private final Semaphore permits;
+
+    private final long timeoutNanos;
+
+    public ConcurrencyLimiter(@Value("${shortener.admission.max-concurrent:15}") int maxConcurrent,
+                              @Value("${shortener.admission.timeout:100ms}") Duration timeout) {
+        this.permits = new Semaphore(maxConcurrent);
+        this.timeoutNanos = timeout.toNanos();
+    }
+
+    /**
+     * Takes a slot, to be given back with {@link #release()}.
+     *
+     * @throws ServiceUnavailableException when no slot frees up in time
+     */
+    public void acquire() {
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(timeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            throw new ServiceUnavailableException("Too many urls being created, please try again later");
+        }
+    }
+
+    public void release() {
+        permits.release();
+    }
+}
@@ -0,0 +1,53 @@
+package com.url.shortener.ratelimit;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Set;
+
+/**
+ * Answers requests over their client's {@link RateLimiter} limit with 429 and a {@code Retry-After} in seconds.
+ * Clients are identified by their {@value #API_KEY_HEADER} header when it holds one of the configured api keys,
+ * otherwise by remote address, so a client cannot get a fresh bucket by sending a made up key. The client is left in
+ * the {@value #CLIENT_ATTRIBUTE} request attribute for handlers that charge more than the request itself.
+ */
+public class RateLimitInterceptor implements HandlerInterceptor {
+
+    public static final String API_KEY_HEADER = "X-API-Key";
+
+    public static final String CLIENT_ATTRIBUTE = "shortener.rate-limit.client";
+
+    private final RateLimiter rateLimiter;
+
+    private final Set<String> apiKeys;
+
+    public RateLimitInterceptor(RateLimiter rateLimiter, Set<String> apiKeys) {
+        this.rateLimiter = rateLimiter;
+        this.apiKeys = apiKeys;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws IOException {
+        String client = client(request, apiKeys);
+        request.setAttribute(CLIENT_ATTRIBUTE, client);
+        Duration wait = rateLimiter.acquire(client);
+        if (wait.isZero()) {
+            return true;
+        }
+        long seconds = Math.max(1, (wait.toMillis() + 999) / 1000);
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(seconds));
+        response.getWriter().write("Too many requests, please try again in " + seconds + " seconds");
+        return false;
+    }
+
+    static String client(HttpServletRequest request, Set<String> apiKeys) {
+        String apiKey = request.getHeader(API_KEY_HEADER);
+        return apiKey != null && apiKeys.contains(apiKey) ? "key:" + apiKey : "ip:" + request.getRemoteAddr();
+    }
+}
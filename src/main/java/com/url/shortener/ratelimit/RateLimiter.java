@@ -0,0 +1,81 @@
+package com.url.shortener.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limits requests per client, first with a {@link TokenBucket} on this node and then with a {@link RedisTokenBucket}
+ * shared by every node. Clients over the local limit are rejected without any I/O, so a client flooding one node costs
+ * no Redis round-trip. Local buckets are dropped once idle for as long as they take to refill, when they would be full
+ * again anyway. The global limit is skipped when Redis cannot be reached, so a Redis outage does not turn into an
+ * outage of creates.
+ */
+@Slf4j
+public class RateLimiter {
+
+    private final Cache<String, TokenBucket> localBuckets;
+
+    private final double permitsPerSecond;
+
+    private final int burst;
+
+    private final RedisTokenBucket globalBucket;
+
+    /**
+     * @param globalBucket the limit shared by all nodes, or null to only limit per node
+     */
+    public RateLimiter(double permitsPerSecond, int burst, long maxClients, RedisTokenBucket globalBucket) {
+        this.permitsPerSecond = permitsPerSecond;
+        this.burst = burst;
+        this.globalBucket = globalBucket;
+        this.localBuckets = Caffeine.newBuilder()
+                .maximumSize(maxClients)
+                .expireAfterAccess(TokenBucket.refillTime(permitsPerSecond, burst), TimeUnit.NANOSECONDS)
+                .build();
+    }
+
+    /**
+     * @return {@link Duration#ZERO} when the request is admitted, otherwise how long the client should wait
+     */
+    public Duration acquire(String client) {
+        long now = System.nanoTime();
+        long localWait = localBuckets.get(client, key -> new TokenBucket(permitsPerSecond, burst, now)).tryAcquire(now);
+        if (localWait > 0) {
+            return Duration.ofNanos(localWait);
+        }
+        if (globalBucket == null) {
+            return Duration.ZERO;
+        }
+        try {
+            return Duration.of(globalBucket.tryAcquire(client), ChronoUnit.MICROS);
+        } catch (Exception e) {
+            log.warn("Could not check the global rate limit of {}", client, e);
+            return Duration.ZERO;
+        }
+    }
+
+    /**
+     * Charges a client for several units of work, such as the urls of a batch, at once.
+     *
+     * @return how many of the {@code permits} are admitted, the rest are over the client's limit
+     */
+    public int acquireUpTo(String client, int permits) {
+        long now = System.nanoTime();
+        int taken = localBuckets.get(client, key -> new TokenBucket(permitsPerSecond, burst, now))
+                .tryAcquireUpTo(now, permits);
+        if (taken == 0 || globalBucket == null) {
+            return taken;
+        }
+        try {
+            return globalBucket.tryAcquireUpTo(client, taken);
+        } catch (Exception e) {
+            log.warn("Could not check the global rate limit of {}", client, e);
+            return taken;
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.url.shortener.ratelimit;
+
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.util.List;
+
+/**
+ * The {@link TokenBucket} algorithm run atomically in Redis by a Lua script, so a client shares one bucket across
+ * every node. The arrival time is kept in microseconds of the Redis clock ({@code TIME}), so node clocks do not
+ * matter, under {@value #KEY_PREFIX}{@code <client>} and expires once the bucket would be full again.
+ */
+public class RedisTokenBucket {
+
+    static final String KEY_PREFIX = "#rate-limit:";
+
+    private static final RedisScript<Long> ACQUIRE = new DefaultRedisScript<>("""
+            local interval = tonumber(ARGV[1])
+            local tolerance = tonumber(ARGV[2])
+            local time = redis.call('TIME')
+            local now = tonumber(time[1]) * 1000000 + tonumber(time[2])
+            local arrival = tonumber(redis.call('GET', KEYS[1]) or now)
+            if arrival < now then arrival = now end
+            local wait = arrival - tolerance - now
+            if wait > 0 then return wait end
+            arrival = arrival + interval
+            redis.call('SET', KEYS[1], string.format('%.0f', arrival), 'PX', math.ceil((arrival - now) / 1000))
+            return 0
+            """, Long.class);
+
+    private static final RedisScript<Long> ACQUIRE_UP_TO = new DefaultRedisScript<>("""
+            local interval = tonumber(ARGV[1])
+            local tolerance = tonumber(ARGV[2])
+            local permits = tonumber(ARGV[3])
+            local time = redis.call('TIME')
+            local now = tonumber(time[1]) * 1000000 + tonumber(time[2])
+            local arrival = tonumber(redis.call('GET', KEYS[1]) or now)
+            if arrival < now then arrival = now end
+            local taken = math.min(permits, math.floor((now + tolerance - arrival) / interval) + 1)
+            if taken <= 0 then return 0 end
+            arrival = arrival + taken * interval
+            redis.call('SET', KEYS[1], string.format('%.0f', arrival), 'PX', math.ceil((arrival - now) / 1000))
+            return taken
+            """, Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+
+    private final String interval;
+
+    private final String tolerance;
+
+    public RedisTokenBucket(StringRedisTemplate redisTemplate, double permitsPerSecond, int burst) {
+        this.redisTemplate = redisTemplate;
+        long micros = (long) Math.ceil(1_000_000d / permitsPerSecond);
+        this.interval = Long.toString(micros);
+        this.tolerance = Long.toString(micros * (burst - 1));
+    }
+
+    /**
+     * @return 0 when a token was taken, otherwise the microseconds until one is available
+     */
+    public long tryAcquire(String client) {
+        Long wait = redisTemplate.execute(ACQUIRE, List.of(KEY_PREFIX + client), interval, tolerance);
+        return wait != null ? wait : 0;
+    }
+
+    /**
+     * @return the number of tokens taken, at most {@code permits}
+     * @see TokenBucket#tryAcquireUpTo(long, int)
+     */
+    public int tryAcquireUpTo(String client, int permits) {
+        Long taken = redisTemplate.execute(ACQUIRE_UP_TO, List.of(KEY_PREFIX + client), interval, tolerance,
+                Integer.toString(permits));
+        return taken != null ? taken.intValue() : permits;
+    }
+}
@@ -0,0 +1,78 @@
+package com.url.shortener.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A lock-free token bucket of {@code burst} tokens refilled at {@code permitsPerSecond}, kept as a single
+ * theoretical arrival time (the generic cell rate algorithm): each admitted request pushes it one emission interval
+ * further, and a request is rejected while it is more than {@code burst - 1} intervals ahead of now. Admission is one
+ * compare-and-set, with no refill bookkeeping and no lock.
+ */
+public class TokenBucket {
+
+    private final long interval;
+
+    private final long tolerance;
+
+    private final AtomicLong arrivalTime;
+
+    /**
+     * @param now the current {@link System#nanoTime()}, the bucket starts full
+     */
+    public TokenBucket(double permitsPerSecond, int burst, long now) {
+        this.interval = emissionInterval(permitsPerSecond);
+        this.tolerance = interval * (burst - 1);
+        this.arrivalTime = new AtomicLong(now);
+    }
+
+    /**
+     * @param now the current {@link System#nanoTime()}
+     * @return 0 when a token was taken, otherwise the nanoseconds until one is available
+     */
+    public long tryAcquire(long now) {
+        while (true) {
+            long current = arrivalTime.get();
+            long start = current - now > 0 ? current : now;
+            long wait = start - tolerance - now;
+            if (wait > 0) {
+                return wait;
+            }
+            if (arrivalTime.compareAndSet(current, start + interval)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Takes as many of {@code permits} tokens as the bucket holds, so a request made of several units of work is
+     * charged for each of them without asking for more than a full bucket at once.
+     *
+     * @param now the current {@link System#nanoTime()}
+     * @return the number of tokens taken, 0 when the bucket is empty
+     */
+    public int tryAcquireUpTo(long now, int permits) {
+        while (true) {
+            long current = arrivalTime.get();
+            long start = current - now > 0 ? current : now;
+            long available = Math.floorDiv(now + tolerance - start, interval) + 1;
+            if (available <= 0 || permits <= 0) {
+                return 0;
+            }
+            int taken = (int) Math.min(permits, available);
+            if (arrivalTime.compareAndSet(current, start + taken * interval)) {
+                return taken;
+            }
+        }
+    }
+
+    /**
+     * @return the nanoseconds an empty bucket takes to fill up again
+     */
+    public static long refillTime(double permitsPerSecond, int burst) {
+        return emissionInterval(permitsPerSecond) * burst;
+    }
+
+    private static long emissionInterval(double permitsPerSecond) {
+        return (long) Math.ceil(1_000_000_000d / permitsPerSecond);
+    }
+}
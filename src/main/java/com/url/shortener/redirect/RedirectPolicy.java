@@ -0,0 +1,112 @@
+package com.url.shortener.redirect;
+
+import com.url.shortener.service.UrlService;
+import com.url.shortener.store.UrlMapping;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.Set;
+import java.util.zip.CRC32;
+
+/**
+ * HTTP semantics of redirects, so browsers, CDNs and reverse proxies can answer repeat requests without reaching the
+ * application. The status is configurable. {@code Cache-Control: max-age} runs until the url expires at the end of its
+ * expiration date, capped by {@code max-age}, so no cache serves a redirect for an expired url. Redirects carry a
+ * strong {@code ETag} and a {@code Last-Modified} of the day the url was created, and conditional requests that
+ * match them are answered with 304. {@code If-None-Match} uses the weak comparison of RFC 9110, so a tag that a CDN or
+ * compressing proxy turned into {@code W/"..."} still matches.
+ */
+@Component
+public class RedirectPolicy {
+
+    private static final Set<HttpStatus> REDIRECT_STATUSES = Set.of(HttpStatus.MOVED_PERMANENTLY, HttpStatus.FOUND,
+            HttpStatus.TEMPORARY_REDIRECT, HttpStatus.PERMANENT_REDIRECT);
+
+    private final HttpStatus status;
+
+    private final Duration maxAge;
+
+    private final ZoneId zone = ZoneId.systemDefault();
+
+    public RedirectPolicy(@Value("${shortener.redirect.status:301}") int status,
+                          @Value("${shortener.redirect.max-age:P1D}") Duration maxAge) {
+        HttpStatus redirectStatus = HttpStatus.resolve(status);
+        if (!REDIRECT_STATUSES.contains(redirectStatus)) {
+            throw new IllegalArgumentException("shortener.redirect.status must be 301, 302, 307 or 308, not " + status);
+        }
+        this.status = redirectStatus;
+        this.maxAge = maxAge;
+    }
+
+    /**
+     * @param requestHeaders the request headers, for {@code If-None-Match} and {@code If-Modified-Since}
+     * @return the redirect to the mapping's long url, or 304 when the client's copy is still current
+     */
+    public ResponseEntity<Object> redirect(UrlMapping mapping, HttpHeaders requestHeaders) {
+        return redirect(mapping, requestHeaders, Instant.now());
+    }
+
+    ResponseEntity<Object> redirect(UrlMapping mapping, HttpHeaders requestHeaders, Instant now) {
+        String eTag = eTag(mapping);
+        Instant lastModified = mapping.expirationDate().minusDays(UrlService.URL_EXPIRATION_DAYS).atStartOfDay(zone).toInstant();
+        CacheControl cacheControl = cacheControl(mapping, now);
+        if (notModified(requestHeaders, eTag, lastModified)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(eTag)
+                    .lastModified(lastModified)
+                    .cacheControl(cacheControl)
+                    .build();
+        }
+        return ResponseEntity.status(status)
+                .location(URI.create(mapping.longUrl()))
+                .eTag(eTag)
+                .lastModified(lastModified)
+                .cacheControl(cacheControl)
+                .build();
+    }
+
+    private CacheControl cacheControl(UrlMapping mapping, Instant now) {
+        Instant expires = mapping.expirationDate().plusDays(1).atStartOfDay(zone).toInstant();
+        Duration remaining = Duration.between(now, expires);
+        Duration age = remaining.compareTo(maxAge) < 0 ? remaining : maxAge;
+        if (age.getSeconds() <= 0) {
+            return CacheControl.noCache();
+        }
+        return CacheControl.maxAge(age).cachePublic();
+    }
+
+    private static boolean notModified(HttpHeaders requestHeaders, String eTag, Instant lastModified) {
+        if (!requestHeaders.getIfNoneMatch().isEmpty()) {
+            return requestHeaders.getIfNoneMatch().stream()
+                    .anyMatch(match -> match.equals("*") || opaqueTag(match).equals(eTag));
+        }
+        long ifModifiedSince = requestHeaders.getIfModifiedSince();
+        return ifModifiedSince >= 0 && lastModified.toEpochMilli() <= ifModifiedSince;
+    }
+
+    /**
+     * @return the tag without its weakness indicator
+     */
+    private static String opaqueTag(String eTag) {
+        return eTag.startsWith("W/") ? eTag.substring(2) : eTag;
+    }
+
+    /**
+     * Changes whenever the response would: with the status, the long url or the expiration date.
+     */
+    private String eTag(UrlMapping mapping) {
+        CRC32 crc = new CRC32();
+        crc.update(mapping.longUrl().getBytes(StandardCharsets.UTF_8));
+        return "\"" + status.value() + "-" + Long.toHexString(mapping.expirationDate().toEpochDay())
+                + "-" + Long.toHexString(crc.getValue()) + "\"";
+    }
+}
@@ -0,0 +1,14 @@
+package com.url.shortener.redirect;
+
+import java.util.Collection;
+
+/**
+ * Tells caches in front of the redirect endpoint to drop short urls that no longer resolve.
+ */
+public interface RedirectPurger {
+
+    RedirectPurger NONE = shortUrls -> {
+    };
+
+    void purge(Collection<String> shortUrls);
+}
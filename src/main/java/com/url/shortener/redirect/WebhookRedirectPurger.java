@@ -0,0 +1,67 @@
+package com.url.shortener.redirect;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Purges through a webhook: one {@code POST} of {@code {"paths": ["/<shortUrl>", ...]}} per batch, with an optional
+ * {@code Authorization} header, for a CDN purge API or a small adapter in front of one. Failures are logged and not
+ * retried, the redirect's {@code max-age} never outlives the url anyway.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "shortener.redirect.purge.url")
+public class WebhookRedirectPurger implements RedirectPurger {
+
+    private final RestClient restClient;
+
+    @Autowired
+    public WebhookRedirectPurger(@Value("${shortener.redirect.purge.url}") String url,
+                                 @Value("${shortener.redirect.purge.authorization:}") String authorization,
+                                 @Value("${shortener.redirect.purge.timeout:5s}") Duration timeout) {
+        this(client(url, authorization, timeout));
+    }
+
+    WebhookRedirectPurger(RestClient restClient) {
+        this.restClient = restClient;
+    }
+
+    @Override
+    public void purge(Collection<String> shortUrls) {
+        if (shortUrls.isEmpty()) {
+            return;
+        }
+        try {
+            restClient.post()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(Map.of("paths", shortUrls.stream().map(shortUrl -> "/" + shortUrl).toList()))
+                    .retrieve()
+                    .toBodilessEntity();
+        } catch (Exception e) {
+            log.warn("Could not purge {} short urls from the edge", shortUrls.size(), e);
+        }
+    }
+
+    private static RestClient client(String url, String authorization, Duration timeout) {
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(
+                HttpClient.newBuilder().connectTimeout(timeout).build());
+        requestFactory.setReadTimeout(timeout);
+        RestClient.Builder builder = RestClient.builder().baseUrl(url).requestFactory(requestFactory);
+        if (!authorization.isEmpty()) {
+            builder.defaultHeader(HttpHeaders.AUTHORIZATION, authorization);
+        }
+        return builder.build();
+    }
+}
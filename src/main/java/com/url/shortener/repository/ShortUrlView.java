@@ -0,0 +1,10 @@
+package com.url.shortener.repository;
+
+import java.math.BigInteger;
+
+public interface ShortUrlView {
+
+    BigInteger getId();
+
+    String getShortUrl();
+}
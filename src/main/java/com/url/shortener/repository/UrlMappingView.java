@@ -0,0 +1,15 @@
+package com.url.shortener.repository;
+
+import java.math.BigInteger;
+import java.time.LocalDate;
+
+public interface UrlMappingView {
+
+    BigInteger getId();
+
+    String getShortUrl();
+
+    String getLongUrl();
+
+    LocalDate getExpirationDate();
+}
@@ -1,10 +1,49 @@
 package com.url.shortener.repository;
 
 import com.url.shortener.entity.Url;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigInteger;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
 
 @Repository
-public interface UrlRepository extends JpaRepository<Url, Long> {
+public interface UrlRepository extends JpaRepository<Url, BigInteger> {
     Url findByShortUrl(String shortUrl);
+
+    @Query("select u.shortUrl from Url u where u.shortUrl in :shortUrls")
+    List<String> findExistingShortUrls(@Param("shortUrls") Collection<String> shortUrls);
+
+    @Query("select u.id as id, u.shortUrl as shortUrl from Url u where u.expirationDate < :today order by u.expirationDate")
+    List<ShortUrlView> findExpiredShortUrls(@Param("today") LocalDate today, Limit limit);
+
+    @Transactional
+    @Modifying
+    @Query("delete from Url u where u.id in :ids")
+    int deleteByIdIn(@Param("ids") Collection<BigInteger> ids);
+
+    @Query("select u.id as id, u.shortUrl as shortUrl from Url u where u.id > :after and u.expirationDate >= :today order by u.id")
+    List<ShortUrlView> findLiveShortUrls(@Param("after") BigInteger after, @Param("today") LocalDate today, Limit limit);
+
+    @Query("select u from Url u where u.longUrlHash = :hash and u.expirationDate >= :minExpirationDate order by u.expirationDate desc")
+    List<Url> findReusableByLongUrlHash(@Param("hash") long hash, @Param("minExpirationDate") LocalDate minExpirationDate, Limit limit);
+
+    @Query("select u from Url u where u.longUrlHash in :hashes and u.expirationDate >= :minExpirationDate order by u.expirationDate desc")
+    List<Url> findReusableByLongUrlHashIn(@Param("hashes") Collection<Long> hashes, @Param("minExpirationDate") LocalDate minExpirationDate, Limit limit);
+
+    @Query("select u.id as id, u.shortUrl as shortUrl, u.longUrl as longUrl, u.expirationDate as expirationDate from Url u where u.id < :before and u.expirationDate >= :today order by u.id desc")
+    List<UrlMappingView> findRecentLiveUrls(@Param("before") BigInteger before, @Param("today") LocalDate today, Limit limit);
+
+    @Query("select u.id as id, u.shortUrl as shortUrl, u.longUrl as longUrl, u.expirationDate as expirationDate from Url u where u.id > :after and u.expirationDate >= :today order by u.id")
+    List<UrlMappingView> findLiveUrlsAfter(@Param("after") BigInteger after, @Param("today") LocalDate today, Limit limit);
+
+    @Query("select u.id as id, u.shortUrl as shortUrl, u.longUrl as longUrl, u.expirationDate as expirationDate from Url u where u.shortUrl in :shortUrls and u.expirationDate >= :today")
+    List<UrlMappingView> findLiveUrls(@Param("shortUrls") Collection<String> shortUrls, @Param("today") LocalDate today);
 }
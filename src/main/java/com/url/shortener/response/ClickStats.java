@@ -0,0 +1,17 @@
+package com.url.shortener.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ClickStats {
+    private String shortUrl;
+    private long total;
+    private Map<Instant, Long> series;
+}
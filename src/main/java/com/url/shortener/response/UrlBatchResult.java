@@ -0,0 +1,16 @@
+package com.url.shortener.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class UrlBatchResult {
+    private String longUrl;
+    private String shortUrl;
+    private String error;
+}
@@ -0,0 +1,85 @@
+package com.url.shortener.serialization;
+
+import com.url.shortener.store.UrlMapping;
+import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+/**
+ * Value serializer that stores strings as raw UTF-8 and other supported values as a tag byte followed by a fixed
+ * binary layout: longs as 8 bytes, {@link UrlMapping}s as the expiration epoch day followed by the UTF-8 long url.
+ * Anything else falls back to JDK serialization.
+ * <p>
+ * The three layouts can be told apart from the first byte: JDK streams start with {@code 0xAC 0xED}, tagged values
+ * with {@code 0xFF}, and neither byte can start UTF-8 text. Values written by {@link JdkSerializationRedisSerializer}
+ * are therefore always readable, which lets a running deployment switch over without flushing Redis: first roll out
+ * with {@code writeLegacy} set so every node can read the new format, then turn it off.
+ */
+public class CompactRedisSerializer implements RedisSerializer<Object> {
+
+    private static final byte TAGGED = (byte) 0xFF;
+
+    private static final byte TAG_LONG = 0x01;
+
+    private static final byte TAG_URL_MAPPING = 0x02;
+
+    private final JdkSerializationRedisSerializer jdkSerializer = new JdkSerializationRedisSerializer();
+
+    private final boolean writeLegacy;
+
+    public CompactRedisSerializer(boolean writeLegacy) {
+        this.writeLegacy = writeLegacy;
+    }
+
+    @Override
+    public byte[] serialize(Object value) throws SerializationException {
+        if (value == null) {
+            return null;
+        }
+        if (writeLegacy) {
+            return jdkSerializer.serialize(value);
+        }
+        if (value instanceof String string) {
+            return string.getBytes(StandardCharsets.UTF_8);
+        }
+        if (value instanceof Long number) {
+            return ByteBuffer.allocate(2 + Long.BYTES).put(TAGGED).put(TAG_LONG).putLong(number).array();
+        }
+        if (value instanceof UrlMapping mapping) {
+            byte[] longUrl = mapping.longUrl().getBytes(StandardCharsets.UTF_8);
+            return ByteBuffer.allocate(2 + Long.BYTES + longUrl.length).put(TAGGED).put(TAG_URL_MAPPING)
+                    .putLong(mapping.expirationDate().toEpochDay()).put(longUrl).array();
+        }
+        return jdkSerializer.serialize(value);
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null) {
+            return null;
+        }
+        if (isJdkSerialized(bytes)) {
+            return jdkSerializer.deserialize(bytes);
+        }
+        if (bytes.length > 1 && bytes[0] == TAGGED) {
+            if (bytes[1] == TAG_LONG && bytes.length == 2 + Long.BYTES) {
+                return ByteBuffer.wrap(bytes, 2, Long.BYTES).getLong();
+            }
+            if (bytes[1] == TAG_URL_MAPPING && bytes.length >= 2 + Long.BYTES) {
+                LocalDate expirationDate = LocalDate.ofEpochDay(ByteBuffer.wrap(bytes, 2, Long.BYTES).getLong());
+                String longUrl = new String(bytes, 2 + Long.BYTES, bytes.length - 2 - Long.BYTES, StandardCharsets.UTF_8);
+                return new UrlMapping(longUrl, expirationDate);
+            }
+            throw new SerializationException("Unknown compact value tag " + bytes[1]);
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static boolean isJdkSerialized(byte[] bytes) {
+        return bytes.length > 1 && bytes[0] == (byte) 0xAC && bytes[1] == (byte) 0xED;
+    }
+}
@@ -0,0 +1,87 @@
+package com.url.shortener.service;
+
+import com.url.shortener.cache.TwoTierCache;
+import com.url.shortener.cache.TwoTierCacheManager;
+import com.url.shortener.filter.ShortUrlFilter;
+import com.url.shortener.index.UrlIndex;
+import com.url.shortener.store.UrlMapping;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Non-blocking counterpart of {@link UrlService#resolve(String)} for the reactive redirect profile. Codes the filter
+ * rules out, near cache hits and {@link UrlIndex} hits are answered straight away, anything else is read from the Redis
+ * {@link UrlService#URL_MAPPING_CACHE} entry over the shared Lettuce connection. Only a Redis miss or failure blocks:
+ * it calls {@link UrlService#resolve(String)} on the bounded elastic scheduler, which loads the mapping from the
+ * mapping store and fills both cache tiers. Redis hits here are not refreshed early, the next miss reloads them.
+ */
+@Slf4j
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveUrlResolver {
+
+    private final UrlService urlService;
+
+    private final ShortUrlFilter shortUrlFilter;
+
+    private final UrlIndex urlIndex;
+
+    private final ReactiveRedisTemplate<String, Object> redisTemplate;
+
+    private final String keyPrefix;
+
+    private final TwoTierCache nearCache;
+
+    public ReactiveUrlResolver(UrlService urlService, ShortUrlFilter shortUrlFilter, UrlIndex urlIndex,
+                               ReactiveRedisTemplate<String, Object> reactiveTemplate,
+                               RedisCacheConfiguration redisCacheConfiguration, CacheManager cacheManager) {
+        this.urlService = urlService;
+        this.shortUrlFilter = shortUrlFilter;
+        this.urlIndex = urlIndex;
+        this.redisTemplate = reactiveTemplate;
+        this.keyPrefix = redisCacheConfiguration.getKeyPrefixFor(UrlService.URL_MAPPING_CACHE);
+        this.nearCache = cacheManager instanceof TwoTierCacheManager
+                ? (TwoTierCache) cacheManager.getCache(UrlService.URL_MAPPING_CACHE)
+                : null;
+    }
+
+    /**
+     * @return the mapping, or empty when the short url does not exist or has expired; a cached mapping may have
+     * expired since it was cached
+     */
+    public Mono<UrlMapping> resolve(String shortUrl) {
+        if (!shortUrlFilter.mightExist(shortUrl)) {
+            return Mono.empty();
+        }
+        if (nearCache != null) {
+            Cache.ValueWrapper cached = nearCache.getLocal(shortUrl);
+            if (cached != null) {
+                return Mono.just((UrlMapping) cached.get());
+            }
+        }
+        UrlMapping indexed = urlIndex.find(shortUrl);
+        if (indexed != null) {
+            return Mono.just(indexed);
+        }
+        return redisTemplate.opsForValue().get(keyPrefix + shortUrl)
+                .cast(UrlMapping.class)
+                .doOnNext(mapping -> {
+                    if (nearCache != null) {
+                        nearCache.putLocal(shortUrl, mapping);
+                    }
+                })
+                .onErrorResume(e -> {
+                    log.warn("Could not read short url {} from Redis, loading it", shortUrl, e);
+                    return Mono.empty();
+                })
+                .switchIfEmpty(Mono.fromCallable(() -> urlService.resolve(shortUrl))
+                        .subscribeOn(Schedulers.boundedElastic()));
+    }
+}
@@ -0,0 +1,135 @@
+package com.url.shortener.service;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.url.shortener.exception.ServiceUnavailableException;
+import com.url.shortener.ratelimit.ConcurrencyLimiter;
+import com.url.shortener.ratelimit.RateLimiter;
+import com.url.shortener.request.UrlRequest;
+import com.url.shortener.response.UrlBatchResult;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Streams a batch of {@link UrlRequest}s, given as a JSON array or as newline delimited JSON, into results written in
+ * the same order and format. Requests are shortened in chunks so memory stays bounded whatever the batch size. Each
+ * chunk takes a {@link ConcurrencyLimiter} slot, and every url of a chunk that is shed is answered with the reason.
+ * When creates are rate limited, each valid url costs its client a token, the first one being the token already taken
+ * for the request, and the urls over the client's limit are answered as such.
+ */
+@Slf4j
+@Service
+public class UrlBatchService {
+
+    private final UrlService urlService;
+
+    private final ObjectMapper objectMapper;
+
+    private final ConcurrencyLimiter concurrencyLimiter;
+
+    private final RateLimiter rateLimiter;
+
+    private final int chunkSize;
+
+    public UrlBatchService(UrlService urlService, ObjectMapper objectMapper, ConcurrencyLimiter concurrencyLimiter,
+                           Optional<RateLimiter> rateLimiter,
+                           @Value("${shortener.batch.chunk-size:1000}") int chunkSize) {
+        this.urlService = urlService;
+        this.objectMapper = objectMapper;
+        this.concurrencyLimiter = concurrencyLimiter;
+        this.rateLimiter = rateLimiter.orElse(null);
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * @param client the rate limited client sending the batch, or null when creates are not rate limited
+     */
+    public void shortenURLs(InputStream input, OutputStream output, boolean ndjson, String host, String remoteIp,
+                            String client) throws IOException {
+        try (MappingIterator<UrlRequest> requests = objectMapper.readerFor(UrlRequest.class).readValues(input);
+             SequenceWriter results = ndjson
+                     ? objectMapper.writer().withRootValueSeparator("\n").writeValues(output)
+                     : objectMapper.writer().writeValuesAsArray(output)) {
+            List<UrlRequest> chunk = new ArrayList<>(chunkSize);
+            int prepaid = 1;
+            while (requests.hasNextValue()) {
+                chunk.add(requests.nextValue());
+                if (chunk.size() == chunkSize) {
+                    prepaid = writeChunk(chunk, results, host, remoteIp, client, prepaid);
+                    chunk.clear();
+                }
+            }
+            writeChunk(chunk, results, host, remoteIp, client, prepaid);
+        }
+    }
+
+    /**
+     * @param prepaid the tokens already taken for urls not yet written
+     * @return the tokens left over for the next chunk
+     */
+    private int writeChunk(List<UrlRequest> chunk, SequenceWriter results, String host, String remoteIp, String client,
+                           int prepaid) throws IOException {
+        if (chunk.isEmpty()) {
+            return prepaid;
+        }
+        List<String> longUrls = new ArrayList<>(chunk.size());
+        boolean[] valid = new boolean[chunk.size()];
+        for (int i = 0; i < chunk.size(); i++) {
+            UrlRequest request = chunk.get(i);
+            valid[i] = request != null && request.getLongUrl() != null && urlService.isValidURL(request);
+            if (valid[i]) {
+                longUrls.add(request.getLongUrl());
+            }
+        }
+        int admitted = longUrls.size();
+        if (rateLimiter != null && client != null && admitted > prepaid) {
+            admitted = prepaid + rateLimiter.acquireUpTo(client, admitted - prepaid);
+        }
+        prepaid = Math.max(0, prepaid - longUrls.size());
+        longUrls = longUrls.subList(0, admitted);
+
+        List<String> shortUrls = null;
+        String error = "The short url could not be generated please try again later";
+        try {
+            concurrencyLimiter.acquire();
+            try {
+                shortUrls = longUrls.isEmpty() ? List.of() : urlService.shortenURLs(longUrls, remoteIp);
+            } finally {
+                concurrencyLimiter.release();
+            }
+        } catch (ServiceUnavailableException e) {
+            error = e.getMessage();
+        } catch (Exception e) {
+            log.error("Could not generate a batch of {} short urls", longUrls.size(), e);
+        }
+
+        int next = 0;
+        for (int i = 0; i < chunk.size(); i++) {
+            String longUrl = chunk.get(i) != null ? chunk.get(i).getLongUrl() : null;
+            if (!valid[i]) {
+                results.write(new UrlBatchResult(longUrl, null, "Invalid Url"));
+                continue;
+            }
+            if (next >= longUrls.size()) {
+                results.write(new UrlBatchResult(longUrl, null, "Too many requests, please try again later"));
+                continue;
+            }
+            String shortUrl = shortUrls != null ? shortUrls.get(next) : null;
+            next++;
+            results.write(shortUrl != null
+                    ? new UrlBatchResult(longUrl, host + "/" + shortUrl, null)
+                    : new UrlBatchResult(longUrl, null, error));
+        }
+        results.flush();
+        return prepaid;
+    }
+}
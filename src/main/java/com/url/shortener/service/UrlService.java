@@ -1,99 +1,158 @@
 package com.url.shortener.service;
 
+import com.url.shortener.cache.SingleFlight;
+import com.url.shortener.dedup.UrlDeduplicator;
 import com.url.shortener.entity.Url;
-import com.url.shortener.repository.UrlRepository;
+import com.url.shortener.exception.ServiceUnavailableException;
+import com.url.shortener.filter.ShortUrlFilter;
+import com.url.shortener.generator.ShortUrlGenerator;
+import com.url.shortener.persistence.UrlWriter;
 import com.url.shortener.request.UrlRequest;
+import com.url.shortener.store.UrlMapping;
+import com.url.shortener.store.UrlMappingStore;
+import com.url.shortener.validation.UrlNormalizer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cache.annotation.Cacheable;
-import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.stereotype.Service;
 
-import javax.crypto.Cipher;
-import javax.crypto.KeyGenerator;
-import javax.crypto.SecretKey;
-import javax.crypto.spec.SecretKeySpec;
-import java.net.MalformedURLException;
-import java.net.URISyntaxException;
-import java.net.URL;
-import java.security.SecureRandom;
-import java.time.Instant;
 import java.time.LocalDate;
-import java.util.Base64;
-import java.util.Objects;
-import java.util.Optional;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 @Service
 @Slf4j
 public class UrlService {
 
-    private final int shortUrlLength = 7;
+    public static final String URL_MAPPING_CACHE = "urlMapping";
 
-    private final int urlExpirationDays = 30;
+    public static final int URL_EXPIRATION_DAYS = 30;
 
     private final int generationUniqueUrlRetry= 3;
 
-    private final String HTTP_PROTOCOL = "http://";
+    private final UrlMappingStore urlMappingStore;
 
-    private final String HTTPS_PROTOCOL = "https://";
+    private final UrlWriter urlWriter;
 
-    private final RedisTemplate<String, Object> redisTemplate;
+    private final ShortUrlGenerator shortUrlGenerator;
 
-    private final UrlRepository urlRepository;
-    private final String ALGORITHM_AES = "AES";
+    private final ShortUrlFilter shortUrlFilter;
+
+    private final UrlDeduplicator urlDeduplicator;
+
+    private final SingleFlight<String, UrlMapping> mappingLoads = new SingleFlight<>();
+
+    private final Timer generateTimer;
+
+    private final DistributionSummary generateAttempts;
+
+    private final Counter generateExhausted;
+
+    private final Timer findTimer;
+
+    private final Timer findExistingTimer;
+
+    private final Timer saveTimer;
+
+    private final Timer saveBatchTimer;
 
     @Autowired
-    public UrlService(UrlRepository urlRepository, RedisTemplate<String, Object> redisTemplate) {
-        this.urlRepository = urlRepository;
-        this.redisTemplate = redisTemplate;
+    public UrlService(UrlMappingStore urlMappingStore, UrlWriter urlWriter, ShortUrlGenerator shortUrlGenerator,
+                      ShortUrlFilter shortUrlFilter, UrlDeduplicator urlDeduplicator, MeterRegistry meterRegistry) {
+        this.urlMappingStore = urlMappingStore;
+        this.urlWriter = urlWriter;
+        this.shortUrlGenerator = shortUrlGenerator;
+        this.shortUrlFilter = shortUrlFilter;
+        this.urlDeduplicator = urlDeduplicator;
+        this.generateTimer = Timer.builder("shortener.generate")
+                .description("Time to generate a candidate short url")
+                .register(meterRegistry);
+        this.generateAttempts = DistributionSummary.builder("shortener.generate.attempts")
+                .description("Candidate short urls generated per create")
+                .register(meterRegistry);
+        this.generateExhausted = Counter.builder("shortener.generate.exhausted")
+                .description("Creates that found no free short url within the retries")
+                .register(meterRegistry);
+        this.findTimer = Timer.builder("shortener.store.find")
+                .description("Time to look a short url up in the url mapping store")
+                .register(meterRegistry);
+        this.findExistingTimer = Timer.builder("shortener.store.find-existing")
+                .description("Time to check a batch of candidate short urls for collisions")
+                .register(meterRegistry);
+        this.saveTimer = Timer.builder("shortener.store.save")
+                .description("Time to store new urls")
+                .tag("batch", "false")
+                .register(meterRegistry);
+        this.saveBatchTimer = Timer.builder("shortener.store.save")
+                .description("Time to store new urls")
+                .tag("batch", "true")
+                .register(meterRegistry);
     }
 
-    protected Url fetchUrl(String shortUrl) {
-        return urlRepository.findByShortUrl(shortUrl);
+    protected UrlMapping fetchUrl(String shortUrl) {
+        Url pending = urlWriter.findPending(shortUrl);
+        if (pending != null) {
+            return UrlMapping.of(pending);
+        }
+        long start = System.nanoTime();
+        try {
+            return urlMappingStore.find(shortUrl);
+        } finally {
+            findTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
     }
 
-    @Cacheable(value = "longUrl", key = "#shortUrl")
-    public String getOriginalUrl(String shortUrl) {
-        Optional<Url> url = Optional.ofNullable(fetchUrl(shortUrl));
-        boolean expired = url.isPresent() && url.get().getExpirationDate().isBefore(LocalDate.now());
-        if ( url.isPresent() && expired) {
-            deleteUrl(url.get());
+    /**
+     * @return the long url and expiration date of the short url, or null when it does not exist or has expired. A
+     * cached mapping can outlive its expiration date until the sweeper evicts it, so callers check it again.
+     */
+    @Cacheable(value = URL_MAPPING_CACHE, key = "#shortUrl", condition = "@shortUrlFilter.mightExist(#shortUrl)",
+            unless = "#result == null")
+    public UrlMapping resolve(String shortUrl) {
+        if (!shortUrlFilter.mightExist(shortUrl)) {
+            return null;
+        }
+        UrlMapping mapping = loadMapping(shortUrl);
+        if (mapping == null) {
+            shortUrlFilter.recordMiss(shortUrl);
         }
-        return url.isPresent() && !expired ? url.get().getLongUrl() : StringUtils.EMPTY;
+        return mapping;
     }
 
-    protected void deleteUrl(Url url) {
-        urlRepository.delete(url);
+    /**
+     * Read only: expired urls are treated as missing and left for {@link com.url.shortener.expiry.UrlExpirySweeper}.
+     * Concurrent cache misses for the same short url share one load.
+     */
+    private UrlMapping loadMapping(String shortUrl) {
+        return mappingLoads.load(shortUrl, this::readMapping);
     }
-    protected URL createURL(String urlSpec) throws MalformedURLException {
-        if (!urlSpec.startsWith(HTTP_PROTOCOL) && !urlSpec.startsWith(HTTPS_PROTOCOL)) {
-            urlSpec = HTTPS_PROTOCOL + urlSpec;
-        }
-        return new URL(urlSpec);
+
+    private UrlMapping readMapping(String shortUrl) {
+        UrlMapping url = fetchUrl(shortUrl);
+        return url != null && !url.isExpired(LocalDate.now()) ? url : null;
     }
+
+    /**
+     * Validates the requested long url and replaces it with its canonical form, see {@link UrlNormalizer}.
+     */
     public boolean isValidURL(UrlRequest url) {
-        try {
-            URL formattedLongUrl = createURL(url.getLongUrl());
-            formattedLongUrl.toURI();
-            url.setLongUrl(formattedLongUrl.toString());
-            return true;
-        } catch (MalformedURLException | URISyntaxException e) {
+        String normalized = UrlNormalizer.normalize(url.getLongUrl());
+        if (normalized == null) {
             return false;
         }
-    }
-
-    private byte[] generateKey() {
-        try {
-            KeyGenerator keyGenerator = KeyGenerator.getInstance(ALGORITHM_AES);
-            keyGenerator.init(256);
-            SecretKey secretKey = keyGenerator.generateKey();
-            return secretKey.getEncoded();
-        } catch (Exception e) {
-            log.error("Could not generate a key", e);
-            return null;
-        }
+        url.setLongUrl(normalized);
+        return true;
     }
 
     public String getHost(HttpServletRequest request) {
@@ -106,49 +165,140 @@ public class UrlService {
 
     public String shortenURL(String longURL, String remoteIp) throws Exception {
         try {
+            UrlDeduplicator.Fingerprint fingerprint = urlDeduplicator.fingerprint(longURL, remoteIp);
+            if (fingerprint != null) {
+                String existing = urlDeduplicator.find(fingerprint);
+                if (existing != null) {
+                    return existing;
+                }
+            }
+
             int count = 0;
             boolean existsShortUrl;
             String shortURL;
-            SecureRandom random = new SecureRandom();
-            byte[] salt = new byte[16];
-            random.nextBytes(salt);
 
             do {
-                SecretKeySpec secretKeySpec = new SecretKeySpec(Objects.requireNonNull(generateKey()), ALGORITHM_AES);
-                Cipher cipher = Cipher.getInstance("AES/CBC/PKCS5Padding");
-                cipher.init(Cipher.ENCRYPT_MODE, secretKeySpec);
-                byte[] encryptedBytes = cipher.doFinal((Instant.now().toString() + longURL).getBytes());
-                String encryptedURL = this.convertToAlphanumeric(Base64.getEncoder().encodeToString(encryptedBytes));
-
-                shortURL = encryptedURL.substring(0, shortUrlLength);
-                String url = getOriginalUrl(shortURL);
-                existsShortUrl = StringUtils.isNotEmpty(url);
+                shortURL = nextShortUrl();
+                existsShortUrl = !shortUrlGenerator.isCollisionFree() && fetchUrl(shortURL) != null;
                 count++;
             } while (count < generationUniqueUrlRetry && existsShortUrl);
+            generateAttempts.record(count);
 
             if (!existsShortUrl) {
-                saveUrl(shortURL, longURL, remoteIp);
-                redisTemplate.opsForList().leftPush("#shortUrl", longURL);
+                saveUrl(shortURL, longURL, remoteIp, fingerprint);
                 return shortURL;
             }
 
+            generateExhausted.increment();
             return null;
+        } catch (ServiceUnavailableException e) {
+            throw e;
         } catch (Exception e) {
             log.error("Could not generate a short url", e);
             throw new Exception(e);
         }
     }
 
-    private void saveUrl(String shortURL, String longURL, String remoteIp) {
+    /**
+     * Bulk variant of {@link #shortenURL(String, String)}: codes for the whole batch are checked for collisions with
+     * one query per attempt and stored with one batched write. With deduplication enabled, existing codes are looked
+     * up with one query and repeated long urls within the batch share a code.
+     *
+     * @return the short urls in the order of {@code longURLs}, null where no unique code could be generated
+     */
+    public List<String> shortenURLs(List<String> longURLs, String remoteIp) {
+        String[] shortURLs = new String[longURLs.size()];
+        UrlDeduplicator.Fingerprint[] fingerprints = new UrlDeduplicator.Fingerprint[longURLs.size()];
+        Map<Integer, Integer> repeats = new HashMap<>();
+        if (urlDeduplicator.isEnabled()) {
+            Map<UrlDeduplicator.Fingerprint, Integer> firstIndexes = new HashMap<>();
+            for (int i = 0; i < longURLs.size(); i++) {
+                fingerprints[i] = urlDeduplicator.fingerprint(longURLs.get(i), remoteIp);
+                Integer first = firstIndexes.putIfAbsent(fingerprints[i], i);
+                if (first != null) {
+                    repeats.put(i, first);
+                }
+            }
+            urlDeduplicator.findAll(firstIndexes.keySet())
+                    .forEach((fingerprint, shortURL) -> shortURLs[firstIndexes.get(fingerprint)] = shortURL);
+        }
+
+        List<Integer> unassigned = new ArrayList<>(longURLs.size());
+        for (int i = 0; i < longURLs.size(); i++) {
+            if (shortURLs[i] == null && !repeats.containsKey(i)) {
+                unassigned.add(i);
+            }
+        }
+        List<Integer> generated = new ArrayList<>(unassigned.size());
+        Set<String> taken = new HashSet<>();
+
+        for (int count = 0; count < generationUniqueUrlRetry && !unassigned.isEmpty(); count++) {
+            Map<String, Integer> candidates = new HashMap<>();
+            for (Integer index : unassigned) {
+                String candidate = nextShortUrl();
+                if (!taken.contains(candidate) && candidates.putIfAbsent(candidate, index) == null) {
+                    taken.add(candidate);
+                }
+            }
+            if (!shortUrlGenerator.isCollisionFree()) {
+                long start = System.nanoTime();
+                List<String> existing = urlMappingStore.findExisting(candidates.keySet());
+                findExistingTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                existing.forEach(candidates::remove);
+                candidates.keySet().removeIf(candidate -> urlWriter.findPending(candidate) != null);
+            }
+            candidates.forEach((candidate, index) -> {
+                shortURLs[index] = candidate;
+                generated.add(index);
+            });
+            unassigned.removeIf(index -> shortURLs[index] != null);
+        }
+        if (!unassigned.isEmpty()) {
+            generateExhausted.increment(unassigned.size());
+        }
+
+        List<Url> urls = new ArrayList<>(generated.size());
+        for (Integer index : generated) {
+            urls.add(newUrl(shortURLs[index], longURLs.get(index), remoteIp, fingerprints[index]));
+        }
+        if (!urls.isEmpty()) {
+            long start = System.nanoTime();
+            urlWriter.writeAll(urls);
+            saveBatchTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            urlMappingStore.stored(urls);
+            for (Integer index : generated) {
+                shortUrlFilter.added(shortURLs[index]);
+                urlDeduplicator.added(fingerprints[index], shortURLs[index]);
+            }
+        }
+        repeats.forEach((index, first) -> shortURLs[index] = shortURLs[first]);
+        return Arrays.asList(shortURLs);
+    }
+
+    private void saveUrl(String shortURL, String longURL, String remoteIp, UrlDeduplicator.Fingerprint fingerprint) {
+        Url url = newUrl(shortURL, longURL, remoteIp, fingerprint);
+        long start = System.nanoTime();
+        urlWriter.write(url);
+        saveTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        urlMappingStore.stored(List.of(url));
+        shortUrlFilter.added(shortURL);
+        urlDeduplicator.added(fingerprint, shortURL);
+    }
+
+    private String nextShortUrl() {
+        long start = System.nanoTime();
+        String shortUrl = shortUrlGenerator.next();
+        generateTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return shortUrl;
+    }
+
+    private Url newUrl(String shortURL, String longURL, String remoteIp, UrlDeduplicator.Fingerprint fingerprint) {
         Url url = new Url();
         url.setLongUrl(longURL);
+        url.setLongUrlHash(fingerprint != null ? fingerprint.hash() : null);
         url.setShortUrl(shortURL);
-        url.setExpirationDate(LocalDate.now().plusDays(urlExpirationDays));
+        url.setExpirationDate(LocalDate.now().plusDays(URL_EXPIRATION_DAYS));
         url.setSourceIp(remoteIp);
-        urlRepository.save(url);
-    }
-
-    public String convertToAlphanumeric(String base64String) {
-        return base64String.replaceAll("[^a-zA-Z0-9]", "");
+        return url;
     }
 }
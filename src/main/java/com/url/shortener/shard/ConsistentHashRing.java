@@ -0,0 +1,70 @@
+package com.url.shortener.shard;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Consistent hash ring with virtual nodes. Each node is placed on the ring {@code virtualNodes} times, hashed from its
+ * name, so keys spread evenly over the nodes and adding or removing a node only moves the keys of the ranges it takes
+ * over or gives up. Placement depends only on node names, so every instance with the same nodes agrees on it.
+ */
+public class ConsistentHashRing<T> {
+
+    private final long[] points;
+
+    private final Object[] owners;
+
+    public ConsistentHashRing(Map<String, T> nodes, int virtualNodes) {
+        if (nodes.isEmpty()) {
+            throw new IllegalArgumentException("A hash ring needs at least one node");
+        }
+        long[] unsorted = new long[nodes.size() * virtualNodes];
+        Object[] unsortedOwners = new Object[unsorted.length];
+        int i = 0;
+        for (Map.Entry<String, T> node : nodes.entrySet()) {
+            for (int v = 0; v < virtualNodes; v++) {
+                unsorted[i] = hash(node.getKey() + "#" + v);
+                unsortedOwners[i++] = node.getValue();
+            }
+        }
+        Integer[] order = new Integer[unsorted.length];
+        Arrays.setAll(order, index -> index);
+        Arrays.sort(order, (a, b) -> Long.compare(unsorted[a], unsorted[b]));
+        points = new long[order.length];
+        owners = new Object[order.length];
+        for (int j = 0; j < order.length; j++) {
+            points[j] = unsorted[order[j]];
+            owners[j] = unsortedOwners[order[j]];
+        }
+    }
+
+    /**
+     * @return the node owning the first point at or after the hash of the key
+     */
+    @SuppressWarnings("unchecked")
+    public T get(String key) {
+        int index = Arrays.binarySearch(points, hash(key));
+        if (index < 0) {
+            index = -index - 1;
+        }
+        return (T) owners[index == points.length ? 0 : index];
+    }
+
+    /**
+     * 64 bit FNV-1a followed by the MurmurHash3 finalizer, so short keys that differ in one character land far apart.
+     */
+    static long hash(String key) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -0,0 +1,25 @@
+package com.url.shortener.shard;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+
+import java.util.Map;
+
+/**
+ * Moves urls to the shards that own them, with {@code POST /actuator/reshard}. Answers with the number of urls moved
+ * away from each shard once done.
+ */
+@Endpoint(id = "reshard")
+public class ReshardEndpoint {
+
+    private final UrlResharder urlResharder;
+
+    public ReshardEndpoint(UrlResharder urlResharder) {
+        this.urlResharder = urlResharder;
+    }
+
+    @WriteOperation
+    public Map<String, Integer> reshard() {
+        return urlResharder.reshard();
+    }
+}
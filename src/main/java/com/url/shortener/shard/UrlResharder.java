@@ -0,0 +1,86 @@
+package com.url.shortener.shard;
+
+import com.url.shortener.entity.Url;
+import com.url.shortener.store.JdbcUrlMappingStore;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Moves urls that are not on their owning shard, page by page: each page is copied to the owners and then deleted
+ * from the shard it was read from. Lookups keep working throughout, as they fall back to the previous owner while
+ * resharding, and new urls are already written to their owner.
+ */
+@Slf4j
+public class UrlResharder {
+
+    private final UrlShards shards;
+
+    private final int pageSize;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    public UrlResharder(UrlShards shards, int pageSize) {
+        this.shards = shards;
+        this.pageSize = pageSize;
+    }
+
+    /**
+     * @return the number of urls moved away from each shard, by shard name
+     */
+    public Map<String, Integer> reshard() {
+        if (!lock.tryLock()) {
+            throw new IllegalStateException("Resharding is already running");
+        }
+        try {
+            Map<String, Integer> moved = new LinkedHashMap<>();
+            shards.all().forEach((name, shard) -> {
+                int count = moveMisplaced(shard);
+                moved.put(name, count);
+                log.info("Moved {} urls away from shard {}", count, name);
+            });
+            return moved;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private int moveMisplaced(JdbcUrlMappingStore source) {
+        int moved = 0;
+        String after = "";
+        List<Url> page;
+        do {
+            page = source.findAfter(after, pageSize);
+            Map<JdbcUrlMappingStore, List<Url>> misplaced = new HashMap<>();
+            for (Url url : page) {
+                JdbcUrlMappingStore owner = shards.owner(url.getShortUrl());
+                if (owner != source) {
+                    misplaced.computeIfAbsent(owner, shard -> new ArrayList<>()).add(url);
+                }
+                after = url.getShortUrl();
+            }
+            for (Map.Entry<JdbcUrlMappingStore, List<Url>> entry : misplaced.entrySet()) {
+                moved += move(source, entry.getKey(), entry.getValue());
+            }
+        } while (page.size() == pageSize);
+        return moved;
+    }
+
+    private int move(JdbcUrlMappingStore source, JdbcUrlMappingStore target, List<Url> urls) {
+        List<String> shortUrls = urls.stream().map(Url::getShortUrl).toList();
+        Set<String> copied = new HashSet<>(target.findExisting(shortUrls));
+        List<Url> missing = urls.stream().filter(url -> !copied.contains(url.getShortUrl())).toList();
+        if (!missing.isEmpty()) {
+            target.insert(missing);
+        }
+        source.deleteShortUrls(shortUrls);
+        return urls.size();
+    }
+}
@@ -0,0 +1,101 @@
+package com.url.shortener.shard;
+
+import com.url.shortener.store.JdbcUrlMappingStore;
+import com.url.shortener.store.PooledDataSources;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The databases the url table is sharded over: the primary {@code spring.datasource} plus one pool per extra JDBC url,
+ * named {@code shard-1}, {@code shard-2}, ... in the {@code hikaricp.*} metrics. Short urls are placed on a
+ * {@link ConsistentHashRing} by shard name ({@value #PRIMARY} or the JDBC url).
+ * <p>
+ * While resharding, the shards of the previous configuration stay reachable and {@link #previousOwner(String)} tells
+ * where a short url was placed before, until {@link UrlResharder} has moved it.
+ */
+@Slf4j
+public class UrlShards implements Closeable {
+
+    public static final String PRIMARY = "primary";
+
+    private static final String SCHEMA = "db/shard-schema.sql";
+
+    private final Map<String, JdbcUrlMappingStore> shards = new LinkedHashMap<>();
+
+    private final List<HikariDataSource> pools = new ArrayList<>();
+
+    private final ConsistentHashRing<JdbcUrlMappingStore> ring;
+
+    private final ConsistentHashRing<JdbcUrlMappingStore> previousRing;
+
+    /**
+     * @param previousUrls the extra shards before resharding, null when not resharding
+     */
+    public UrlShards(DataSource primary, List<String> urls, List<String> previousUrls, String username,
+                     String password, int maximumPoolSize, Duration connectionTimeout, int virtualNodes,
+                     MeterRegistry meterRegistry) {
+        shards.put(PRIMARY, new JdbcUrlMappingStore(new JdbcTemplate(primary)));
+        Set<String> allUrls = new LinkedHashSet<>(urls);
+        if (previousUrls != null) {
+            allUrls.addAll(previousUrls);
+        }
+        for (String url : allUrls) {
+            HikariDataSource dataSource = PooledDataSources.create("shard-" + (pools.size() + 1), url, username,
+                    password, maximumPoolSize, connectionTimeout, false, meterRegistry);
+            pools.add(dataSource);
+            new ResourceDatabasePopulator(new ClassPathResource(SCHEMA)).execute(dataSource);
+            shards.put(url, new JdbcUrlMappingStore(new JdbcTemplate(dataSource)));
+        }
+        ring = new ConsistentHashRing<>(select(urls), virtualNodes);
+        previousRing = previousUrls != null ? new ConsistentHashRing<>(select(previousUrls), virtualNodes) : null;
+        log.info("Sharding urls over {} databases{}", urls.size() + 1, previousRing != null ? ", resharding" : "");
+    }
+
+    /**
+     * @return the shard new urls with this short url are written to
+     */
+    public JdbcUrlMappingStore owner(String shortUrl) {
+        return ring.get(shortUrl);
+    }
+
+    /**
+     * @return the shard the short url was placed on before resharding, or null when not resharding
+     */
+    public JdbcUrlMappingStore previousOwner(String shortUrl) {
+        return previousRing != null ? previousRing.get(shortUrl) : null;
+    }
+
+    /**
+     * @return every shard of the current and previous configuration, by name
+     */
+    public Map<String, JdbcUrlMappingStore> all() {
+        return shards;
+    }
+
+    @Override
+    public void close() {
+        pools.forEach(HikariDataSource::close);
+    }
+
+    private Map<String, JdbcUrlMappingStore> select(Collection<String> urls) {
+        Map<String, JdbcUrlMappingStore> selected = new LinkedHashMap<>();
+        selected.put(PRIMARY, shards.get(PRIMARY));
+        urls.forEach(url -> selected.put(url, shards.get(url)));
+        return selected;
+    }
+}
@@ -0,0 +1,266 @@
+package com.url.shortener.store;
+
+import com.url.shortener.entity.Url;
+import com.url.shortener.repository.ShortUrlView;
+import com.url.shortener.repository.UrlMappingView;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Keeps mappings in a memory-mapped, append-only log file with an in-heap hash index from short url to record offset,
+ * for single node or edge deployments. Lookups that hit the index are served from the mapped file without any I/O;
+ * misses and expired hits read through to the {@code fallback} store and append what they find. New urls are appended
+ * as they are created and deletions append a tombstone. The index is rebuilt by replaying the log on startup, so a
+ * restarted node keeps everything it had resolved.
+ * <p>
+ * Each record is laid out as follows, the last two fields only for puts:
+ * {@code [length:int][type:byte][key length:short][key][expiration epoch day:long][value length:short][value]}. The
+ * length is written after the rest of the record, so a record torn by a crash reads as the end of the log. The log is
+ * never compacted: once the file is full, nothing more is appended and lookups of unindexed urls keep going to the
+ * fallback. Everything but lookups is passed to the fallback, which is the source of truth for which codes are taken.
+ */
+@Slf4j
+public class EmbeddedLogUrlMappingStore implements UrlMappingStore, Closeable {
+
+    private static final byte PUT = 1;
+
+    private static final byte REMOVE = 2;
+
+    private static final int LENGTH_BYTES = Integer.BYTES;
+
+    private final UrlMappingStore fallback;
+
+    private final Supplier<LocalDate> today;
+
+    private final FileChannel channel;
+
+    private final MappedByteBuffer buffer;
+
+    private final Map<String, Integer> index = new ConcurrentHashMap<>();
+
+    private final ReentrantLock appendLock = new ReentrantLock();
+
+    private int end;
+
+    private boolean full;
+
+    public EmbeddedLogUrlMappingStore(Path file, int maxSize, UrlMappingStore fallback) throws IOException {
+        this(file, maxSize, fallback, LocalDate::now);
+    }
+
+    EmbeddedLogUrlMappingStore(Path file, int maxSize, UrlMappingStore fallback, Supplier<LocalDate> today)
+            throws IOException {
+        this.fallback = fallback;
+        this.today = today;
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(maxSize, channel.size()));
+        replay();
+        log.info("Opened {} with {} mappings, {} of {} bytes used", file, index.size(), end, buffer.capacity());
+    }
+
+    @Override
+    public UrlMapping find(String shortUrl) {
+        Integer offset = index.get(shortUrl);
+        UrlMapping indexed = offset != null ? read(offset) : null;
+        if (indexed != null && !indexed.isExpired(today.get())) {
+            return indexed;
+        }
+        // expired here, but the fallback may already have deleted the url or given its code to a new one
+        UrlMapping mapping = fallback.find(shortUrl);
+        if (mapping == null) {
+            if (indexed != null) {
+                appendRemove(shortUrl);
+            }
+        } else if (!mapping.equals(indexed)) {
+            append(shortUrl, mapping);
+        }
+        return mapping;
+    }
+
+    @Override
+    public List<String> findExisting(Collection<String> shortUrls) {
+        return fallback.findExisting(shortUrls);
+    }
+
+    @Override
+    public void stored(Collection<Url> urls) {
+        fallback.stored(urls);
+        for (Url url : urls) {
+            append(url.getShortUrl(), UrlMapping.of(url));
+        }
+    }
+
+    @Override
+    public List<ShortUrlView> findLive(BigInteger after, LocalDate today, int limit) {
+        return fallback.findLive(after, today, limit);
+    }
+
+    @Override
+    public List<UrlMappingView> findLiveMappings(BigInteger after, LocalDate today, int limit) {
+        return fallback.findLiveMappings(after, today, limit);
+    }
+
+    @Override
+    public List<UrlMappingView> findLiveMappings(Collection<String> shortUrls, LocalDate today) {
+        return fallback.findLiveMappings(shortUrls, today);
+    }
+
+    @Override
+    public List<UrlMappingView> findRecentLiveMappings(BigInteger before, LocalDate today, int limit) {
+        return fallback.findRecentLiveMappings(before, today, limit);
+    }
+
+    @Override
+    public List<Url> findReusable(long hash, LocalDate minExpirationDate, int limit) {
+        return fallback.findReusable(hash, minExpirationDate, limit);
+    }
+
+    @Override
+    public List<Url> findReusable(Collection<Long> hashes, LocalDate minExpirationDate, int limit) {
+        return fallback.findReusable(hashes, minExpirationDate, limit);
+    }
+
+    @Override
+    public List<ShortUrlView> findExpired(LocalDate today, int limit) {
+        return fallback.findExpired(today, limit);
+    }
+
+    @Override
+    public void delete(Collection<ShortUrlView> urls) {
+        fallback.delete(urls);
+        for (ShortUrlView url : urls) {
+            if (index.containsKey(url.getShortUrl())) {
+                appendRemove(url.getShortUrl());
+            }
+        }
+    }
+
+    int size() {
+        return index.size();
+    }
+
+    @Override
+    public void close() throws IOException {
+        appendLock.lock();
+        try {
+            buffer.force();
+            channel.close();
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    private void replay() {
+        int position = 0;
+        while (position + LENGTH_BYTES <= buffer.capacity()) {
+            int length = buffer.getInt(position);
+            if (length <= 0 || position + LENGTH_BYTES + length > buffer.capacity()) {
+                break;
+            }
+            int body = position + LENGTH_BYTES;
+            String key = readString(body + 1);
+            if (buffer.get(body) == PUT) {
+                index.put(key, body);
+            } else {
+                index.remove(key);
+            }
+            position = body + length;
+        }
+        end = position;
+    }
+
+    private UrlMapping read(int body) {
+        int keyLength = buffer.getShort(body + 1);
+        int position = body + 1 + Short.BYTES + keyLength;
+        LocalDate expirationDate = LocalDate.ofEpochDay(buffer.getLong(position));
+        return new UrlMapping(readString(position + Long.BYTES), expirationDate);
+    }
+
+    private String readString(int position) {
+        byte[] bytes = new byte[buffer.getShort(position)];
+        buffer.get(position + Short.BYTES, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private void append(String shortUrl, UrlMapping mapping) {
+        byte[] key = shortUrl.getBytes(StandardCharsets.UTF_8);
+        byte[] value = mapping.longUrl().getBytes(StandardCharsets.UTF_8);
+        int length = 1 + Short.BYTES + key.length + Long.BYTES + Short.BYTES + value.length;
+        appendLock.lock();
+        try {
+            if (!reserve(length)) {
+                return;
+            }
+            int body = end + LENGTH_BYTES;
+            buffer.put(body, PUT);
+            int position = writeString(body + 1, key);
+            buffer.putLong(position, mapping.expirationDate().toEpochDay());
+            writeString(position + Long.BYTES, value);
+            commit(length);
+            index.put(shortUrl, body);
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    private void appendRemove(String shortUrl) {
+        byte[] key = shortUrl.getBytes(StandardCharsets.UTF_8);
+        int length = 1 + Short.BYTES + key.length;
+        appendLock.lock();
+        try {
+            if (!reserve(length)) {
+                // the mapping comes back on the next start, which is harmless for expired urls
+                index.remove(shortUrl);
+                return;
+            }
+            int body = end + LENGTH_BYTES;
+            buffer.put(body, REMOVE);
+            writeString(body + 1, key);
+            commit(length);
+            index.remove(shortUrl);
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    private boolean reserve(int length) {
+        if (end + LENGTH_BYTES + length <= buffer.capacity()) {
+            return true;
+        }
+        if (!full) {
+            full = true;
+            log.warn("Url mapping log is full after {} bytes, new mappings are no longer stored locally", end);
+        }
+        return false;
+    }
+
+    private int writeString(int position, byte[] bytes) {
+        buffer.putShort(position, (short) bytes.length);
+        buffer.put(position + Short.BYTES, bytes);
+        return position + Short.BYTES + bytes.length;
+    }
+
+    private void commit(int length) {
+        buffer.putInt(end, length);
+        end += LENGTH_BYTES + length;
+    }
+}
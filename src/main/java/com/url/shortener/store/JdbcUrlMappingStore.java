@@ -0,0 +1,169 @@
+package com.url.shortener.store;
+
+import com.url.shortener.entity.Url;
+import com.url.shortener.repository.ShortUrlView;
+import com.url.shortener.repository.UrlMappingView;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.sql.Date;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Looks mappings up with plain JDBC, selecting only the columns a redirect needs: no entity instantiation, persistence
+ * context or dirty checking. Also inserts and pages through whole rows for the sharded writer and the resharder.
+ */
+public class JdbcUrlMappingStore implements UrlMappingStore {
+
+    private static final String FIND = "select \"long-url\", \"expiration-date\" from url where \"short-url\" = ?";
+
+    private static final String FIND_EXISTING = "select \"short-url\" from url where \"short-url\" in (:shortUrls)";
+
+    private static final String FIND_LIVE = "select id, \"short-url\" from url where id > ? and \"expiration-date\" >= ? order by id limit ?";
+
+    private static final String FIND_LIVE_MAPPINGS = "select id, \"short-url\", \"long-url\", \"expiration-date\" from url where id > ? and \"expiration-date\" >= ? order by id limit ?";
+
+    private static final String FIND_LIVE_MAPPINGS_IN = "select id, \"short-url\", \"long-url\", \"expiration-date\" from url where \"short-url\" in (:shortUrls) and \"expiration-date\" >= :today";
+
+    private static final String FIND_RECENT_LIVE_MAPPINGS = "select id, \"short-url\", \"long-url\", \"expiration-date\" from url where id < ? and \"expiration-date\" >= ? order by id desc limit ?";
+
+    private static final String FIND_REUSABLE = "select id, \"short-url\", \"long-url\", \"long-url-hash\", \"expiration-date\", \"source-ip\" from url where \"long-url-hash\" in (:hashes) and \"expiration-date\" >= :minExpirationDate order by \"expiration-date\" desc limit :limit";
+
+    private static final String FIND_EXPIRED = "select id, \"short-url\" from url where \"expiration-date\" < ? order by \"expiration-date\" limit ?";
+
+    private static final String FIND_AFTER = "select id, \"short-url\", \"long-url\", \"long-url-hash\", \"expiration-date\", \"source-ip\" from url where \"short-url\" > ? order by \"short-url\" limit ?";
+
+    private static final String DELETE = "delete from url where \"short-url\" in (:shortUrls)";
+
+    private static final String INSERT = "insert into url (id, \"short-url\", \"long-url\", \"long-url-hash\", \"expiration-date\", \"source-ip\") values (?, ?, ?, ?, ?, ?)";
+
+    private static final RowMapper<ShortUrlView> SHORT_URL_ROW = (resultSet, row) ->
+            new ShortUrlRow(resultSet.getBigDecimal(1).toBigIntegerExact(), resultSet.getString(2));
+
+    private static final RowMapper<UrlMappingView> URL_MAPPING_ROW = (resultSet, row) ->
+            new UrlMappingRow(resultSet.getBigDecimal(1).toBigIntegerExact(), resultSet.getString(2),
+                    resultSet.getString(3), resultSet.getObject(4, LocalDate.class));
+
+    private static final RowMapper<Url> URL_ROW = (resultSet, row) -> {
+        Url url = new Url();
+        url.setId(resultSet.getBigDecimal(1).toBigIntegerExact());
+        url.setShortUrl(resultSet.getString(2));
+        url.setLongUrl(resultSet.getString(3));
+        url.setLongUrlHash(resultSet.getObject(4, Long.class));
+        url.setExpirationDate(resultSet.getObject(5, LocalDate.class));
+        url.setSourceIp(resultSet.getString(6));
+        return url;
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    public JdbcUrlMappingStore(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedParameterJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+    }
+
+    @Override
+    public UrlMapping find(String shortUrl) {
+        return jdbcTemplate.query(FIND, resultSet -> resultSet.next()
+                ? new UrlMapping(resultSet.getString(1), resultSet.getObject(2, LocalDate.class))
+                : null, shortUrl);
+    }
+
+    @Override
+    public List<String> findExisting(Collection<String> shortUrls) {
+        if (shortUrls.isEmpty()) {
+            return List.of();
+        }
+        return namedParameterJdbcTemplate.queryForList(FIND_EXISTING, Map.of("shortUrls", shortUrls), String.class);
+    }
+
+    @Override
+    public List<ShortUrlView> findLive(BigInteger after, LocalDate today, int limit) {
+        return jdbcTemplate.query(FIND_LIVE, SHORT_URL_ROW, new BigDecimal(after), Date.valueOf(today), limit);
+    }
+
+    @Override
+    public List<UrlMappingView> findLiveMappings(BigInteger after, LocalDate today, int limit) {
+        return jdbcTemplate.query(FIND_LIVE_MAPPINGS, URL_MAPPING_ROW, new BigDecimal(after), Date.valueOf(today),
+                limit);
+    }
+
+    @Override
+    public List<UrlMappingView> findLiveMappings(Collection<String> shortUrls, LocalDate today) {
+        if (shortUrls.isEmpty()) {
+            return List.of();
+        }
+        return namedParameterJdbcTemplate.query(FIND_LIVE_MAPPINGS_IN,
+                Map.of("shortUrls", shortUrls, "today", Date.valueOf(today)), URL_MAPPING_ROW);
+    }
+
+    @Override
+    public List<UrlMappingView> findRecentLiveMappings(BigInteger before, LocalDate today, int limit) {
+        return jdbcTemplate.query(FIND_RECENT_LIVE_MAPPINGS, URL_MAPPING_ROW, new BigDecimal(before),
+                Date.valueOf(today), limit);
+    }
+
+    @Override
+    public List<Url> findReusable(long hash, LocalDate minExpirationDate, int limit) {
+        return findReusable(List.of(hash), minExpirationDate, limit);
+    }
+
+    @Override
+    public List<Url> findReusable(Collection<Long> hashes, LocalDate minExpirationDate, int limit) {
+        if (hashes.isEmpty()) {
+            return List.of();
+        }
+        return namedParameterJdbcTemplate.query(FIND_REUSABLE, Map.of("hashes", hashes,
+                "minExpirationDate", Date.valueOf(minExpirationDate), "limit", limit), URL_ROW);
+    }
+
+    @Override
+    public List<ShortUrlView> findExpired(LocalDate today, int limit) {
+        return jdbcTemplate.query(FIND_EXPIRED, SHORT_URL_ROW, Date.valueOf(today), limit);
+    }
+
+    @Override
+    public void delete(Collection<ShortUrlView> urls) {
+        deleteShortUrls(urls.stream().map(ShortUrlView::getShortUrl).toList());
+    }
+
+    public void deleteShortUrls(Collection<String> shortUrls) {
+        if (!shortUrls.isEmpty()) {
+            namedParameterJdbcTemplate.update(DELETE, Map.of("shortUrls", shortUrls));
+        }
+    }
+
+    /**
+     * Inserts the urls, which must already have an id, in one batch.
+     */
+    public void insert(List<Url> urls) {
+        jdbcTemplate.batchUpdate(INSERT, urls, urls.size(), (statement, url) -> {
+            statement.setBigDecimal(1, new BigDecimal(url.getId()));
+            statement.setString(2, url.getShortUrl());
+            statement.setString(3, url.getLongUrl());
+            if (url.getLongUrlHash() != null) {
+                statement.setLong(4, url.getLongUrlHash());
+            } else {
+                statement.setNull(4, Types.BIGINT);
+            }
+            statement.setDate(5, Date.valueOf(url.getExpirationDate()));
+            statement.setString(6, url.getSourceIp());
+        });
+    }
+
+    /**
+     * @return up to {@code limit} whole rows with a short url above {@code after}, by short url
+     */
+    public List<Url> findAfter(String after, int limit) {
+        return jdbcTemplate.query(FIND_AFTER, URL_ROW, after, limit);
+    }
+}
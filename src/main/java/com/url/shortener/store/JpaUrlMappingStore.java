@@ -0,0 +1,75 @@
+package com.url.shortener.store;
+
+import com.url.shortener.entity.Url;
+import com.url.shortener.repository.ShortUrlView;
+import com.url.shortener.repository.UrlMappingView;
+import com.url.shortener.repository.UrlRepository;
+import org.springframework.data.domain.Limit;
+
+import java.math.BigInteger;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Looks mappings up by loading the {@link Url} entity through JPA.
+ */
+public class JpaUrlMappingStore implements UrlMappingStore {
+
+    private final UrlRepository urlRepository;
+
+    public JpaUrlMappingStore(UrlRepository urlRepository) {
+        this.urlRepository = urlRepository;
+    }
+
+    @Override
+    public UrlMapping find(String shortUrl) {
+        Url url = urlRepository.findByShortUrl(shortUrl);
+        return url != null ? UrlMapping.of(url) : null;
+    }
+
+    @Override
+    public List<String> findExisting(Collection<String> shortUrls) {
+        return urlRepository.findExistingShortUrls(shortUrls);
+    }
+
+    @Override
+    public List<ShortUrlView> findLive(BigInteger after, LocalDate today, int limit) {
+        return urlRepository.findLiveShortUrls(after, today, Limit.of(limit));
+    }
+
+    @Override
+    public List<UrlMappingView> findLiveMappings(BigInteger after, LocalDate today, int limit) {
+        return urlRepository.findLiveUrlsAfter(after, today, Limit.of(limit));
+    }
+
+    @Override
+    public List<UrlMappingView> findLiveMappings(Collection<String> shortUrls, LocalDate today) {
+        return urlRepository.findLiveUrls(shortUrls, today);
+    }
+
+    @Override
+    public List<UrlMappingView> findRecentLiveMappings(BigInteger before, LocalDate today, int limit) {
+        return urlRepository.findRecentLiveUrls(before, today, Limit.of(limit));
+    }
+
+    @Override
+    public List<Url> findReusable(long hash, LocalDate minExpirationDate, int limit) {
+        return urlRepository.findReusableByLongUrlHash(hash, minExpirationDate, Limit.of(limit));
+    }
+
+    @Override
+    public List<Url> findReusable(Collection<Long> hashes, LocalDate minExpirationDate, int limit) {
+        return urlRepository.findReusableByLongUrlHashIn(hashes, minExpirationDate, Limit.of(limit));
+    }
+
+    @Override
+    public List<ShortUrlView> findExpired(LocalDate today, int limit) {
+        return urlRepository.findExpiredShortUrls(today, Limit.of(limit));
+    }
+
+    @Override
+    public void delete(Collection<ShortUrlView> urls) {
+        urlRepository.deleteByIdIn(urls.stream().map(ShortUrlView::getId).toList());
+    }
+}
@@ -0,0 +1,40 @@
+package com.url.shortener.store;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+
+/**
+ * Hikari pools for databases other than {@code spring.datasource}. They are not {@code DataSource} beans, so JPA and
+ * everything else that uses the primary datasource is not affected by them.
+ */
+public final class PooledDataSources {
+
+    private PooledDataSources() {
+    }
+
+    /**
+     * @param meterRegistry where the {@code hikaricp.*} metrics of the pool are reported, may be null
+     */
+    public static HikariDataSource create(String poolName, String url, String username, String password,
+                                          int maximumPoolSize, Duration connectionTimeout, boolean readOnly,
+                                          MeterRegistry meterRegistry) {
+        HikariConfig config = new HikariConfig();
+        config.setPoolName(poolName);
+        config.setJdbcUrl(url);
+        config.setUsername(username);
+        config.setPassword(password);
+        config.setReadOnly(readOnly);
+        config.setMaximumPoolSize(maximumPoolSize);
+        config.setConnectionTimeout(connectionTimeout.toMillis());
+        // connect lazily, a database that is down at startup only fails the calls that need it
+        config.setInitializationFailTimeout(-1);
+        if (meterRegistry != null) {
+            config.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+        }
+        return new HikariDataSource(config);
+    }
+}
@@ -0,0 +1,39 @@
+package com.url.shortener.store;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.io.Closeable;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read-only connection pools to the Postgres replicas, named {@code replica-0}, {@code replica-1}, ... in the
+ * {@code hikaricp.*} metrics.
+ */
+public class ReplicaDataSources implements Closeable {
+
+    private final List<HikariDataSource> dataSources = new ArrayList<>();
+
+    public ReplicaDataSources(List<String> urls, String username, String password, int maximumPoolSize,
+                              Duration connectionTimeout, MeterRegistry meterRegistry) {
+        for (String url : urls) {
+            dataSources.add(PooledDataSources.create("replica-" + dataSources.size(), url, username, password,
+                    maximumPoolSize, connectionTimeout, true, meterRegistry));
+        }
+    }
+
+    public List<HikariDataSource> getDataSources() {
+        return dataSources;
+    }
+
+    public boolean isEmpty() {
+        return dataSources.isEmpty();
+    }
+
+    @Override
+    public void close() {
+        dataSources.forEach(HikariDataSource::close);
+    }
+}
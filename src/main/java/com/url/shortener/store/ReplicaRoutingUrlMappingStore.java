@@ -0,0 +1,160 @@
+package com.url.shortener.store;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.url.shortener.entity.Url;
+import com.url.shortener.repository.ShortUrlView;
+import com.url.shortener.repository.UrlMappingView;
+import lombok.extern.slf4j.Slf4j;
+
+import java.math.BigInteger;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+import java.util.stream.IntStream;
+
+/**
+ * Sends lookups to the replicas in turn and everything else to the primary. Replicas may lag behind, so a lookup
+ * goes to the primary when the code was created on this node within {@code maxLag}, when the replica does not have
+ * it (codes created on other nodes; unknown codes were already turned away by the
+ * {@link com.url.shortener.filter.ShortUrlFilter}) or when the replica fails. A replica that fails is taken out of
+ * the rotation for {@code backoff}, then tried again, so a replica that is down costs one failed lookup per backoff
+ * rather than every other lookup. With every replica out, lookups go to the primary. Collision checks, scans,
+ * deduplication lookups and deletes always go to the primary.
+ */
+@Slf4j
+public class ReplicaRoutingUrlMappingStore implements UrlMappingStore {
+
+    private static final int MAX_RECENT = 100_000;
+
+    private final UrlMappingStore primary;
+
+    private final List<Replica> replicas;
+
+    private final Cache<String, Boolean> recent;
+
+    private final AtomicInteger next = new AtomicInteger();
+
+    private final long backoffNanos;
+
+    private final LongSupplier clock;
+
+    public ReplicaRoutingUrlMappingStore(UrlMappingStore primary, List<UrlMappingStore> replicas, Duration maxLag,
+                                         Duration backoff) {
+        this(primary, replicas, maxLag, backoff, System::nanoTime);
+    }
+
+    ReplicaRoutingUrlMappingStore(UrlMappingStore primary, List<UrlMappingStore> replicas, Duration maxLag,
+                                  Duration backoff, LongSupplier clock) {
+        long now = clock.getAsLong();
+        this.primary = primary;
+        this.replicas = IntStream.range(0, replicas.size()).mapToObj(i -> new Replica(i, replicas.get(i), now)).toList();
+        this.recent = Caffeine.newBuilder().maximumSize(MAX_RECENT).expireAfterWrite(maxLag).build();
+        this.backoffNanos = backoff.toNanos();
+        this.clock = clock;
+    }
+
+    @Override
+    public UrlMapping find(String shortUrl) {
+        if (recent.getIfPresent(shortUrl) != null) {
+            return primary.find(shortUrl);
+        }
+        Replica replica = nextReplica();
+        UrlMapping mapping = null;
+        if (replica != null) {
+            try {
+                mapping = replica.store.find(shortUrl);
+            } catch (Exception e) {
+                replica.retryAt = clock.getAsLong() + backoffNanos;
+                log.warn("Could not look up {} on replica-{}, taking it out of rotation for {} ms", shortUrl,
+                        replica.index, Duration.ofNanos(backoffNanos).toMillis(), e);
+            }
+        }
+        return mapping != null ? mapping : primary.find(shortUrl);
+    }
+
+    /**
+     * @return the next replica in turn that is not backing off, or null when they all are
+     */
+    private Replica nextReplica() {
+        long now = clock.getAsLong();
+        int start = next.getAndIncrement();
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get(Math.floorMod(start + i, replicas.size()));
+            if (now - replica.retryAt >= 0) {
+                return replica;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public List<String> findExisting(Collection<String> shortUrls) {
+        return primary.findExisting(shortUrls);
+    }
+
+    @Override
+    public void stored(Collection<Url> urls) {
+        urls.forEach(url -> recent.put(url.getShortUrl(), Boolean.TRUE));
+        primary.stored(urls);
+    }
+
+    @Override
+    public List<ShortUrlView> findLive(BigInteger after, LocalDate today, int limit) {
+        return primary.findLive(after, today, limit);
+    }
+
+    @Override
+    public List<UrlMappingView> findLiveMappings(BigInteger after, LocalDate today, int limit) {
+        return primary.findLiveMappings(after, today, limit);
+    }
+
+    @Override
+    public List<UrlMappingView> findLiveMappings(Collection<String> shortUrls, LocalDate today) {
+        return primary.findLiveMappings(shortUrls, today);
+    }
+
+    @Override
+    public List<UrlMappingView> findRecentLiveMappings(BigInteger before, LocalDate today, int limit) {
+        return primary.findRecentLiveMappings(before, today, limit);
+    }
+
+    @Override
+    public List<Url> findReusable(long hash, LocalDate minExpirationDate, int limit) {
+        return primary.findReusable(hash, minExpirationDate, limit);
+    }
+
+    @Override
+    public List<Url> findReusable(Collection<Long> hashes, LocalDate minExpirationDate, int limit) {
+        return primary.findReusable(hashes, minExpirationDate, limit);
+    }
+
+    @Override
+    public List<ShortUrlView> findExpired(LocalDate today, int limit) {
+        return primary.findExpired(today, limit);
+    }
+
+    @Override
+    public void delete(Collection<ShortUrlView> urls) {
+        primary.delete(urls);
+    }
+
+    private static final class Replica {
+
+        private final int index;
+
+        private final UrlMappingStore store;
+
+        // nanoTime values are only comparable by difference, so this starts at the creation time rather than 0
+        private volatile long retryAt;
+
+        private Replica(int index, UrlMappingStore store, long now) {
+            this.index = index;
+            this.store = store;
+            this.retryAt = now;
+        }
+    }
+}
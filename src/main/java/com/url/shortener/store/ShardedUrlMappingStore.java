@@ -0,0 +1,151 @@
+package com.url.shortener.store;
+
+import com.url.shortener.entity.Url;
+import com.url.shortener.repository.ShortUrlView;
+import com.url.shortener.repository.UrlMappingView;
+import com.url.shortener.shard.UrlShards;
+
+import java.math.BigInteger;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Reads the url table sharded by short url over {@link UrlShards}. Lookups go to the owning shard and, while
+ * resharding, to the shard the url was placed on before when the owner does not have it yet. Scans ask every shard.
+ */
+public class ShardedUrlMappingStore implements UrlMappingStore {
+
+    private final UrlShards shards;
+
+    public ShardedUrlMappingStore(UrlShards shards) {
+        this.shards = shards;
+    }
+
+    @Override
+    public UrlMapping find(String shortUrl) {
+        JdbcUrlMappingStore owner = shards.owner(shortUrl);
+        UrlMapping mapping = owner.find(shortUrl);
+        if (mapping == null) {
+            JdbcUrlMappingStore previousOwner = shards.previousOwner(shortUrl);
+            if (previousOwner != null && previousOwner != owner) {
+                mapping = previousOwner.find(shortUrl);
+            }
+        }
+        return mapping;
+    }
+
+    @Override
+    public List<String> findExisting(Collection<String> shortUrls) {
+        Set<String> existing = new LinkedHashSet<>();
+        byShard(shortUrls).forEach((shard, candidates) -> existing.addAll(shard.findExisting(candidates)));
+        return new ArrayList<>(existing);
+    }
+
+    /**
+     * Merges the first {@code limit} live urls of every shard by id. Ids are unique across shards, and a url that is
+     * on two shards while being moved is only returned once.
+     */
+    @Override
+    public List<ShortUrlView> findLive(BigInteger after, LocalDate today, int limit) {
+        TreeMap<BigInteger, ShortUrlView> merged = new TreeMap<>();
+        for (JdbcUrlMappingStore shard : shards.all().values()) {
+            shard.findLive(after, today, limit).forEach(url -> merged.put(url.getId(), url));
+        }
+        return merged.values().stream().limit(limit).toList();
+    }
+
+    /**
+     * Merged like {@link #findLive(BigInteger, LocalDate, int)}.
+     */
+    @Override
+    public List<UrlMappingView> findLiveMappings(BigInteger after, LocalDate today, int limit) {
+        TreeMap<BigInteger, UrlMappingView> merged = new TreeMap<>();
+        for (JdbcUrlMappingStore shard : shards.all().values()) {
+            shard.findLiveMappings(after, today, limit).forEach(url -> merged.put(url.getId(), url));
+        }
+        return merged.values().stream().limit(limit).toList();
+    }
+
+    @Override
+    public List<UrlMappingView> findLiveMappings(Collection<String> shortUrls, LocalDate today) {
+        Map<String, UrlMappingView> live = new LinkedHashMap<>();
+        byShard(shortUrls).forEach((shard, candidates) -> shard.findLiveMappings(candidates, today)
+                .forEach(url -> live.putIfAbsent(url.getShortUrl(), url)));
+        return new ArrayList<>(live.values());
+    }
+
+    /**
+     * Merges the first {@code limit} live urls of every shard by id, newest first.
+     */
+    @Override
+    public List<UrlMappingView> findRecentLiveMappings(BigInteger before, LocalDate today, int limit) {
+        TreeMap<BigInteger, UrlMappingView> merged = new TreeMap<>(Comparator.reverseOrder());
+        for (JdbcUrlMappingStore shard : shards.all().values()) {
+            shard.findRecentLiveMappings(before, today, limit).forEach(url -> merged.put(url.getId(), url));
+        }
+        return merged.values().stream().limit(limit).toList();
+    }
+
+    @Override
+    public List<Url> findReusable(long hash, LocalDate minExpirationDate, int limit) {
+        return findReusable(List.of(hash), minExpirationDate, limit);
+    }
+
+    /**
+     * Long urls are not the shard key, so every shard is asked and the matches merged by expiration date.
+     */
+    @Override
+    public List<Url> findReusable(Collection<Long> hashes, LocalDate minExpirationDate, int limit) {
+        Map<String, Url> reusable = new HashMap<>();
+        for (JdbcUrlMappingStore shard : shards.all().values()) {
+            shard.findReusable(hashes, minExpirationDate, limit)
+                    .forEach(url -> reusable.putIfAbsent(url.getShortUrl(), url));
+        }
+        return reusable.values().stream()
+                .sorted(Comparator.comparing(Url::getExpirationDate).reversed())
+                .limit(limit)
+                .toList();
+    }
+
+    @Override
+    public List<ShortUrlView> findExpired(LocalDate today, int limit) {
+        Map<String, ShortUrlView> expired = new LinkedHashMap<>();
+        for (JdbcUrlMappingStore shard : shards.all().values()) {
+            if (expired.size() >= limit) {
+                break;
+            }
+            shard.findExpired(today, limit - expired.size()).forEach(url -> expired.putIfAbsent(url.getShortUrl(), url));
+        }
+        return new ArrayList<>(expired.values());
+    }
+
+    @Override
+    public void delete(Collection<ShortUrlView> urls) {
+        byShard(urls.stream().map(ShortUrlView::getShortUrl).toList()).forEach(JdbcUrlMappingStore::deleteShortUrls);
+    }
+
+    /**
+     * Groups short urls by the shards that may hold them: the owner and, while resharding, the previous owner.
+     */
+    private Map<JdbcUrlMappingStore, List<String>> byShard(Collection<String> shortUrls) {
+        Map<JdbcUrlMappingStore, List<String>> byShard = new HashMap<>();
+        for (String shortUrl : shortUrls) {
+            JdbcUrlMappingStore owner = shards.owner(shortUrl);
+            byShard.computeIfAbsent(owner, shard -> new ArrayList<>()).add(shortUrl);
+            JdbcUrlMappingStore previousOwner = shards.previousOwner(shortUrl);
+            if (previousOwner != null && previousOwner != owner) {
+                byShard.computeIfAbsent(previousOwner, shard -> new ArrayList<>()).add(shortUrl);
+            }
+        }
+        return byShard;
+    }
+}
@@ -0,0 +1,21 @@
+package com.url.shortener.store;
+
+import com.url.shortener.repository.ShortUrlView;
+
+import java.math.BigInteger;
+
+/**
+ * A {@link ShortUrlView} read without JPA.
+ */
+public record ShortUrlRow(BigInteger id, String shortUrl) implements ShortUrlView {
+
+    @Override
+    public BigInteger getId() {
+        return id;
+    }
+
+    @Override
+    public String getShortUrl() {
+        return shortUrl;
+    }
+}
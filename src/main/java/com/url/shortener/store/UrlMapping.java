@@ -0,0 +1,20 @@
+package com.url.shortener.store;
+
+import com.url.shortener.entity.Url;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/**
+ * What resolving a short url needs: the long url and when the mapping expires.
+ */
+public record UrlMapping(String longUrl, LocalDate expirationDate) implements Serializable {
+
+    public static UrlMapping of(Url url) {
+        return new UrlMapping(url.getLongUrl(), url.getExpirationDate());
+    }
+
+    public boolean isExpired(LocalDate today) {
+        return expirationDate.isBefore(today);
+    }
+}
@@ -0,0 +1,33 @@
+package com.url.shortener.store;
+
+import com.url.shortener.repository.UrlMappingView;
+
+import java.math.BigInteger;
+import java.time.LocalDate;
+
+/**
+ * A {@link UrlMappingView} read without JPA.
+ */
+public record UrlMappingRow(BigInteger id, String shortUrl, String longUrl, LocalDate expirationDate)
+        implements UrlMappingView {
+
+    @Override
+    public BigInteger getId() {
+        return id;
+    }
+
+    @Override
+    public String getShortUrl() {
+        return shortUrl;
+    }
+
+    @Override
+    public String getLongUrl() {
+        return longUrl;
+    }
+
+    @Override
+    public LocalDate getExpirationDate() {
+        return expirationDate;
+    }
+}
@@ -0,0 +1,70 @@
+package com.url.shortener.store;
+
+import com.url.shortener.entity.Url;
+import com.url.shortener.repository.ShortUrlView;
+import com.url.shortener.repository.UrlMappingView;
+
+import java.math.BigInteger;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Access to the short url table for everything but inserts: the resolve path, collision checks, deduplication, cache
+ * warm-up, the {@link com.url.shortener.filter.ShortUrlFilter} rebuild, the {@link com.url.shortener.index.UrlIndex}
+ * load and the expiry sweeper. Urls are inserted by a {@link com.url.shortener.persistence.UrlWriter}; stores that keep
+ * their own copy of the mappings are told about new urls through {@link #stored(Collection)}.
+ */
+public interface UrlMappingStore {
+
+    /**
+     * @return the mapping of the short url, expired or not, or null when it does not exist
+     */
+    UrlMapping find(String shortUrl);
+
+    /**
+     * @return the short urls among {@code shortUrls} that are already taken
+     */
+    List<String> findExisting(Collection<String> shortUrls);
+
+    /**
+     * @return up to {@code limit} live urls with an id above {@code after}, by id
+     */
+    List<ShortUrlView> findLive(BigInteger after, LocalDate today, int limit);
+
+    /**
+     * Like {@link #findLive(BigInteger, LocalDate, int)}, with the long url and expiration date of each url.
+     */
+    List<UrlMappingView> findLiveMappings(BigInteger after, LocalDate today, int limit);
+
+    /**
+     * @return the live urls among {@code shortUrls}, in no particular order
+     */
+    List<UrlMappingView> findLiveMappings(Collection<String> shortUrls, LocalDate today);
+
+    /**
+     * @return up to {@code limit} live urls with an id below {@code before}, newest first
+     */
+    List<UrlMappingView> findRecentLiveMappings(BigInteger before, LocalDate today, int limit);
+
+    /**
+     * @return up to {@code limit} urls with the long url hash that expire on or after {@code minExpirationDate}, latest
+     * expiration first
+     */
+    List<Url> findReusable(long hash, LocalDate minExpirationDate, int limit);
+
+    /**
+     * Bulk variant of {@link #findReusable(long, LocalDate, int)}, with {@code limit} over all the hashes.
+     */
+    List<Url> findReusable(Collection<Long> hashes, LocalDate minExpirationDate, int limit);
+
+    /**
+     * @return up to {@code limit} expired urls, oldest first
+     */
+    List<ShortUrlView> findExpired(LocalDate today, int limit);
+
+    void delete(Collection<ShortUrlView> urls);
+
+    default void stored(Collection<Url> urls) {
+    }
+}
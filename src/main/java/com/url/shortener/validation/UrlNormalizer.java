@@ -0,0 +1,297 @@
+package com.url.shortener.validation;
+
+import java.net.IDN;
+
+/**
+ * Single pass validation and canonicalization of submitted long urls, without building {@code URL}/{@code URI}
+ * objects or using regular expressions. Equivalent urls normalize to the same string:
+ * <ul>
+ *     <li>a missing scheme defaults to {@code https}; schemes other than {@code http}/{@code https} are rejected</li>
+ *     <li>scheme and host are lower-cased, a trailing dot on the host and the default port are dropped</li>
+ *     <li>internationalized hosts are converted to their ASCII form</li>
+ *     <li>an empty path becomes {@code /}</li>
+ *     <li>percent-encodings are upper-cased, encoded unreserved characters are decoded and non-ASCII characters in
+ *     the path, query and fragment are percent-encoded as UTF-8</li>
+ * </ul>
+ * Urls with user info, whitespace or characters not allowed in a URI are rejected.
+ */
+public final class UrlNormalizer {
+
+    public static final int MAX_LENGTH = 100;
+
+    /**
+     * Urls can shrink when normalized, mostly by decoding percent-encodings three characters into one, so only inputs
+     * that cannot possibly fit are rejected before normalizing.
+     */
+    private static final int MAX_INPUT_LENGTH = 4 * MAX_LENGTH;
+
+    private static final String HTTP_PROTOCOL = "http://";
+
+    private static final String HTTPS_PROTOCOL = "https://";
+
+    private static final int MAX_HOST_LENGTH = 253;
+
+    private static final int MAX_LABEL_LENGTH = 63;
+
+    private static final char[] HEX = "0123456789ABCDEF".toCharArray();
+
+    private UrlNormalizer() {
+    }
+
+    /**
+     * @return the canonical form of {@code url}, or null when it is not a valid http(s) url or its canonical form is
+     * longer than {@link #MAX_LENGTH} characters
+     */
+    public static String normalize(String url) {
+        if (url == null || url.isEmpty() || url.length() > MAX_INPUT_LENGTH) {
+            return null;
+        }
+        StringBuilder out = new StringBuilder(url.length() + HTTPS_PROTOCOL.length() + 1);
+        int defaultPort;
+        int i;
+        if (startsWithIgnoreCase(url, HTTPS_PROTOCOL)) {
+            i = HTTPS_PROTOCOL.length();
+            defaultPort = 443;
+            out.append(HTTPS_PROTOCOL);
+        } else if (startsWithIgnoreCase(url, HTTP_PROTOCOL)) {
+            i = HTTP_PROTOCOL.length();
+            defaultPort = 80;
+            out.append(HTTP_PROTOCOL);
+        } else if (hasScheme(url)) {
+            return null;
+        } else {
+            i = 0;
+            defaultPort = 443;
+            out.append(HTTPS_PROTOCOL);
+        }
+
+        i = appendHost(url, i, out);
+        if (i < 0) {
+            return null;
+        }
+        if (i < url.length() && url.charAt(i) == ':') {
+            i = appendPort(url, i + 1, defaultPort, out);
+            if (i < 0) {
+                return null;
+            }
+        }
+        if (i == url.length() || url.charAt(i) != '/') {
+            out.append('/');
+        }
+        return appendPathQueryFragment(url, i, out) && out.length() <= MAX_LENGTH ? out.toString() : null;
+    }
+
+    private static boolean startsWithIgnoreCase(String url, String prefix) {
+        return url.regionMatches(true, 0, prefix, 0, prefix.length());
+    }
+
+    /**
+     * True when the url starts with a scheme followed by {@code ://}, e.g. {@code ftp://}.
+     */
+    private static boolean hasScheme(String url) {
+        if (!isAlpha(url.charAt(0))) {
+            return false;
+        }
+        for (int i = 1; i < url.length(); i++) {
+            char c = url.charAt(i);
+            if (c == ':') {
+                return url.startsWith("//", i + 1);
+            }
+            if (!isAlpha(c) && !isDigit(c) && c != '+' && c != '-' && c != '.') {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return the index just past the host, or -1 when the host is invalid
+     */
+    private static int appendHost(String url, int start, StringBuilder out) {
+        if (start < url.length() && url.charAt(start) == '[') {
+            return appendIpv6Host(url, start, out);
+        }
+        int hostStart = out.length();
+        int labelLength = 0;
+        int labels = 0;
+        char previous = '.';
+        int i = start;
+        for (; i < url.length(); i++) {
+            char c = url.charAt(i);
+            if (c == '/' || c == '?' || c == '#' || c == ':') {
+                break;
+            }
+            if (c >= 0x80) {
+                out.setLength(hostStart);
+                return appendIdnHost(url, start, out);
+            }
+            if (c == '.') {
+                if (labelLength == 0 || previous == '-') {
+                    return -1;
+                }
+                labelLength = 0;
+            } else if (isAlpha(c) || isDigit(c) || (c == '-' && labelLength > 0)) {
+                if (labelLength++ == 0) {
+                    labels++;
+                }
+                if (labelLength > MAX_LABEL_LENGTH) {
+                    return -1;
+                }
+                c = Character.toLowerCase(c);
+            } else {
+                return -1;
+            }
+            out.append(c);
+            previous = c;
+        }
+        if (previous == '-') {
+            return -1;
+        }
+        if (previous == '.' && out.length() > hostStart) {
+            out.setLength(out.length() - 1);
+        }
+        int hostLength = out.length() - hostStart;
+        return labels >= 2 && hostLength <= MAX_HOST_LENGTH ? i : -1;
+    }
+
+    private static int appendIdnHost(String url, int start, StringBuilder out) {
+        int end = start;
+        while (end < url.length() && "/?#:".indexOf(url.charAt(end)) < 0) {
+            end++;
+        }
+        String asciiHost;
+        try {
+            asciiHost = IDN.toASCII(url.substring(start, end), IDN.USE_STD3_ASCII_RULES);
+        } catch (IllegalArgumentException e) {
+            return -1;
+        }
+        if (asciiHost.isEmpty() || appendHost(asciiHost, 0, out) != asciiHost.length()) {
+            return -1;
+        }
+        return end;
+    }
+
+    private static int appendIpv6Host(String url, int start, StringBuilder out) {
+        int hostStart = out.length();
+        boolean colon = false;
+        out.append('[');
+        for (int i = start + 1; i < url.length(); i++) {
+            char c = url.charAt(i);
+            if (c == ']') {
+                if (!colon) {
+                    return -1;
+                }
+                out.append(']');
+                return i + 1;
+            }
+            if (c == ':') {
+                colon = true;
+            } else if (!isHex(c) && c != '.') {
+                out.setLength(hostStart);
+                return -1;
+            }
+            out.append(Character.toLowerCase(c));
+        }
+        return -1;
+    }
+
+    /**
+     * @return the index just past the port, or -1 when the port is invalid
+     */
+    private static int appendPort(String url, int start, int defaultPort, StringBuilder out) {
+        int port = 0;
+        int i = start;
+        for (; i < url.length() && isDigit(url.charAt(i)); i++) {
+            port = port * 10 + (url.charAt(i) - '0');
+            if (port > 65_535) {
+                return -1;
+            }
+        }
+        if (i < url.length() && "/?#".indexOf(url.charAt(i)) < 0) {
+            return -1;
+        }
+        if (i > start && port == 0) {
+            return -1;
+        }
+        if (i > start && port != defaultPort) {
+            out.append(':').append(port);
+        }
+        return i;
+    }
+
+    private static boolean appendPathQueryFragment(String url, int start, StringBuilder out) {
+        boolean fragment = false;
+        for (int i = start; i < url.length(); i++) {
+            char c = url.charAt(i);
+            if (c == '%') {
+                if (i + 2 >= url.length() || !isHex(url.charAt(i + 1)) || !isHex(url.charAt(i + 2))) {
+                    return false;
+                }
+                char decoded = (char) (Character.digit(url.charAt(i + 1), 16) << 4 | Character.digit(url.charAt(i + 2), 16));
+                if (isUnreserved(decoded)) {
+                    out.append(decoded);
+                } else {
+                    out.append('%').append(HEX[decoded >> 4]).append(HEX[decoded & 0xF]);
+                }
+                i += 2;
+            } else if (c == '#') {
+                if (fragment) {
+                    return false;
+                }
+                fragment = true;
+                out.append(c);
+            } else if (c >= 0x80) {
+                int codePoint = url.codePointAt(i);
+                if (Character.isSurrogate(c) && !Character.isSupplementaryCodePoint(codePoint)) {
+                    return false;
+                }
+                appendUtf8(codePoint, out);
+                i += Character.charCount(codePoint) - 1;
+            } else if (isUnreserved(c) || isSubDelimiter(c) || c == ':' || c == '@' || c == '/' || c == '?') {
+                out.append(c);
+            } else {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void appendUtf8(int codePoint, StringBuilder out) {
+        if (codePoint < 0x800) {
+            appendEncoded(0xC0 | codePoint >> 6, out);
+        } else if (codePoint < 0x10000) {
+            appendEncoded(0xE0 | codePoint >> 12, out);
+            appendEncoded(0x80 | (codePoint >> 6 & 0x3F), out);
+        } else {
+            appendEncoded(0xF0 | codePoint >> 18, out);
+            appendEncoded(0x80 | (codePoint >> 12 & 0x3F), out);
+            appendEncoded(0x80 | (codePoint >> 6 & 0x3F), out);
+        }
+        appendEncoded(0x80 | (codePoint & 0x3F), out);
+    }
+
+    private static void appendEncoded(int b, StringBuilder out) {
+        out.append('%').append(HEX[b >> 4]).append(HEX[b & 0xF]);
+    }
+
+    private static boolean isAlpha(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean isHex(char c) {
+        return isDigit(c) || (c >= 'a' && c <= 'f') || (c >= 'A' && c <= 'F');
+    }
+
+    private static boolean isUnreserved(char c) {
+        return isAlpha(c) || isDigit(c) || c == '-' || c == '.' || c == '_' || c == '~';
+    }
+
+    private static boolean isSubDelimiter(char c) {
+        return c == '!' || c == '$' || c == '&' || c == '\'' || c == '(' || c == ')'
+                || c == '*' || c == '+' || c == ',' || c == ';' || c == '=';
+    }
+}
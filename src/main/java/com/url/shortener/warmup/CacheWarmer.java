@@ -0,0 +1,158 @@
+package com.url.shortener.warmup;
+
+import com.url.shortener.cache.TwoTierCache;
+import com.url.shortener.cache.TwoTierCacheManager;
+import com.url.shortener.repository.UrlMappingView;
+import com.url.shortener.service.UrlService;
+import com.url.shortener.store.UrlMapping;
+import com.url.shortener.store.UrlMappingStore;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Fills the resolve cache before the node reports ready: application runners complete before Spring Boot switches
+ * readiness to accepting traffic. The short urls listed in the snapshot file, written at shutdown from the hottest
+ * near cache entries, are loaded first; the rest of the budget goes to the most recently created live urls. Urls
+ * are read page by page, so memory use is bounded by the page size whatever the budget.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "shortener.warmup.enabled", havingValue = "true", matchIfMissing = true)
+public class CacheWarmer implements ApplicationRunner {
+
+    private final UrlMappingStore urlMappingStore;
+
+    private final CacheManager cacheManager;
+
+    private final int maxEntries;
+
+    private final int pageSize;
+
+    private final Path snapshotFile;
+
+    public CacheWarmer(UrlMappingStore urlMappingStore, CacheManager cacheManager,
+                       @Value("${shortener.warmup.max-entries:10000}") int maxEntries,
+                       @Value("${shortener.warmup.page-size:1000}") int pageSize,
+                       @Value("${shortener.warmup.snapshot-file:}") String snapshotFile) {
+        this.urlMappingStore = urlMappingStore;
+        this.cacheManager = cacheManager;
+        this.maxEntries = maxEntries;
+        this.pageSize = pageSize;
+        this.snapshotFile = snapshotFile.isEmpty() ? null : Path.of(snapshotFile);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        long started = System.currentTimeMillis();
+        try {
+            int warmed = warmUp(LocalDate.now());
+            log.info("Warmed the resolve cache with {} urls in {} ms", warmed, System.currentTimeMillis() - started);
+        } catch (Exception e) {
+            log.warn("Could not warm the resolve cache, starting cold", e);
+        }
+    }
+
+    int warmUp(LocalDate today) throws IOException {
+        Cache cache = cacheManager.getCache(UrlService.URL_MAPPING_CACHE);
+        Set<String> warmed = new HashSet<>();
+        warmSnapshot(cache, today, warmed);
+        BigInteger before = BigInteger.valueOf(Long.MAX_VALUE);
+        while (warmed.size() < maxEntries) {
+            List<UrlMappingView> page = urlMappingStore.findRecentLiveMappings(before, today,
+                    Math.min(pageSize, maxEntries - warmed.size()));
+            if (page.isEmpty()) {
+                break;
+            }
+            putAll(cache, page, warmed);
+            before = page.get(page.size() - 1).getId();
+        }
+        return warmed.size();
+    }
+
+    private void putAll(Cache cache, List<UrlMappingView> urls, Set<String> warmed) {
+        for (UrlMappingView url : urls) {
+            if (warmed.size() < maxEntries && warmed.add(url.getShortUrl())) {
+                cache.put(url.getShortUrl(), new UrlMapping(url.getLongUrl(), url.getExpirationDate()));
+            }
+        }
+    }
+
+    /**
+     * Looks up and caches the snapshot's short urls a page at a time, as the file is read.
+     */
+    private void warmSnapshot(Cache cache, LocalDate today, Set<String> warmed) throws IOException {
+        if (snapshotFile == null || !Files.exists(snapshotFile)) {
+            return;
+        }
+        try (BufferedReader reader = Files.newBufferedReader(snapshotFile, StandardCharsets.UTF_8)) {
+            List<String> page = new ArrayList<>(pageSize);
+            int read = 0;
+            String line;
+            while (read < maxEntries && (line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                page.add(line.strip());
+                read++;
+                if (page.size() == pageSize) {
+                    putAll(cache, urlMappingStore.findLiveMappings(page, today), warmed);
+                    page = new ArrayList<>(pageSize);
+                }
+            }
+            if (!page.isEmpty()) {
+                putAll(cache, urlMappingStore.findLiveMappings(page, today), warmed);
+            }
+        }
+    }
+
+    /**
+     * Writes the hottest short urls of the near cache to the snapshot file, replacing it atomically.
+     */
+    @PreDestroy
+    public void writeSnapshot() {
+        if (snapshotFile == null || !(cacheManager instanceof TwoTierCacheManager twoTierCacheManager)) {
+            return;
+        }
+        TwoTierCache cache = twoTierCacheManager.getLocalCache(UrlService.URL_MAPPING_CACHE);
+        if (cache == null) {
+            return;
+        }
+        try {
+            Path directory = snapshotFile.toAbsolutePath().getParent();
+            Files.createDirectories(directory);
+            Path temporary = Files.createTempFile(directory, snapshotFile.getFileName().toString(), ".tmp");
+            List<Object> keys = cache.hottestLocalKeys(maxEntries);
+            try (BufferedWriter writer = Files.newBufferedWriter(temporary, StandardCharsets.UTF_8)) {
+                for (Object key : keys) {
+                    writer.write(key.toString());
+                    writer.newLine();
+                }
+            }
+            Files.move(temporary, snapshotFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            log.info("Wrote {} hot short urls to {}", keys.size(), snapshotFile);
+        } catch (IOException e) {
+            log.warn("Could not write the cache warm-up snapshot {}", snapshotFile, e);
+        }
+    }
+}
@@ -0,0 +1,12 @@
+-- The url table on shards other than the primary, matching the columns Hibernate creates for Url.
+-- Sharded writes assign ids themselves, so no sequence is needed.
+create table if not exists url (
+    id numeric(38, 0) not null primary key,
+    "expiration-date" date,
+    "long-url" varchar(100),
+    "long-url-hash" bigint,
+    "short-url" varchar(7) unique,
+    "source-ip" varchar(15)
+);
+create index if not exists url_expiration_date_idx on url ("expiration-date");
+create index if not exists url_long_url_hash_idx on url ("long-url-hash");
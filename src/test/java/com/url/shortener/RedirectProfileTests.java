@@ -0,0 +1,26 @@
+package com.url.shortener;
+
+import com.url.shortener.controller.ReactiveUrlResolverController;
+import com.url.shortener.controller.UrlController;
+import com.url.shortener.controller.UrlResolverController;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {"spring.profiles.active=redirect", "spring.main.web-application-type=reactive"})
+class RedirectProfileTests {
+
+	@Autowired
+	private ApplicationContext context;
+
+	@Test
+	void onlyTheReactiveResolverIsMapped() {
+		assertEquals(1, context.getBeanNamesForType(ReactiveUrlResolverController.class).length);
+		assertEquals(0, context.getBeanNamesForType(UrlResolverController.class).length);
+		assertEquals(0, context.getBeanNamesForType(UrlController.class).length);
+	}
+
+}
@@ -0,0 +1,88 @@
+package com.url.shortener.analytics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ClickCounterTest {
+
+    @Test
+    public void testDrain_CountsPerWindowMinute() {
+        AtomicLong now = new AtomicLong(TimeUnit.MINUTES.toMillis(100));
+        ClickCounter counter = new ClickCounter(now::get, 100);
+        counter.record("abcdefg");
+        counter.record("abcdefg");
+        counter.record("hijklmn");
+
+        now.set(TimeUnit.MINUTES.toMillis(101));
+        List<ClickCounter.ClickDelta> deltas = counter.drain();
+
+        assertEquals(2, deltas.size());
+        assertTrue(deltas.contains(new ClickCounter.ClickDelta("abcdefg", 100, 2)));
+        assertTrue(deltas.contains(new ClickCounter.ClickDelta("hijklmn", 100, 1)));
+
+        counter.record("abcdefg");
+        assertEquals(List.of(new ClickCounter.ClickDelta("abcdefg", 101, 1)), counter.drain());
+        assertTrue(counter.drain().isEmpty());
+    }
+
+    @Test
+    public void testRestore_ReturnedByNextDrain() {
+        ClickCounter counter = new ClickCounter(() -> 0, 100);
+        counter.record("abcdefg");
+        List<ClickCounter.ClickDelta> deltas = counter.drain();
+
+        counter.restore(deltas);
+
+        assertEquals(deltas, counter.drain());
+    }
+
+    @Test
+    public void testRestore_MergedWithLiveCounts() {
+        ClickCounter counter = new ClickCounter(() -> 0, 100);
+        counter.record("abcdefg");
+        counter.restore(counter.drain());
+        counter.record("abcdefg");
+        counter.restore(counter.drain());
+        counter.record("abcdefg");
+
+        assertEquals(List.of(new ClickCounter.ClickDelta("abcdefg", 0, 3)), counter.drain());
+    }
+
+    @Test
+    public void testRestore_BacklogCapped() {
+        ClickCounter counter = new ClickCounter(() -> 0, 1);
+        counter.record("abcdefg");
+        counter.record("hijklmn");
+        counter.record("hijklmn");
+
+        counter.restore(counter.drain());
+
+        List<ClickCounter.ClickDelta> kept = counter.drain();
+        assertEquals(1, kept.size());
+        assertEquals(3, kept.get(0).clicks() + counter.droppedClicks());
+    }
+
+    @Test
+    public void testRecord_Concurrent() throws InterruptedException {
+        ClickCounter counter = new ClickCounter(() -> 0, 100);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 8; i++) {
+            executor.submit(() -> {
+                for (int j = 0; j < 10_000; j++) {
+                    counter.record("abcdefg");
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(List.of(new ClickCounter.ClickDelta("abcdefg", 0, 80_000)), counter.drain());
+    }
+}
@@ -0,0 +1,78 @@
+package com.url.shortener.cache;
+
+import com.url.shortener.serialization.CompactRedisSerializer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheWriter;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+public class EarlyRefreshRedisCacheTest {
+
+    private static final byte[] LONG_URL = "https://example.com".getBytes(StandardCharsets.UTF_8);
+
+    private StringRedisTemplate redisTemplate;
+
+    private RedisCacheConfiguration configuration;
+
+    @BeforeEach
+    public void setUp() {
+        redisTemplate = mock(StringRedisTemplate.class);
+        configuration = RedisCacheConfiguration.defaultCacheConfig()
+                .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(new CompactRedisSerializer(false)));
+    }
+
+    @Test
+    public void testGet_FreshEntry() {
+        scriptReturns(LONG_URL, Duration.ofMinutes(30).toMillis());
+
+        assertEquals("https://example.com", cache(0.5).get("abc", String.class));
+    }
+
+    @Test
+    public void testGet_EntryCloseToExpiryRefreshedEarly() {
+        scriptReturns(LONG_URL, Duration.ofSeconds(10).toMillis());
+
+        // -60s * ln(0.5) is about 41s, more than the remaining 10s
+        assertNull(cache(0.5).get("abc"));
+        // -60s * ln(0.99) is about 0.6s
+        assertEquals("https://example.com", cache(0.99).get("abc", String.class));
+    }
+
+    @Test
+    public void testGetWithoutEarlyRefresh_EntryCloseToExpiry() {
+        scriptReturns(LONG_URL, Duration.ofSeconds(10).toMillis());
+
+        assertEquals("https://example.com", cache(0.5).getWithoutEarlyRefresh("abc").get());
+    }
+
+    @Test
+    public void testGet_Missing() {
+        scriptReturns(null, -2L);
+
+        assertNull(cache(0.5).get("abc"));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void scriptReturns(byte[] value, long ttl) {
+        when(redisTemplate.execute(any(RedisScript.class), any(RedisSerializer.class), any(RedisSerializer.class), anyList()))
+                .thenReturn(Arrays.asList(value, ttl));
+    }
+
+    private EarlyRefreshRedisCache cache(double random) {
+        return new EarlyRefreshRedisCache("longUrl", mock(RedisCacheWriter.class), configuration, redisTemplate,
+                Duration.ofMinutes(1), () -> random);
+    }
+}
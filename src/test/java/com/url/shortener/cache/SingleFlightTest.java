@@ -0,0 +1,64 @@
+package com.url.shortener.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SingleFlightTest {
+
+    private final SingleFlight<String, String> singleFlight = new SingleFlight<>();
+
+    @Test
+    public void testLoad_ConcurrentCallersShareOneLoad() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<String>> results = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            results.add(executor.submit(() -> singleFlight.load("abc", key -> {
+                loads.incrementAndGet();
+                await(release);
+                return "https://example.com";
+            })));
+        }
+        Thread.sleep(200);
+        release.countDown();
+
+        for (Future<String> result : results) {
+            assertEquals("https://example.com", result.get(5, TimeUnit.SECONDS));
+        }
+        executor.shutdown();
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    public void testLoad_NotRememberedAfterCompletion() {
+        assertEquals("first", singleFlight.load("abc", key -> "first"));
+        assertEquals("second", singleFlight.load("abc", key -> "second"));
+    }
+
+    @Test
+    public void testLoad_ExceptionPropagated() {
+        assertThrows(IllegalStateException.class, () -> singleFlight.load("abc", key -> {
+            throw new IllegalStateException();
+        }));
+        assertEquals("https://example.com", singleFlight.load("abc", key -> "https://example.com"));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.url.shortener.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.url.shortener.hotkey.HotKeyTracker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class TwoTierCacheTest {
+
+    private ConcurrentMapCache remote;
+
+    private CacheInvalidationPublisher publisher;
+
+    private TwoTierCache cache;
+
+    @BeforeEach
+    public void setUp() {
+        remote = new ConcurrentMapCache("longUrl", false);
+        publisher = mock(CacheInvalidationPublisher.class);
+        cache = new TwoTierCache("longUrl", Caffeine.newBuilder().maximumSize(10).recordStats().build(), remote, publisher);
+    }
+
+    @Test
+    public void testGet_RemoteHitIsKeptLocally() {
+        remote.put("abc", "https://example.com");
+
+        assertEquals("https://example.com", cache.get("abc", String.class));
+        remote.evict("abc");
+        assertEquals("https://example.com", cache.get("abc", String.class));
+
+        assertEquals(1, cache.localStats().hits());
+        assertEquals(1, cache.remoteStats().hits());
+    }
+
+    @Test
+    public void testGet_MissInBothTiers() {
+        assertNull(cache.get("abc"));
+
+        assertEquals(1, cache.localStats().misses());
+        assertEquals(1, cache.remoteStats().misses());
+    }
+
+    @Test
+    public void testBindTo_RegistersTierCounters() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        TwoTierCacheManager cacheManager = new TwoTierCacheManager(new ConcurrentMapCacheManager(), publisher, 10, Duration.ofMinutes(1));
+        cacheManager.bindTo(registry);
+        Cache created = cacheManager.getCache("longUrl");
+
+        created.put("abc", "https://example.com");
+        created.get("abc");
+        created.get("def");
+
+        assertEquals(1, registry.get("cache.tier.gets").tags("cache", "longUrl", "tier", "local", "result", "hit").functionCounter().count());
+        assertEquals(1, registry.get("cache.tier.gets").tags("cache", "longUrl", "tier", "local", "result", "miss").functionCounter().count());
+        assertEquals(1, registry.get("cache.tier.gets").tags("cache", "longUrl", "tier", "remote", "result", "miss").functionCounter().count());
+        assertEquals(1, registry.get("cache.tier.size").gauge().value());
+    }
+
+    @Test
+    public void testPut_WritesBothTiers() {
+        cache.put("abc", "https://example.com");
+
+        assertEquals("https://example.com", remote.get("abc", String.class));
+        assertEquals("https://example.com", cache.get("abc", String.class));
+        assertEquals(0, cache.remoteStats().hits());
+    }
+
+    @Test
+    public void testEvict_BroadcastsInvalidation() {
+        cache.put("abc", "https://example.com");
+
+        cache.evict("abc");
+
+        assertNull(remote.get("abc"));
+        assertNull(cache.get("abc"));
+        verify(publisher, times(1)).publishEvict("longUrl", "abc");
+    }
+
+    @Test
+    public void testEvictLocal_KeepsRemoteEntry() {
+        cache.put("abc", "https://example.com");
+
+        cache.evictLocal("abc");
+
+        assertEquals("https://example.com", cache.get("abc", String.class));
+        assertEquals(1, cache.remoteStats().hits());
+        verifyNoInteractions(publisher);
+    }
+
+    @Test
+    public void testGetWithLoader_NullNotCached() {
+        assertNull(cache.get("abc", () -> null));
+        assertNull(remote.get("abc"));
+        assertEquals("https://example.com", cache.get("abc", () -> "https://example.com"));
+        assertEquals("https://example.com", remote.get("abc", String.class));
+    }
+
+    @Test
+    public void testRefreshPinned_HotKeysServedWithoutRemoteCalls() {
+        cache = new TwoTierCache("longUrl", Caffeine.newBuilder().maximumSize(10).recordStats().build(), remote, publisher,
+                new HotKeyTracker(10, 5, 1024, 4));
+        remote.put("abc", "https://example.com");
+        for (int i = 0; i < 5; i++) {
+            cache.get("abc");
+        }
+
+        cache.refreshPinned();
+        cache.clearLocal();
+        cache.refreshPinned();
+        remote.put("abc", "https://example.org");
+        cache.refreshPinned();
+
+        assertEquals("https://example.org", cache.get("abc", String.class));
+        assertEquals(1, cache.remoteStats().hits());
+        assertTrue(cache.hotKeys().get(0).pinned());
+    }
+
+    @Test
+    public void testRefreshPinned_IgnoresEarlyRefreshMisses() {
+        EarlyRefreshRedisCache earlyRefreshCache = mock(EarlyRefreshRedisCache.class);
+        when(earlyRefreshCache.getWithoutEarlyRefresh("abc")).thenReturn(new SimpleValueWrapper("https://example.com"));
+        cache = new TwoTierCache("longUrl", Caffeine.newBuilder().maximumSize(10).recordStats().build(), earlyRefreshCache,
+                publisher, new HotKeyTracker(10, 1, 1024, 4));
+        cache.put("abc", "https://example.com");
+        cache.get("abc");
+
+        cache.refreshPinned();
+
+        assertTrue(cache.hotKeys().get(0).pinned());
+        verify(earlyRefreshCache, never()).get("abc");
+    }
+
+    @Test
+    public void testEvictLocal_UnpinsHotKey() {
+        cache = new TwoTierCache("longUrl", Caffeine.newBuilder().maximumSize(10).recordStats().build(), remote, publisher,
+                new HotKeyTracker(10, 1, 1024, 4));
+        remote.put("abc", "https://example.com");
+        cache.get("abc");
+        cache.refreshPinned();
+
+        cache.evictLocal("abc");
+        remote.evict("abc");
+
+        assertNull(cache.get("abc"));
+        assertFalse(cache.hotKeys().get(0).pinned());
+    }
+}
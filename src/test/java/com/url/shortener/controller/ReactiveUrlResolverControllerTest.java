@@ -0,0 +1,61 @@
+package com.url.shortener.controller;
+
+import com.url.shortener.analytics.ClickAnalytics;
+import com.url.shortener.redirect.RedirectPolicy;
+import com.url.shortener.service.ReactiveUrlResolver;
+import com.url.shortener.store.UrlMapping;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.*;
+
+public class ReactiveUrlResolverControllerTest {
+
+    @Mock
+    private ReactiveUrlResolver urlResolver;
+
+    @Mock
+    private ClickAnalytics clickAnalytics;
+
+    @Spy
+    private RedirectPolicy redirectPolicy = new RedirectPolicy(301, Duration.ofDays(1));
+
+    @InjectMocks
+    private ReactiveUrlResolverController urlResolverController;
+
+    @BeforeEach
+    public void setUp() {
+        MockitoAnnotations.initMocks(this);
+    }
+
+    @Test
+    public void testGetOriginalUrl_ExistingUrl() {
+        when(urlResolver.resolve("abc")).thenReturn(Mono.just(new UrlMapping("https://example.com", LocalDate.now().plusDays(1))));
+
+        ResponseEntity<Object> responseEntity = urlResolverController.getOriginalUrl("abc", new HttpHeaders()).block();
+        assertEquals(HttpStatus.MOVED_PERMANENTLY, responseEntity.getStatusCode());
+        assertEquals("https://example.com", responseEntity.getHeaders().getLocation().toString());
+        verify(clickAnalytics, times(1)).record("abc");
+    }
+
+    @Test
+    public void testGetOriginalUrl_NonExistingUrl() {
+        when(urlResolver.resolve("non_existing_url")).thenReturn(Mono.empty());
+
+        ResponseEntity<Object> responseEntity = urlResolverController.getOriginalUrl("non_existing_url", new HttpHeaders()).block();
+        assertEquals(HttpStatus.NOT_FOUND, responseEntity.getStatusCode());
+        verify(clickAnalytics, never()).record(anyString());
+    }
+}
@@ -1,4 +1,6 @@
 package com.url.shortener.controller;
+import com.url.shortener.exception.ServiceUnavailableException;
+import com.url.shortener.ratelimit.ConcurrencyLimiter;
 import com.url.shortener.request.UrlRequest;
 import com.url.shortener.service.UrlService;
 import jakarta.servlet.http.HttpServletRequest;
@@ -22,6 +24,9 @@ public class UrlControllerTest {
     @Mock
     private UrlService urlService;
 
+    @Mock
+    private ConcurrencyLimiter concurrencyLimiter;
+
     @InjectMocks
     private UrlController urlController;
 
@@ -83,4 +88,27 @@ public class UrlControllerTest {
         assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, responseEntity.getStatusCode());
         assertEquals("Internal Server Error", responseEntity.getBody());
     }
+
+    @Test
+    public void testGenerateShortUrl_Overloaded_ServiceUnavailable() throws Exception {
+        UrlRequest urlRequest = new UrlRequest("https://example.com");
+
+        when(urlService.isValidURL(urlRequest)).thenReturn(true);
+        when(urlService.shortenURL(urlRequest.getLongUrl(), request.getRemoteAddr())).thenThrow(new ServiceUnavailableException("Busy"));
+        ResponseEntity<String> responseEntity = urlController.generateShortUrl(urlRequest);
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, responseEntity.getStatusCode());
+        assertEquals("Busy", responseEntity.getBody());
+    }
+
+    @Test
+    public void testGenerateShortUrl_TooManyConcurrentCreates_ServiceUnavailable() throws Exception {
+        UrlRequest urlRequest = new UrlRequest("https://example.com");
+
+        when(urlService.isValidURL(urlRequest)).thenReturn(true);
+        doThrow(new ServiceUnavailableException("Busy")).when(concurrencyLimiter).acquire();
+        ResponseEntity<String> responseEntity = urlController.generateShortUrl(urlRequest);
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, responseEntity.getStatusCode());
+        verify(urlService, never()).shortenURL(anyString(), any());
+        verify(concurrencyLimiter, never()).release();
+    }
 }
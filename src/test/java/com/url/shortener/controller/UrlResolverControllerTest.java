@@ -1,14 +1,22 @@
 package com.url.shortener.controller;
+import com.url.shortener.analytics.ClickAnalytics;
+import com.url.shortener.index.UrlIndex;
+import com.url.shortener.redirect.RedirectPolicy;
 import com.url.shortener.service.UrlService;
+import com.url.shortener.store.UrlMapping;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 
 import java.net.URI;
+import java.time.Duration;
+import java.time.LocalDate;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.Mockito.*;
@@ -18,6 +26,15 @@ public class UrlResolverControllerTest {
     @Mock
     private UrlService urlService;
 
+    @Mock
+    private ClickAnalytics clickAnalytics;
+
+    @Mock
+    private UrlIndex urlIndex;
+
+    @Spy
+    private RedirectPolicy redirectPolicy = new RedirectPolicy(301, Duration.ofDays(1));
+
     @InjectMocks
     private UrlResolverController urlResolverController;
 
@@ -31,21 +48,41 @@ public class UrlResolverControllerTest {
         String shortUrl = "abc";
         String longUrl = "https://example.com";
 
-        when(urlService.getOriginalUrl(shortUrl)).thenReturn(longUrl);
-        ResponseEntity<Object> responseEntity = urlResolverController.getOriginalUrl(shortUrl);
+        when(urlService.resolve(shortUrl)).thenReturn(new UrlMapping(longUrl, LocalDate.now().plusDays(1)));
+        ResponseEntity<Object> responseEntity = urlResolverController.getOriginalUrl(shortUrl, new HttpHeaders());
         assertEquals(HttpStatus.MOVED_PERMANENTLY, responseEntity.getStatusCode());
         URI location = responseEntity.getHeaders().getLocation();
         assertEquals(longUrl, location.toString());
 
-        verify(urlService, times(1)).getOriginalUrl(shortUrl);
+        verify(urlService, times(1)).resolve(shortUrl);
+        verify(clickAnalytics, times(1)).record(shortUrl);
     }
 
     @Test
     public void testGetOriginalUrl_NonExistingUrl() {
         String shortUrl = "non_existing_url";
-        when(urlService.getOriginalUrl(shortUrl)).thenReturn(null);
-        ResponseEntity<Object> responseEntity = urlResolverController.getOriginalUrl(shortUrl);
+        when(urlService.resolve(shortUrl)).thenReturn(null);
+        ResponseEntity<Object> responseEntity = urlResolverController.getOriginalUrl(shortUrl, new HttpHeaders());
         assertEquals(HttpStatus.NOT_FOUND, responseEntity.getStatusCode());
-        verify(urlService, times(1)).getOriginalUrl(shortUrl);
+        verify(urlService, times(1)).resolve(shortUrl);
+        verify(clickAnalytics, never()).record(anyString());
+    }
+
+    @Test
+    public void testGetOriginalUrl_CachedMappingExpired() {
+        when(urlService.resolve("abc")).thenReturn(new UrlMapping("https://example.com", LocalDate.now().minusDays(1)));
+
+        ResponseEntity<Object> responseEntity = urlResolverController.getOriginalUrl("abc", new HttpHeaders());
+        assertEquals(HttpStatus.NOT_FOUND, responseEntity.getStatusCode());
+        verify(clickAnalytics, never()).record(anyString());
+    }
+
+    @Test
+    public void testGetOriginalUrl_IndexedUrl() {
+        when(urlIndex.find("abc")).thenReturn(new UrlMapping("https://example.com", LocalDate.now().plusDays(1)));
+
+        ResponseEntity<Object> responseEntity = urlResolverController.getOriginalUrl("abc", new HttpHeaders());
+        assertEquals(HttpStatus.MOVED_PERMANENTLY, responseEntity.getStatusCode());
+        verifyNoInteractions(urlService);
     }
 }
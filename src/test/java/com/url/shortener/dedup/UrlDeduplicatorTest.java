@@ -0,0 +1,94 @@
+package com.url.shortener.dedup;
+
+import com.url.shortener.entity.Url;
+import com.url.shortener.repository.UrlRepository;
+import com.url.shortener.store.JpaUrlMappingStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.data.domain.Limit;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class UrlDeduplicatorTest {
+
+    @Mock
+    private UrlRepository urlRepository;
+
+    private UrlDeduplicator urlDeduplicator;
+
+    @BeforeEach
+    public void setUp() {
+        MockitoAnnotations.initMocks(this);
+        urlDeduplicator = new UrlDeduplicator(new JpaUrlMappingStore(urlRepository), new ConcurrentMapCacheManager(), true, "global");
+    }
+
+    @Test
+    public void testFingerprint_Disabled() {
+        urlDeduplicator = new UrlDeduplicator(new JpaUrlMappingStore(urlRepository), new ConcurrentMapCacheManager(), false, "global");
+
+        assertNull(urlDeduplicator.fingerprint("https://example.com/", "127.0.0.1"));
+    }
+
+    @Test
+    public void testFingerprint_Scope() {
+        assertEquals(urlDeduplicator.fingerprint("https://example.com/", "127.0.0.1"),
+                urlDeduplicator.fingerprint("https://example.com/", "10.0.0.1"));
+
+        urlDeduplicator = new UrlDeduplicator(new JpaUrlMappingStore(urlRepository), new ConcurrentMapCacheManager(), true, "source");
+        assertNotEquals(urlDeduplicator.fingerprint("https://example.com/", "127.0.0.1").hash(),
+                urlDeduplicator.fingerprint("https://example.com/", "10.0.0.1").hash());
+    }
+
+    @Test
+    public void testFind_FromIndexThenCache() {
+        UrlDeduplicator.Fingerprint fingerprint = urlDeduplicator.fingerprint("https://example.com/", "127.0.0.1");
+        when(urlRepository.findReusableByLongUrlHash(eq(fingerprint.hash()), any(LocalDate.class), any()))
+                .thenReturn(List.of(url("abcdefg", "https://example.com/", fingerprint.hash())));
+
+        assertEquals("abcdefg", urlDeduplicator.find(fingerprint));
+        assertEquals("abcdefg", urlDeduplicator.find(fingerprint));
+        verify(urlRepository, times(1)).findReusableByLongUrlHash(anyLong(), any(LocalDate.class), any());
+    }
+
+    @Test
+    public void testFind_HashCollisionIgnored() {
+        UrlDeduplicator.Fingerprint fingerprint = urlDeduplicator.fingerprint("https://example.com/", "127.0.0.1");
+        when(urlRepository.findReusableByLongUrlHash(eq(fingerprint.hash()), any(LocalDate.class), any()))
+                .thenReturn(List.of(url("abcdefg", "https://other.com/", fingerprint.hash())));
+
+        assertNull(urlDeduplicator.find(fingerprint));
+    }
+
+    @Test
+    public void testFindAll_SingleQuery() {
+        UrlDeduplicator.Fingerprint a = urlDeduplicator.fingerprint("https://a.com/", "127.0.0.1");
+        UrlDeduplicator.Fingerprint b = urlDeduplicator.fingerprint("https://b.com/", "127.0.0.1");
+        UrlDeduplicator.Fingerprint c = urlDeduplicator.fingerprint("https://c.com/", "127.0.0.1");
+        urlDeduplicator.added(c, "ccccccc");
+        when(urlRepository.findReusableByLongUrlHashIn(anyCollection(), any(LocalDate.class), any()))
+                .thenReturn(List.of(url("aaaaaaa", "https://a.com/", a.hash())));
+
+        Map<UrlDeduplicator.Fingerprint, String> found = urlDeduplicator.findAll(List.of(a, b, c));
+
+        assertEquals(Map.of(a, "aaaaaaa", c, "ccccccc"), found);
+        verify(urlRepository, times(1)).findReusableByLongUrlHashIn(argThat(hashes -> hashes.size() == 2), any(LocalDate.class), eq(Limit.of(20)));
+    }
+
+    private Url url(String shortUrl, String longUrl, long hash) {
+        Url url = new Url();
+        url.setShortUrl(shortUrl);
+        url.setLongUrl(longUrl);
+        url.setLongUrlHash(hash);
+        url.setExpirationDate(LocalDate.now().plusDays(30));
+        return url;
+    }
+}
@@ -0,0 +1,143 @@
+package com.url.shortener.events;
+
+import com.url.shortener.entity.Url;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisStreamCommands;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class RedisStreamUrlEventPublisherTest {
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private RedisConnection connection;
+
+    @Mock
+    private RedisStreamCommands streamCommands;
+
+    private final List<List<MapRecord<byte[], byte[], byte[]>>> pipelines = new ArrayList<>();
+
+    private final List<RedisStreamCommands.XAddOptions> options = new ArrayList<>();
+
+    private boolean redisDown;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        MockitoAnnotations.initMocks(this);
+        when(connection.streamCommands()).thenReturn(streamCommands);
+        when(redisTemplate.executePipelined(any(RedisCallback.class))).thenAnswer(invocation -> {
+            if (redisDown) {
+                throw new RedisConnectionFailureException("down");
+            }
+            List<MapRecord<byte[], byte[], byte[]>> pipeline = new ArrayList<>();
+            when(streamCommands.xAdd(any(MapRecord.class), any(RedisStreamCommands.XAddOptions.class))).thenAnswer(add -> {
+                pipeline.add(add.getArgument(0));
+                options.add(add.getArgument(1));
+                return null;
+            });
+            invocation.<RedisCallback<Object>>getArgument(0).doInRedis(connection);
+            pipelines.add(pipeline);
+            return List.of();
+        });
+    }
+
+    @Test
+    public void testRun_RemovesLegacyList() {
+        RedisStreamUrlEventPublisher publisher = new RedisStreamUrlEventPublisher(redisTemplate, true, 1000, 100, 2);
+        when(redisTemplate.unlink("#shortUrl")).thenThrow(new RedisConnectionFailureException("down")).thenReturn(true);
+
+        publisher.run(null);
+        publisher.run(null);
+
+        verify(redisTemplate, times(2)).unlink("#shortUrl");
+    }
+
+    @Test
+    public void testFlush_SendsPipelinedBatchesWithTrimming() {
+        RedisStreamUrlEventPublisher publisher = new RedisStreamUrlEventPublisher(redisTemplate, true, 1000, 100, 2);
+
+        publisher.published(List.of(url("aaaaaaa"), url("bbbbbbb"), url("ccccccc")));
+        verifyNoInteractions(redisTemplate);
+        publisher.flush();
+
+        assertEquals(2, pipelines.size());
+        assertEquals(2, pipelines.get(0).size());
+        assertEquals(1, pipelines.get(1).size());
+        assertEquals(1000, options.get(0).getMaxlen());
+        assertTrue(options.get(0).isApproximateTrimming());
+        MapRecord<byte[], byte[], byte[]> first = pipelines.get(0).get(0);
+        assertEquals(RedisStreamUrlEventPublisher.STREAM_KEY, new String(first.getStream(), StandardCharsets.UTF_8));
+        assertEquals(Map.of("shortUrl", "aaaaaaa", "longUrl", "https://example.com/aaaaaaa",
+                "expirationDate", "2024-05-31", "sourceIp", "127.0.0.1"), strings(first.getValue()));
+        assertEquals(0, publisher.getPendingCount());
+    }
+
+    @Test
+    public void testFlush_FailedBatchIsSentAgain() {
+        RedisStreamUrlEventPublisher publisher = new RedisStreamUrlEventPublisher(redisTemplate, true, 1000, 100, 10);
+        publisher.published(List.of(url("aaaaaaa")));
+        redisDown = true;
+
+        publisher.flush();
+        assertEquals(1, publisher.getPendingCount());
+
+        redisDown = false;
+        publisher.flush();
+        assertEquals(1, pipelines.size());
+        assertEquals(0, publisher.getPendingCount());
+    }
+
+    @Test
+    public void testPublished_DropsEventsBeyondMaxPending() {
+        RedisStreamUrlEventPublisher publisher = new RedisStreamUrlEventPublisher(redisTemplate, true, 1000, 2, 10);
+
+        publisher.published(List.of(url("aaaaaaa"), url("bbbbbbb"), url("ccccccc")));
+
+        assertEquals(2, publisher.getPendingCount());
+    }
+
+    @Test
+    public void testPublished_Disabled() {
+        RedisStreamUrlEventPublisher publisher = new RedisStreamUrlEventPublisher(redisTemplate, false, 1000, 100, 10);
+
+        publisher.published(List.of(url("aaaaaaa")));
+        publisher.flush();
+
+        verifyNoInteractions(redisTemplate);
+    }
+
+    private static Map<String, String> strings(Map<byte[], byte[]> fields) {
+        Map<String, String> strings = new HashMap<>();
+        fields.forEach((field, value) -> strings.put(new String(field, StandardCharsets.UTF_8), new String(value, StandardCharsets.UTF_8)));
+        return strings;
+    }
+
+    private static Url url(String shortUrl) {
+        Url url = new Url();
+        url.setShortUrl(shortUrl);
+        url.setLongUrl("https://example.com/" + shortUrl);
+        url.setExpirationDate(LocalDate.of(2024, 5, 31));
+        url.setSourceIp("127.0.0.1");
+        return url;
+    }
+}
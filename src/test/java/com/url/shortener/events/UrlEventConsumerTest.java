@@ -0,0 +1,95 @@
+package com.url.shortener.events;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.redis.RedisSystemException;
+import org.springframework.data.redis.connection.stream.Consumer;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.connection.stream.ReadOffset;
+import org.springframework.data.redis.connection.stream.StreamOffset;
+import org.springframework.data.redis.connection.stream.StreamReadOptions;
+import org.springframework.data.redis.connection.stream.StreamRecords;
+import org.springframework.data.redis.core.StreamOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class UrlEventConsumerTest {
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private StreamOperations<String, Object, Object> streamOperations;
+
+    private UrlEventConsumer consumer;
+
+    @BeforeEach
+    public void setUp() {
+        MockitoAnnotations.initMocks(this);
+        when(redisTemplate.opsForStream()).thenReturn(streamOperations);
+        consumer = new UrlEventConsumer(redisTemplate);
+    }
+
+    @Test
+    public void testRead_NewEventsOfTheGroup() {
+        MapRecord<String, Object, Object> record = StreamRecords.newRecord()
+                .in(RedisStreamUrlEventPublisher.STREAM_KEY)
+                .withId("1-0")
+                .ofMap(Map.<Object, Object>of("shortUrl", "aaaaaaa", "longUrl", "https://example.com/", "expirationDate", "2024-05-31"));
+        when(streamOperations.read(eq(Consumer.from("indexer", "node-1")), any(StreamReadOptions.class),
+                eq(StreamOffset.create(RedisStreamUrlEventPublisher.STREAM_KEY, ReadOffset.lastConsumed()))))
+                .thenReturn(List.of(record));
+
+        List<UrlEvent> events = consumer.read("indexer", "node-1", 10, null);
+
+        assertEquals(List.of(new UrlEvent("1-0", "aaaaaaa", "https://example.com/", LocalDate.of(2024, 5, 31), null)), events);
+    }
+
+    @Test
+    public void testReadPending_ReadsFromTheStartOfThePendingList() {
+        consumer.readPending("indexer", "node-1", 10);
+
+        verify(streamOperations).read(eq(Consumer.from("indexer", "node-1")), any(StreamReadOptions.class),
+                eq(StreamOffset.create(RedisStreamUrlEventPublisher.STREAM_KEY, ReadOffset.from("0"))));
+    }
+
+    @Test
+    public void testCreateGroup_ExistingGroupIsKept() {
+        when(streamOperations.createGroup(RedisStreamUrlEventPublisher.STREAM_KEY, ReadOffset.latest(), "indexer"))
+                .thenThrow(new RedisSystemException("BUSYGROUP Consumer Group name already exists", null));
+
+        consumer.createGroup("indexer", false);
+    }
+
+    @Test
+    public void testAcknowledge() {
+        consumer.acknowledge("indexer", List.of("1-0", "2-0"));
+        consumer.acknowledge("indexer", List.of());
+
+        verify(streamOperations, times(1)).acknowledge(RedisStreamUrlEventPublisher.STREAM_KEY, "indexer", "1-0", "2-0");
+    }
+
+    @Test
+    public void testReadAfter_TailsWithoutAGroup() {
+        consumer.readAfter("5-0", 10);
+
+        verify(streamOperations).read(any(StreamReadOptions.class),
+                eq(StreamOffset.create(RedisStreamUrlEventPublisher.STREAM_KEY, ReadOffset.from("5-0"))));
+    }
+
+    @Test
+    public void testLastId_EmptyStream() {
+        when(streamOperations.reverseRange(eq(RedisStreamUrlEventPublisher.STREAM_KEY), any(), any())).thenReturn(List.of());
+
+        assertEquals(UrlEventConsumer.START, consumer.lastId());
+    }
+}
@@ -0,0 +1,115 @@
+package com.url.shortener.expiry;
+
+import com.url.shortener.analytics.ClickAnalytics;
+import com.url.shortener.cache.BulkCacheEvictor;
+import com.url.shortener.events.UrlEventPublisher;
+import com.url.shortener.filter.ShortUrlFilter;
+import com.url.shortener.persistence.DirectUrlWriter;
+import com.url.shortener.redirect.RedirectPurger;
+import com.url.shortener.repository.ShortUrlView;
+import com.url.shortener.repository.UrlRepository;
+import com.url.shortener.store.JpaUrlMappingStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+import java.math.BigInteger;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class UrlExpirySweeperTest {
+
+    @Mock
+    private UrlRepository urlRepository;
+
+    @Mock
+    private BulkCacheEvictor bulkCacheEvictor;
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private RedirectPurger redirectPurger;
+
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
+    @Mock
+    private HashOperations<String, Object, Object> hashOperations;
+
+    private ShortUrlFilter shortUrlFilter;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private UrlExpirySweeper sweeper;
+
+    @BeforeEach
+    public void setUp() {
+        MockitoAnnotations.initMocks(this);
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        doReturn(hashOperations).when(redisTemplate).opsForHash();
+        meterRegistry = new SimpleMeterRegistry();
+        shortUrlFilter = new ShortUrlFilter(new JpaUrlMappingStore(urlRepository), new DirectUrlWriter(urlRepository, UrlEventPublisher.NONE), redisTemplate, true, 1000, 0.01, 1000, Duration.ofSeconds(30));
+        ClickAnalytics clickAnalytics = new ClickAnalytics(redisTemplate, true, Duration.ofDays(7), 1000, meterRegistry);
+        sweeper = new UrlExpirySweeper(new JpaUrlMappingStore(urlRepository), bulkCacheEvictor, shortUrlFilter, clickAnalytics, redisTemplate, 2, 10, Duration.ofMinutes(5), Optional.of(redirectPurger), meterRegistry);
+    }
+
+    @Test
+    public void testSweep_DeletesInChunksAndEvicts() {
+        when(valueOperations.setIfAbsent(eq(UrlExpirySweeper.LEASE_KEY), anyString(), any(Duration.class))).thenReturn(true);
+        when(urlRepository.findExpiredShortUrls(any(), any()))
+                .thenReturn(List.of(view(1, "aaaaaaa"), view(2, "bbbbbbb")), List.of(view(3, "ccccccc")));
+
+        sweeper.sweep();
+
+        verify(urlRepository, times(2)).findExpiredShortUrls(any(), any());
+        verify(urlRepository).deleteByIdIn(List.of(BigInteger.ONE, BigInteger.TWO));
+        verify(urlRepository).deleteByIdIn(List.of(BigInteger.valueOf(3)));
+        verify(bulkCacheEvictor).evictAll("urlMapping", List.of("aaaaaaa", "bbbbbbb"));
+        verify(bulkCacheEvictor).evictAll("urlMapping", List.of("ccccccc"));
+        verify(hashOperations).delete(ClickAnalytics.TOTALS_KEY, "aaaaaaa", "bbbbbbb");
+        verify(hashOperations).delete(ClickAnalytics.TOTALS_KEY, "ccccccc");
+        InOrder afterLease = inOrder(redisTemplate, redirectPurger);
+        afterLease.verify(redisTemplate).execute(any(), eq(List.of(UrlExpirySweeper.LEASE_KEY)), any());
+        afterLease.verify(redirectPurger).purge(List.of("aaaaaaa", "bbbbbbb"));
+        afterLease.verify(redirectPurger).purge(List.of("ccccccc"));
+        assertFalse(shortUrlFilter.mightExist("aaaaaaa"));
+        assertEquals(3, meterRegistry.get("shortener.expiry.deleted").counter().count());
+        assertEquals(2, meterRegistry.get("shortener.expiry.chunk").timer().count());
+    }
+
+    @Test
+    public void testSweep_SkippedWithoutLease() {
+        when(valueOperations.setIfAbsent(eq(UrlExpirySweeper.LEASE_KEY), anyString(), any(Duration.class))).thenReturn(false);
+
+        sweeper.sweep();
+
+        verifyNoInteractions(urlRepository, bulkCacheEvictor, redirectPurger);
+    }
+
+    private static ShortUrlView view(long id, String shortUrl) {
+        return new ShortUrlView() {
+            @Override
+            public BigInteger getId() {
+                return BigInteger.valueOf(id);
+            }
+
+            @Override
+            public String getShortUrl() {
+                return shortUrl;
+            }
+        };
+    }
+}
@@ -0,0 +1,118 @@
+package com.url.shortener.filter;
+
+import com.url.shortener.persistence.UrlWriter;
+import com.url.shortener.repository.ShortUrlView;
+import com.url.shortener.repository.UrlRepository;
+import com.url.shortener.store.JpaUrlMappingStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.math.BigInteger;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class ShortUrlFilterTest {
+
+    @Mock
+    private UrlRepository urlRepository;
+
+    @Mock
+    private UrlWriter urlWriter;
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    private ShortUrlFilter shortUrlFilter;
+
+    @BeforeEach
+    public void setUp() {
+        MockitoAnnotations.initMocks(this);
+        shortUrlFilter = new ShortUrlFilter(new JpaUrlMappingStore(urlRepository), urlWriter, redisTemplate, true, 1000, 0.001, 1000, Duration.ofSeconds(30));
+    }
+
+    @Test
+    public void testMightExist_BeforeRebuild() {
+        assertTrue(shortUrlFilter.mightExist("abcdefg"));
+    }
+
+    @Test
+    public void testRebuild_UnknownCodesRejected() {
+        when(urlRepository.findLiveShortUrls(any(), any(), any())).thenReturn(List.of(view(1, "abcdefg"), view(2, "hijklmn")));
+
+        shortUrlFilter.rebuild();
+
+        assertTrue(shortUrlFilter.mightExist("abcdefg"));
+        assertTrue(shortUrlFilter.mightExist("hijklmn"));
+        assertFalse(shortUrlFilter.mightExist("zzzzzzz"));
+    }
+
+    @Test
+    public void testRebuild_KeepsCodesStillQueued() {
+        when(urlWriter.pendingShortUrls()).thenReturn(List.of("queued0"));
+        when(urlRepository.findLiveShortUrls(any(), any(), any())).thenReturn(List.of(view(1, "abcdefg")));
+
+        shortUrlFilter.rebuild();
+
+        assertTrue(shortUrlFilter.mightExist("abcdefg"));
+        assertTrue(shortUrlFilter.mightExist("queued0"));
+        assertFalse(shortUrlFilter.mightExist("zzzzzzz"));
+    }
+
+    @Test
+    public void testAdded_PublishesAndAccepts() {
+        when(urlRepository.findLiveShortUrls(any(), any(), any())).thenReturn(List.of());
+        shortUrlFilter.rebuild();
+
+        shortUrlFilter.added("abcdefg");
+
+        assertTrue(shortUrlFilter.mightExist("abcdefg"));
+        verify(redisTemplate, times(1)).convertAndSend(ShortUrlFilter.CHANNEL, "abcdefg");
+    }
+
+    @Test
+    public void testRemoved_RejectedUntilNegativeEntryExpires() {
+        shortUrlFilter.added("abcdefg");
+
+        shortUrlFilter.removed("abcdefg");
+
+        assertFalse(shortUrlFilter.mightExist("abcdefg"));
+    }
+
+    @Test
+    public void testBloomFilter_FalsePositiveRate() {
+        BloomFilter bloomFilter = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            bloomFilter.put("in" + i);
+        }
+        int falsePositives = 0;
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(bloomFilter.mightContain("in" + i));
+            if (bloomFilter.mightContain("out" + i)) {
+                falsePositives++;
+            }
+        }
+
+        assertTrue(falsePositives < 300, "false positives: " + falsePositives);
+    }
+
+    private static ShortUrlView view(long id, String shortUrl) {
+        return new ShortUrlView() {
+            @Override
+            public BigInteger getId() {
+                return BigInteger.valueOf(id);
+            }
+
+            @Override
+            public String getShortUrl() {
+                return shortUrl;
+            }
+        };
+    }
+}
@@ -0,0 +1,84 @@
+package com.url.shortener.generator;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RangeShortUrlGeneratorTest {
+
+    @Test
+    public void testNext_UniqueAcrossBlocks() {
+        AtomicLong nextId = new AtomicLong();
+        AtomicInteger leases = new AtomicInteger();
+        IdRangeAllocator allocator = size -> {
+            leases.incrementAndGet();
+            return nextId.getAndAdd(size);
+        };
+        RangeShortUrlGenerator generator = new RangeShortUrlGenerator(allocator, 100, 7);
+
+        Set<String> codes = new HashSet<>();
+        for (int i = 0; i < 1000; i++) {
+            String code = generator.next();
+            assertEquals(7, code.length());
+            assertTrue(code.chars().allMatch(Character::isLetterOrDigit));
+            codes.add(code);
+        }
+
+        assertEquals(1000, codes.size());
+        assertEquals(10, leases.get());
+        assertTrue(generator.isCollisionFree());
+    }
+
+    @Test
+    public void testNext_IdSpaceExhausted() {
+        RangeShortUrlGenerator generator = new RangeShortUrlGenerator(size -> Base62.capacity(7) - 1, 100, 7);
+
+        assertThrows(IllegalStateException.class, generator::next);
+    }
+
+    @Test
+    public void testEncode_Bijective() {
+        Set<String> codes = new HashSet<>();
+        for (long id = 0; id < Base62.capacity(3); id++) {
+            codes.add(Base62.encode(id, 3));
+        }
+
+        assertEquals(Base62.capacity(3), codes.size());
+    }
+
+    @Test
+    public void testEncode_MaxLengthDoesNotOverflow() {
+        long capacity = Base62.capacity(Base62.MAX_LENGTH);
+        Set<String> codes = new HashSet<>();
+        for (long id = capacity - 1000; id < capacity; id++) {
+            String code = Base62.encode(id, Base62.MAX_LENGTH);
+            assertEquals(Base62.MAX_LENGTH, code.length());
+            codes.add(code);
+        }
+        codes.add(Base62.encode(0, Base62.MAX_LENGTH));
+        codes.add(Base62.encode(capacity / 2, Base62.MAX_LENGTH));
+
+        assertEquals(1002, codes.size());
+        assertEquals(expected(capacity - 1, Base62.MAX_LENGTH), Base62.encode(capacity - 1, Base62.MAX_LENGTH));
+        assertEquals(expected(123_456_789, 7), Base62.encode(123_456_789, 7));
+        assertThrows(IllegalArgumentException.class, () -> Base62.capacity(Base62.MAX_LENGTH + 1));
+    }
+
+    private static String expected(long id, int length) {
+        BigInteger capacity = BigInteger.valueOf(Base62.capacity(length));
+        long value = BigInteger.valueOf(id).multiply(BigInteger.valueOf(2_376_589L)).add(BigInteger.valueOf(1_062_177_413L))
+                .mod(capacity).longValueExact();
+        char[] chars = new char[length];
+        for (int i = length - 1; i >= 0; i--) {
+            chars[i] = Base62.ALPHABET[(int) (value % 62)];
+            value /= 62;
+        }
+        return new String(chars);
+    }
+}
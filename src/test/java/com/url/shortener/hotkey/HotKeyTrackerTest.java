@@ -0,0 +1,56 @@
+package com.url.shortener.hotkey;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HotKeyTrackerTest {
+
+    @Test
+    public void testHotKeys_HeavyHittersAmongNoise() {
+        HotKeyTracker tracker = new HotKeyTracker(2, 100, 1024, 4);
+        for (int i = 0; i < 10_000; i++) {
+            tracker.record("code" + i);
+            if (i % 10 == 0) {
+                tracker.record("viral");
+            }
+            if (i % 20 == 0) {
+                tracker.record("warm");
+            }
+            if (i % 50 == 0) {
+                tracker.record("lukewarm");
+            }
+        }
+
+        List<HotKeyTracker.HotKey> hotKeys = tracker.hotKeys();
+
+        assertEquals(List.of("viral", "warm"), hotKeys.stream().map(HotKeyTracker.HotKey::key).toList());
+        assertTrue(hotKeys.get(0).hits() >= 1000);
+    }
+
+    @Test
+    public void testDecay_ColdKeysDropOut() {
+        HotKeyTracker tracker = new HotKeyTracker(10, 100, 1024, 4);
+        for (int i = 0; i < 150; i++) {
+            tracker.record("viral");
+        }
+        assertEquals(1, tracker.hotKeys().size());
+
+        tracker.decay();
+
+        assertTrue(tracker.hotKeys().isEmpty());
+    }
+
+    @Test
+    public void testEstimate_NeverUnderestimates() {
+        CountMinSketch sketch = new CountMinSketch(64, 4);
+        for (int i = 0; i < 1000; i++) {
+            sketch.add("key" + (i % 100));
+        }
+        for (int i = 0; i < 100; i++) {
+            assertTrue(sketch.estimate("key" + i) >= 10);
+        }
+    }
+}
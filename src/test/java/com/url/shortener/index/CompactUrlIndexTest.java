@@ -0,0 +1,99 @@
+package com.url.shortener.index;
+
+import com.url.shortener.store.UrlMapping;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CompactUrlIndexTest {
+
+    private static final LocalDate EXPIRATION_DATE = LocalDate.of(2030, 1, 31);
+
+    private final CompactUrlIndex index = new CompactUrlIndex(1 << 20);
+
+    @Test
+    public void testPutAndGet() {
+        assertTrue(index.put("aB3dE5g", "https://example.com/", EXPIRATION_DATE));
+
+        assertEquals(new UrlMapping("https://example.com/", EXPIRATION_DATE), index.get("aB3dE5g"));
+        assertNull(index.get("aB3dE5h"));
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    public void testPut_ReplacesAndSkipsUnchanged() {
+        index.put("abcdefg", "https://example.com/", EXPIRATION_DATE);
+        long usedBytes = index.usedBytes();
+
+        index.put("abcdefg", "https://example.com/", EXPIRATION_DATE);
+        assertEquals(usedBytes, index.usedBytes());
+
+        index.put("abcdefg", "https://example.org/", EXPIRATION_DATE.plusDays(1));
+        assertEquals(new UrlMapping("https://example.org/", EXPIRATION_DATE.plusDays(1)), index.get("abcdefg"));
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    public void testPack_CodesOfDifferentLengthsDoNotCollide() {
+        assertNotEquals(CompactUrlIndex.pack("0abc"), CompactUrlIndex.pack("abc"));
+        assertNotEquals(CompactUrlIndex.pack("00"), CompactUrlIndex.pack("0"));
+        assertEquals(0, CompactUrlIndex.pack("abc-def"));
+        assertEquals(0, CompactUrlIndex.pack("abcdefghijk"));
+        assertTrue(CompactUrlIndex.pack("zzzzzzzzzz") > 0);
+    }
+
+    @Test
+    public void testPut_UnpackableShortUrlIsNotIndexed() {
+        assertFalse(index.put("abc_def", "https://example.com/", EXPIRATION_DATE));
+        assertNull(index.get("abc_def"));
+    }
+
+    @Test
+    public void testRemove() {
+        index.put("abcdefg", "https://example.com/", EXPIRATION_DATE);
+
+        index.remove("abcdefg");
+        assertNull(index.get("abcdefg"));
+        assertEquals(0, index.size());
+
+        index.put("abcdefg", "https://example.com/", EXPIRATION_DATE);
+        assertNotNull(index.get("abcdefg"));
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    public void testRemoveExpired() {
+        index.put("aaaaaaa", "https://example.com/a", LocalDate.of(2030, 1, 9));
+        index.put("bbbbbbb", "https://example.com/b", LocalDate.of(2030, 1, 10));
+
+        assertEquals(1, index.removeExpired(LocalDate.of(2030, 1, 10)));
+        assertNull(index.get("aaaaaaa"));
+        assertNotNull(index.get("bbbbbbb"));
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    public void testPut_GrowsPastInitialCapacity() {
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(index.put(String.format("c%06d", i), "https://example.com/" + i, EXPIRATION_DATE));
+        }
+
+        assertEquals(10_000, index.size());
+        for (int i = 0; i < 10_000; i++) {
+            assertEquals("https://example.com/" + i, index.get(String.format("c%06d", i)).longUrl());
+        }
+    }
+
+    @Test
+    public void testPut_FullArena() {
+        CompactUrlIndex small = new CompactUrlIndex(64);
+
+        assertTrue(small.put("aaaaaaa", "https://example.com/aaaaaaaaaaaaaaaaaaaa", EXPIRATION_DATE));
+        assertFalse(small.put("bbbbbbb", "https://example.com/bbbbbbbbbbbbbbbbbbbb", EXPIRATION_DATE));
+
+        assertNotNull(small.get("aaaaaaa"));
+        assertNull(small.get("bbbbbbb"));
+    }
+}
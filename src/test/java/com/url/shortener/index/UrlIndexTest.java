@@ -0,0 +1,120 @@
+package com.url.shortener.index;
+
+import com.url.shortener.events.UrlEvent;
+import com.url.shortener.events.UrlEventConsumer;
+import com.url.shortener.repository.UrlMappingView;
+import com.url.shortener.repository.UrlRepository;
+import com.url.shortener.store.JpaUrlMappingStore;
+import com.url.shortener.store.UrlMapping;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Limit;
+import org.springframework.util.unit.DataSize;
+
+import java.math.BigInteger;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class UrlIndexTest {
+
+    private static final LocalDate EXPIRATION_DATE = LocalDate.of(2030, 1, 31);
+
+    @Mock
+    private UrlRepository urlRepository;
+
+    @Mock
+    private UrlEventConsumer urlEventConsumer;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private UrlIndex urlIndex;
+
+    @BeforeEach
+    public void setUp() {
+        MockitoAnnotations.initMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+        urlIndex = new UrlIndex(new JpaUrlMappingStore(urlRepository), urlEventConsumer, true, DataSize.ofMegabytes(1), 2, 2, meterRegistry);
+    }
+
+    @Test
+    public void testRun_LoadsLiveUrlsThenTailsFromTheLastEvent() {
+        when(urlEventConsumer.lastId()).thenReturn("7-0");
+        when(urlRepository.findLiveUrlsAfter(eq(BigInteger.ZERO), any(LocalDate.class), eq(Limit.of(2))))
+                .thenReturn(List.of(view(1, "aaaaaaa"), view(2, "bbbbbbb")));
+        when(urlRepository.findLiveUrlsAfter(eq(BigInteger.TWO), any(LocalDate.class), eq(Limit.of(2))))
+                .thenReturn(List.of(view(3, "ccccccc")));
+        when(urlEventConsumer.readAfter("7-0", 2)).thenReturn(List.of(event("8-0", "ddddddd"), event("9-0", "eeeeeee")));
+        when(urlEventConsumer.readAfter("9-0", 2)).thenReturn(List.of());
+
+        urlIndex.run(null);
+        urlIndex.tail();
+
+        assertEquals(new UrlMapping("https://example.com/ccccccc", EXPIRATION_DATE), urlIndex.find("ccccccc"));
+        assertEquals(new UrlMapping("https://example.com/eeeeeee", EXPIRATION_DATE), urlIndex.find("eeeeeee"));
+        assertEquals(5, meterRegistry.get("shortener.index.size").gauge().value());
+    }
+
+    @Test
+    public void testTail_NothingBeforeTheLoad() {
+        urlIndex.tail();
+
+        verifyNoInteractions(urlEventConsumer);
+    }
+
+    @Test
+    public void testRun_StreamUnavailableTailsFromTheStart() {
+        when(urlEventConsumer.lastId()).thenThrow(new IllegalStateException("down"));
+        when(urlRepository.findLiveUrlsAfter(any(), any(LocalDate.class), any(Limit.class))).thenReturn(List.of());
+
+        urlIndex.run(null);
+        urlIndex.tail();
+
+        verify(urlEventConsumer).readAfter(UrlEventConsumer.START, 2);
+    }
+
+    @Test
+    public void testFind_Disabled() {
+        UrlIndex disabled = new UrlIndex(new JpaUrlMappingStore(urlRepository), urlEventConsumer, false, DataSize.ofMegabytes(1), 2, 2, meterRegistry);
+
+        disabled.run(null);
+        disabled.tail();
+
+        assertNull(disabled.find("aaaaaaa"));
+        verifyNoInteractions(urlRepository, urlEventConsumer);
+    }
+
+    private static UrlEvent event(String id, String shortUrl) {
+        return new UrlEvent(id, shortUrl, "https://example.com/" + shortUrl, EXPIRATION_DATE, null);
+    }
+
+    private static UrlMappingView view(long id, String shortUrl) {
+        return new UrlMappingView() {
+            @Override
+            public BigInteger getId() {
+                return BigInteger.valueOf(id);
+            }
+
+            @Override
+            public String getShortUrl() {
+                return shortUrl;
+            }
+
+            @Override
+            public String getLongUrl() {
+                return "https://example.com/" + shortUrl;
+            }
+
+            @Override
+            public LocalDate getExpirationDate() {
+                return EXPIRATION_DATE;
+            }
+        };
+    }
+}
@@ -0,0 +1,199 @@
+package com.url.shortener.persistence;
+
+import com.url.shortener.entity.Url;
+import com.url.shortener.events.UrlEventPublisher;
+import com.url.shortener.exception.ServiceUnavailableException;
+import com.url.shortener.repository.UrlRepository;
+import com.url.shortener.store.UrlMapping;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+public class WriteBehindUrlWriterTest {
+
+    @Mock
+    private UrlRepository urlRepository;
+
+    @Mock
+    private UrlEventPublisher eventPublisher;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private final ConcurrentMapCache resolveCache = new ConcurrentMapCache("urlMapping");
+
+    private WriteBehindUrlWriter writer;
+
+    @BeforeEach
+    public void setUp() {
+        MockitoAnnotations.initMocks(this);
+        doAnswer(invocation -> {
+            invocation.<java.util.function.Consumer<Object>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+    }
+
+    @AfterEach
+    public void tearDown() throws InterruptedException {
+        if (writer != null) {
+            writer.destroy();
+        }
+    }
+
+    @Test
+    public void testWrite_ReadableBeforeFlush() throws InterruptedException {
+        CountDownLatch saving = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(urlRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            saving.countDown();
+            release.await();
+            return invocation.getArgument(0);
+        });
+        writer = newWriter(10);
+
+        writer.write(url("abcdefg"));
+        assertTrue(saving.await(5, TimeUnit.SECONDS));
+
+        assertEquals("https://example.com/abcdefg", resolveCache.get("abcdefg", UrlMapping.class).longUrl());
+        assertNotNull(writer.findPending("abcdefg"));
+        release.countDown();
+    }
+
+    @Test
+    public void testWrite_FlushedInBatches() throws InterruptedException {
+        CountDownLatch flushed = new CountDownLatch(5);
+        when(urlRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Url> batch = invocation.getArgument(0);
+            batch.forEach(url -> flushed.countDown());
+            return batch;
+        });
+        writer = newWriter(10);
+
+        for (int i = 0; i < 5; i++) {
+            writer.write(url("abcdef" + i));
+        }
+
+        assertTrue(flushed.await(5, TimeUnit.SECONDS));
+        writer.destroy();
+        assertNull(writer.findPending("abcdef0"));
+        verify(eventPublisher, atLeastOnce()).published(anyList());
+    }
+
+    @Test
+    public void testWrite_RejectedWhenQueueFull() {
+        CountDownLatch release = new CountDownLatch(1);
+        when(urlRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            release.await();
+            return invocation.getArgument(0);
+        });
+        writer = newWriter(1);
+
+        assertThrows(ServiceUnavailableException.class, () -> {
+            for (int i = 0; i < 10; i++) {
+                writer.write(url("abcdef" + i));
+            }
+        });
+        release.countDown();
+    }
+
+    @Test
+    public void testWriteAll_RejectedBatchLeavesNothingQueued() throws InterruptedException {
+        CountDownLatch flushing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(urlRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            flushing.countDown();
+            release.await();
+            return invocation.getArgument(0);
+        });
+        writer = newWriter(3);
+        writer.write(url("abcdef0"));
+        assertTrue(flushing.await(5, TimeUnit.SECONDS));
+
+        writer.writeAll(List.of(url("abcdef1"), url("abcdef2")));
+        assertThrows(ServiceUnavailableException.class, () -> writer.writeAll(List.of(url("abcdef3"), url("abcdef4"))));
+
+        assertEquals(2, writer.getPendingCount());
+        assertNull(writer.findPending("abcdef3"));
+        assertNull(resolveCache.get("abcdef3"));
+        release.countDown();
+    }
+
+    @Test
+    public void testWrite_BadUrlIsDroppedAndTheRestStored() throws InterruptedException {
+        List<String> published = new CopyOnWriteArrayList<>();
+        CountDownLatch flushed = new CountDownLatch(2);
+        when(urlRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Url> urls = invocation.getArgument(0);
+            if (urls.stream().anyMatch(url -> url.getShortUrl().equals("bad0000"))) {
+                throw new DataIntegrityViolationException("value too long");
+            }
+            return urls;
+        });
+        doAnswer(invocation -> {
+            invocation.<List<Url>>getArgument(0).forEach(url -> {
+                published.add(url.getShortUrl());
+                flushed.countDown();
+            });
+            return null;
+        }).when(eventPublisher).published(anyList());
+        writer = newWriter(10);
+
+        writer.writeAll(List.of(url("good000"), url("bad0000"), url("good001")));
+
+        assertTrue(flushed.await(5, TimeUnit.SECONDS));
+        writer.destroy();
+        assertEquals(List.of("good000", "good001"), published);
+        assertNull(writer.findPending("bad0000"));
+        assertNull(resolveCache.get("bad0000"));
+        assertNotNull(resolveCache.get("good001"));
+    }
+
+    @Test
+    public void testWrite_TransientFailureRetriedUntilStored() throws InterruptedException {
+        CountDownLatch flushed = new CountDownLatch(1);
+        when(urlRepository.saveAll(anyList()))
+                .thenThrow(new QueryTimeoutException("timeout"), new QueryTimeoutException("timeout"),
+                        new QueryTimeoutException("timeout"), new QueryTimeoutException("timeout"))
+                .thenAnswer(invocation -> {
+                    flushed.countDown();
+                    return invocation.getArgument(0);
+                });
+        writer = newWriter(10);
+
+        writer.write(url("abcdefg"));
+
+        assertTrue(flushed.await(5, TimeUnit.SECONDS));
+        verify(urlRepository, times(WriteBehindUrlWriter.MAX_BATCH_ATTEMPTS + 2)).saveAll(anyList());
+    }
+
+    private WriteBehindUrlWriter newWriter(int maxPending) {
+        return new WriteBehindUrlWriter(urlRepository, eventPublisher, transactionTemplate, resolveCache,
+                maxPending, 100, Duration.ofMillis(20), Duration.ofMillis(10), Duration.ofMillis(10));
+    }
+
+    private static Url url(String shortUrl) {
+        Url url = new Url();
+        url.setShortUrl(shortUrl);
+        url.setLongUrl("https://example.com/" + shortUrl);
+        url.setExpirationDate(LocalDate.now().plusDays(30));
+        return url;
+    }
+}
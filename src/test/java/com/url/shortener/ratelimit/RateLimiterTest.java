@@ -0,0 +1,102 @@
+package com.url.shortener.ratelimit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+public class RateLimiterTest {
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    private RateLimiter rateLimiter;
+
+    @BeforeEach
+    public void setUp() {
+        MockitoAnnotations.initMocks(this);
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), any(), any())).thenReturn(0L);
+        rateLimiter = new RateLimiter(1, 2, 100, new RedisTokenBucket(redisTemplate, 1, 2));
+    }
+
+    @Test
+    public void testAcquire_LocalLimitRejectsWithoutRedis() {
+        assertEquals(Duration.ZERO, rateLimiter.acquire("ip:1.2.3.4"));
+        assertEquals(Duration.ZERO, rateLimiter.acquire("ip:1.2.3.4"));
+        assertFalse(rateLimiter.acquire("ip:1.2.3.4").isZero());
+        assertEquals(Duration.ZERO, rateLimiter.acquire("ip:5.6.7.8"));
+
+        verify(redisTemplate, times(3)).execute(any(RedisScript.class), anyList(), any(), any());
+    }
+
+    @Test
+    public void testAcquire_GlobalLimitRejects() {
+        when(redisTemplate.execute(any(RedisScript.class), eq(List.of("#rate-limit:ip:1.2.3.4")), eq("1000000"), eq("1000000")))
+                .thenReturn(250_000L);
+
+        assertEquals(Duration.ofMillis(250), rateLimiter.acquire("ip:1.2.3.4"));
+    }
+
+    @Test
+    public void testAcquire_RedisDownOnlyLimitsLocally() {
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), any(), any()))
+                .thenThrow(new RedisConnectionFailureException("down"));
+
+        assertEquals(Duration.ZERO, rateLimiter.acquire("ip:1.2.3.4"));
+        assertEquals(Duration.ZERO, rateLimiter.acquire("ip:1.2.3.4"));
+        assertFalse(rateLimiter.acquire("ip:1.2.3.4").isZero());
+    }
+
+    @Test
+    public void testInterceptor_AnswersTooManyRequests() throws Exception {
+        RateLimitInterceptor interceptor = new RateLimitInterceptor(rateLimiter, Set.of("partner"));
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/url");
+        request.addHeader(RateLimitInterceptor.API_KEY_HEADER, "partner");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertTrue(interceptor.preHandle(request, response, null));
+        assertTrue(interceptor.preHandle(request, response, null));
+        assertFalse(interceptor.preHandle(request, response, null));
+        assertEquals(429, response.getStatus());
+        assertEquals("1", response.getHeader("Retry-After"));
+        assertTrue(interceptor.preHandle(new MockHttpServletRequest("POST", "/url"), new MockHttpServletResponse(), null));
+    }
+
+    @Test
+    public void testInterceptor_UnknownApiKeyIsLimitedByAddress() throws Exception {
+        RateLimitInterceptor interceptor = new RateLimitInterceptor(rateLimiter, Set.of("partner"));
+
+        for (int i = 0; i < 2; i++) {
+            MockHttpServletRequest request = new MockHttpServletRequest("POST", "/url");
+            request.addHeader(RateLimitInterceptor.API_KEY_HEADER, "made-up-" + i);
+            assertTrue(interceptor.preHandle(request, new MockHttpServletResponse(), null));
+            assertEquals("ip:127.0.0.1", request.getAttribute(RateLimitInterceptor.CLIENT_ATTRIBUTE));
+        }
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/url");
+        request.addHeader(RateLimitInterceptor.API_KEY_HEADER, "made-up-2");
+        assertFalse(interceptor.preHandle(request, new MockHttpServletResponse(), null));
+    }
+
+    @Test
+    public void testAcquireUpTo_AdmitsWhatIsLeft() {
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), any(), any(), any()))
+                .thenAnswer(invocation -> Long.valueOf(invocation.<String>getArgument(4)));
+
+        assertEquals(2, rateLimiter.acquireUpTo("ip:1.2.3.4", 5));
+        assertEquals(0, rateLimiter.acquireUpTo("ip:1.2.3.4", 5));
+    }
+}
@@ -0,0 +1,76 @@
+package com.url.shortener.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TokenBucketTest {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    @Test
+    public void testTryAcquire_AdmitsBurstThenRejects() {
+        TokenBucket bucket = new TokenBucket(10, 5, 0);
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, bucket.tryAcquire(0));
+        }
+        assertEquals(SECOND / 10, bucket.tryAcquire(0));
+    }
+
+    @Test
+    public void testTryAcquire_RefillsAtRate() {
+        TokenBucket bucket = new TokenBucket(10, 5, 0);
+        for (int i = 0; i < 5; i++) {
+            bucket.tryAcquire(0);
+        }
+
+        assertEquals(0, bucket.tryAcquire(SECOND / 10));
+        assertTrue(bucket.tryAcquire(SECOND / 10) > 0);
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, bucket.tryAcquire(2 * SECOND));
+        }
+        assertTrue(bucket.tryAcquire(2 * SECOND) > 0);
+    }
+
+    @Test
+    public void testTryAcquireUpTo_TakesWhatTheBucketHolds() {
+        TokenBucket bucket = new TokenBucket(10, 5, 0);
+
+        assertEquals(3, bucket.tryAcquireUpTo(0, 3));
+        assertEquals(2, bucket.tryAcquireUpTo(0, 3));
+        assertEquals(0, bucket.tryAcquireUpTo(0, 3));
+        assertEquals(1, bucket.tryAcquireUpTo(SECOND / 10, 3));
+        assertTrue(bucket.tryAcquire(SECOND / 10) > 0);
+    }
+
+    @Test
+    public void testTryAcquire_ConcurrentCallersTakeBurstOnly() throws Exception {
+        TokenBucket bucket = new TokenBucket(0.001, 100, 0);
+        AtomicInteger admitted = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 8; i++) {
+            executor.submit(() -> {
+                start.await();
+                for (int j = 0; j < 100; j++) {
+                    if (bucket.tryAcquire(0) == 0) {
+                        admitted.incrementAndGet();
+                    }
+                }
+                return null;
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+
+        assertEquals(100, admitted.get());
+    }
+}
@@ -0,0 +1,101 @@
+package com.url.shortener.redirect;
+
+import com.url.shortener.store.UrlMapping;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RedirectPolicyTest {
+
+    private static final LocalDate EXPIRATION_DATE = LocalDate.of(2030, 1, 31);
+
+    private static final UrlMapping MAPPING = new UrlMapping("https://example.com/", EXPIRATION_DATE);
+
+    private static final Instant NOW = LocalDate.of(2030, 1, 10).atStartOfDay(ZoneId.systemDefault()).toInstant();
+
+    private final RedirectPolicy redirectPolicy = new RedirectPolicy(301, Duration.ofDays(1));
+
+    @Test
+    public void testRedirect_CacheHeaders() {
+        ResponseEntity<Object> response = redirectPolicy.redirect(MAPPING, new HttpHeaders(), NOW);
+
+        assertEquals(HttpStatus.MOVED_PERMANENTLY, response.getStatusCode());
+        assertEquals("https://example.com/", response.getHeaders().getLocation().toString());
+        assertEquals("max-age=86400, public", response.getHeaders().getCacheControl());
+        assertNotNull(response.getHeaders().getETag());
+        assertEquals(LocalDate.of(2030, 1, 1).atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli(),
+                response.getHeaders().getLastModified());
+    }
+
+    @Test
+    public void testRedirect_MaxAgeEndsWithTheUrl() {
+        Instant lastDay = EXPIRATION_DATE.atStartOfDay(ZoneId.systemDefault()).toInstant().plus(Duration.ofHours(23));
+
+        ResponseEntity<Object> response = redirectPolicy.redirect(MAPPING, new HttpHeaders(), lastDay);
+
+        assertEquals("max-age=3600, public", response.getHeaders().getCacheControl());
+    }
+
+    @Test
+    public void testRedirect_ConfiguredStatus() {
+        ResponseEntity<Object> response = new RedirectPolicy(307, Duration.ofDays(1)).redirect(MAPPING, new HttpHeaders(), NOW);
+
+        assertEquals(HttpStatus.TEMPORARY_REDIRECT, response.getStatusCode());
+        assertNotEquals(redirectPolicy.redirect(MAPPING, new HttpHeaders(), NOW).getHeaders().getETag(),
+                response.getHeaders().getETag());
+    }
+
+    @Test
+    public void testRedirect_NotModifiedForMatchingETag() {
+        String eTag = redirectPolicy.redirect(MAPPING, new HttpHeaders(), NOW).getHeaders().getETag();
+        HttpHeaders headers = new HttpHeaders();
+        headers.setIfNoneMatch(eTag);
+
+        ResponseEntity<Object> response = redirectPolicy.redirect(MAPPING, headers, NOW);
+
+        assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+        assertEquals(eTag, response.getHeaders().getETag());
+        assertNull(response.getHeaders().getLocation());
+    }
+
+    @Test
+    public void testRedirect_NotModifiedForWeakenedETag() {
+        String eTag = redirectPolicy.redirect(MAPPING, new HttpHeaders(), NOW).getHeaders().getETag();
+        HttpHeaders headers = new HttpHeaders();
+        headers.setIfNoneMatch(List.of("\"other\"", "W/" + eTag));
+
+        assertEquals(HttpStatus.NOT_MODIFIED, redirectPolicy.redirect(MAPPING, headers, NOW).getStatusCode());
+    }
+
+    @Test
+    public void testRedirect_ModifiedWhenLongUrlChanges() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setIfNoneMatch(redirectPolicy.redirect(MAPPING, new HttpHeaders(), NOW).getHeaders().getETag());
+
+        ResponseEntity<Object> response = redirectPolicy.redirect(new UrlMapping("https://example.org/", EXPIRATION_DATE), headers, NOW);
+
+        assertEquals(HttpStatus.MOVED_PERMANENTLY, response.getStatusCode());
+    }
+
+    @Test
+    public void testRedirect_NotModifiedSince() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setIfModifiedSince(NOW);
+
+        assertEquals(HttpStatus.NOT_MODIFIED, redirectPolicy.redirect(MAPPING, headers, NOW).getStatusCode());
+    }
+
+    @Test
+    public void testRedirectPolicy_RejectsNonRedirectStatus() {
+        assertThrows(IllegalArgumentException.class, () -> new RedirectPolicy(200, Duration.ofDays(1)));
+    }
+}
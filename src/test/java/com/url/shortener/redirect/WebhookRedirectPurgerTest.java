@@ -0,0 +1,57 @@
+package com.url.shortener.redirect;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestClient;
+
+import java.util.List;
+
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.*;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withServerError;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+public class WebhookRedirectPurgerTest {
+
+    private static final String URL = "http://purge.example.com/purge";
+
+    private MockRestServiceServer server;
+
+    private WebhookRedirectPurger purger;
+
+    @BeforeEach
+    public void setUp() {
+        RestClient.Builder builder = RestClient.builder().baseUrl(URL);
+        server = MockRestServiceServer.bindTo(builder).build();
+        purger = new WebhookRedirectPurger(builder.build());
+    }
+
+    @Test
+    public void testPurge_PostsPaths() {
+        server.expect(requestTo(URL))
+                .andExpect(method(HttpMethod.POST))
+                .andExpect(content().json("{\"paths\":[\"/aaaaaaa\",\"/bbbbbbb\"]}"))
+                .andRespond(withSuccess());
+
+        purger.purge(List.of("aaaaaaa", "bbbbbbb"));
+
+        server.verify();
+    }
+
+    @Test
+    public void testPurge_FailureIsNotThrown() {
+        server.expect(requestTo(URL)).andRespond(withServerError());
+
+        purger.purge(List.of("aaaaaaa"));
+
+        server.verify();
+    }
+
+    @Test
+    public void testPurge_NothingToPurge() {
+        purger.purge(List.of());
+
+        server.verify();
+    }
+}
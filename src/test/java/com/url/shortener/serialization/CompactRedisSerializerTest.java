@@ -0,0 +1,66 @@
+package com.url.shortener.serialization;
+
+import com.url.shortener.store.UrlMapping;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CompactRedisSerializerTest {
+
+    private static final String LONG_URL = "https://example.com/some/path?query=value";
+
+    private final CompactRedisSerializer serializer = new CompactRedisSerializer(false);
+
+    @Test
+    public void testSerialize_StringIsRawUtf8() {
+        byte[] bytes = serializer.serialize(LONG_URL);
+
+        assertArrayEquals(LONG_URL.getBytes(StandardCharsets.UTF_8), bytes);
+        assertEquals(LONG_URL, serializer.deserialize(bytes));
+        assertTrue(bytes.length < new JdkSerializationRedisSerializer().serialize(LONG_URL).length);
+    }
+
+    @Test
+    public void testSerialize_Long() {
+        byte[] bytes = serializer.serialize(42L);
+
+        assertEquals(10, bytes.length);
+        assertEquals(42L, serializer.deserialize(bytes));
+    }
+
+    @Test
+    public void testSerialize_UrlMapping() {
+        UrlMapping mapping = new UrlMapping(LONG_URL, LocalDate.of(2024, 1, 31));
+        byte[] bytes = serializer.serialize(mapping);
+
+        assertEquals(10 + LONG_URL.length(), bytes.length);
+        assertEquals(mapping, serializer.deserialize(bytes));
+        assertEquals(mapping, serializer.deserialize(new CompactRedisSerializer(true).serialize(mapping)));
+    }
+
+    @Test
+    public void testSerialize_OtherTypesFallBackToJdk() {
+        LocalDate date = LocalDate.of(2024, 1, 31);
+
+        assertEquals(date, serializer.deserialize(serializer.serialize(date)));
+    }
+
+    @Test
+    public void testDeserialize_ReadsJdkSerializedValues() {
+        byte[] legacy = new JdkSerializationRedisSerializer().serialize(LONG_URL);
+
+        assertEquals(LONG_URL, serializer.deserialize(legacy));
+    }
+
+    @Test
+    public void testSerialize_LegacyWritesJdkFormat() {
+        byte[] bytes = new CompactRedisSerializer(true).serialize(LONG_URL);
+
+        assertEquals(LONG_URL, new JdkSerializationRedisSerializer().deserialize(bytes));
+        assertEquals(LONG_URL, serializer.deserialize(bytes));
+    }
+}
@@ -0,0 +1,106 @@
+package com.url.shortener.service;
+
+import com.url.shortener.cache.CacheInvalidationPublisher;
+import com.url.shortener.cache.TwoTierCacheManager;
+import com.url.shortener.filter.ShortUrlFilter;
+import com.url.shortener.index.UrlIndex;
+import com.url.shortener.store.UrlMapping;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.ReactiveValueOperations;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+public class ReactiveUrlResolverTest {
+
+    private static final String KEY = "urlMapping::abc";
+
+    private static final UrlMapping MAPPING = new UrlMapping("https://example.com", LocalDate.of(2030, 1, 1));
+
+    @Mock
+    private UrlService urlService;
+
+    @Mock
+    private ShortUrlFilter shortUrlFilter;
+
+    @Mock
+    private UrlIndex urlIndex;
+
+    @Mock
+    private ReactiveRedisTemplate<String, Object> redisTemplate;
+
+    @Mock
+    private ReactiveValueOperations<String, Object> valueOperations;
+
+    private TwoTierCacheManager cacheManager;
+
+    private ReactiveUrlResolver urlResolver;
+
+    @BeforeEach
+    public void setUp() {
+        MockitoAnnotations.initMocks(this);
+        when(shortUrlFilter.mightExist(anyString())).thenReturn(true);
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        cacheManager = new TwoTierCacheManager(new ConcurrentMapCacheManager(), CacheInvalidationPublisher.NONE,
+                10, Duration.ofMinutes(1));
+        urlResolver = new ReactiveUrlResolver(urlService, shortUrlFilter, urlIndex, redisTemplate,
+                RedisCacheConfiguration.defaultCacheConfig(), cacheManager);
+    }
+
+    @Test
+    public void testResolve_RedisHitIsKeptLocally() {
+        when(valueOperations.get(KEY)).thenReturn(Mono.just(MAPPING));
+
+        assertEquals(MAPPING, urlResolver.resolve("abc").block());
+        assertEquals(MAPPING, urlResolver.resolve("abc").block());
+
+        verify(valueOperations, times(1)).get(KEY);
+        verifyNoInteractions(urlService);
+        assertEquals(1, cacheManager.getLocalCache(UrlService.URL_MAPPING_CACHE).remoteStats().hits());
+    }
+
+    @Test
+    public void testResolve_RedisMissLoads() {
+        when(valueOperations.get(KEY)).thenReturn(Mono.empty());
+        when(urlService.resolve("abc")).thenReturn(MAPPING);
+
+        assertEquals(MAPPING, urlResolver.resolve("abc").block());
+        verify(urlService, times(1)).resolve("abc");
+    }
+
+    @Test
+    public void testResolve_RedisFailureLoads() {
+        when(valueOperations.get(KEY)).thenReturn(Mono.error(new RedisConnectionFailureException("down")));
+        when(urlService.resolve("abc")).thenReturn(MAPPING);
+
+        assertEquals(MAPPING, urlResolver.resolve("abc").block());
+    }
+
+    @Test
+    public void testResolve_FilteredOutWithoutLookups() {
+        when(shortUrlFilter.mightExist("abc")).thenReturn(false);
+
+        assertNull(urlResolver.resolve("abc").block());
+        verifyNoInteractions(valueOperations, urlService);
+    }
+
+    @Test
+    public void testResolve_IndexHitWithoutLookups() {
+        when(urlIndex.find("abc")).thenReturn(MAPPING);
+
+        assertEquals(MAPPING, urlResolver.resolve("abc").block());
+        verifyNoInteractions(valueOperations, urlService);
+    }
+}
@@ -0,0 +1,110 @@
+package com.url.shortener.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.url.shortener.ratelimit.ConcurrencyLimiter;
+import com.url.shortener.ratelimit.RateLimiter;
+import com.url.shortener.request.UrlRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+public class UrlBatchServiceTest {
+
+    @Mock
+    private UrlService urlService;
+
+    private UrlBatchService urlBatchService;
+
+    @BeforeEach
+    public void setUp() {
+        MockitoAnnotations.initMocks(this);
+        urlBatchService = new UrlBatchService(urlService, new ObjectMapper(), new ConcurrencyLimiter(1, Duration.ZERO),
+                Optional.empty(), 2);
+        when(urlService.isValidURL(any(UrlRequest.class))).thenAnswer(invocation ->
+                invocation.<UrlRequest>getArgument(0).getLongUrl().startsWith("https://"));
+        when(urlService.shortenURLs(anyList(), eq("127.0.0.1"))).thenAnswer(invocation ->
+                invocation.<List<String>>getArgument(0).stream().map(url -> "c" + url.length()).toList());
+    }
+
+    @Test
+    public void testShortenURLs_JsonArrayKeepsInputOrder() throws Exception {
+        String input = "[{\"longUrl\":\"https://a.com\"},{\"longUrl\":\"invalid\"},{\"longUrl\":\"https://bb.com\"}]";
+
+        String output = shorten(input, false);
+
+        assertEquals("[{\"longUrl\":\"https://a.com\",\"shortUrl\":\"localhost/c13\"},"
+                + "{\"longUrl\":\"invalid\",\"error\":\"Invalid Url\"},"
+                + "{\"longUrl\":\"https://bb.com\",\"shortUrl\":\"localhost/c14\"}]", output);
+        verify(urlService, times(2)).shortenURLs(anyList(), eq("127.0.0.1"));
+    }
+
+    @Test
+    public void testShortenURLs_Ndjson() throws Exception {
+        String input = "{\"longUrl\":\"https://a.com\"}\n{\"longUrl\":\"https://bb.com\"}\n";
+
+        String output = shorten(input, true);
+
+        assertEquals("{\"longUrl\":\"https://a.com\",\"shortUrl\":\"localhost/c13\"}\n"
+                + "{\"longUrl\":\"https://bb.com\",\"shortUrl\":\"localhost/c14\"}", output);
+    }
+
+    @Test
+    public void testShortenURLs_GenerationFailure() throws Exception {
+        when(urlService.shortenURLs(anyList(), eq("127.0.0.1"))).thenThrow(new RuntimeException("Database down"));
+
+        String output = shorten("[{\"longUrl\":\"https://a.com\"}]", false);
+
+        assertEquals("[{\"longUrl\":\"https://a.com\",\"error\":\"The short url could not be generated please try again later\"}]", output);
+    }
+
+    @Test
+    public void testShortenURLs_Overloaded() throws Exception {
+        urlBatchService = new UrlBatchService(urlService, new ObjectMapper(), new ConcurrencyLimiter(0, Duration.ZERO),
+                Optional.empty(), 2);
+
+        String output = shorten("[{\"longUrl\":\"https://a.com\"}]", false);
+
+        assertEquals("[{\"longUrl\":\"https://a.com\",\"error\":\"Too many urls being created, please try again later\"}]", output);
+        verify(urlService, never()).shortenURLs(anyList(), anyString());
+    }
+
+    @Test
+    public void testShortenURLs_ChargesEveryUrl() throws Exception {
+        urlBatchService = new UrlBatchService(urlService, new ObjectMapper(), new ConcurrencyLimiter(1, Duration.ZERO),
+                Optional.of(new RateLimiter(0.001, 2, 100, null)), 2);
+        String input = "{\"longUrl\":\"https://a.com\"}\n{\"longUrl\":\"https://bb.com\"}\n"
+                + "{\"longUrl\":\"https://ccc.com\"}\n{\"longUrl\":\"https://dddd.com\"}\n";
+
+        String output = shorten(input, true, "ip:127.0.0.1");
+
+        assertEquals("{\"longUrl\":\"https://a.com\",\"shortUrl\":\"localhost/c13\"}\n"
+                + "{\"longUrl\":\"https://bb.com\",\"shortUrl\":\"localhost/c14\"}\n"
+                + "{\"longUrl\":\"https://ccc.com\",\"shortUrl\":\"localhost/c15\"}\n"
+                + "{\"longUrl\":\"https://dddd.com\",\"error\":\"Too many requests, please try again later\"}", output);
+    }
+
+    private String shorten(String input, boolean ndjson) throws Exception {
+        return shorten(input, ndjson, null);
+    }
+
+    private String shorten(String input, boolean ndjson, String client) throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        urlBatchService.shortenURLs(new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)), output, ndjson,
+                "localhost", "127.0.0.1", client);
+        return output.toString(StandardCharsets.UTF_8);
+    }
+}
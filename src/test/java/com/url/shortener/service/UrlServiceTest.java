@@ -1,22 +1,30 @@
 package com.url.shortener.service;
 
+import com.url.shortener.dedup.UrlDeduplicator;
 import com.url.shortener.entity.Url;
+import com.url.shortener.events.UrlEventPublisher;
+import com.url.shortener.filter.ShortUrlFilter;
+import com.url.shortener.generator.RandomShortUrlGenerator;
+import com.url.shortener.generator.ShortUrlGenerator;
+import com.url.shortener.persistence.DirectUrlWriter;
 import com.url.shortener.repository.UrlRepository;
 import com.url.shortener.request.UrlRequest;
+import com.url.shortener.store.JpaUrlMappingStore;
+import com.url.shortener.store.UrlMapping;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.springframework.boot.test.context.SpringBootTest;
-import org.springframework.data.redis.core.ListOperations;
-import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.test.util.ReflectionTestUtils;
 
-import java.net.MalformedURLException;
-import java.net.URL;
+import java.time.Duration;
 import java.time.LocalDate;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -28,23 +36,27 @@ public class UrlServiceTest {
     private UrlRepository urlRepository;
 
     @Mock
-    private RedisTemplate<String, Object> redisTemplate;
+    private UrlEventPublisher eventPublisher;
 
     @Mock
-    private ListOperations<String, Object> listOperations;
+    private StringRedisTemplate stringRedisTemplate;
+
+    private ShortUrlFilter shortUrlFilter;
+
+    private UrlDeduplicator urlDeduplicator;
+
+    private SimpleMeterRegistry meterRegistry;
 
-    @InjectMocks
     private UrlService urlService;
 
     @BeforeEach
     public void setup() {
         MockitoAnnotations.initMocks(this);
-        ReflectionTestUtils.setField(urlService, "shortUrlLength", 7);
-        ReflectionTestUtils.setField(urlService, "urlExpirationDays", 30);
+        meterRegistry = new SimpleMeterRegistry();
+        shortUrlFilter = new ShortUrlFilter(new JpaUrlMappingStore(urlRepository), new DirectUrlWriter(urlRepository, eventPublisher), stringRedisTemplate, true, 1000, 0.01, 1000, Duration.ofSeconds(30));
+        urlDeduplicator = new UrlDeduplicator(new JpaUrlMappingStore(urlRepository), new ConcurrentMapCacheManager(), false, "global");
+        urlService = new UrlService(new JpaUrlMappingStore(urlRepository), new DirectUrlWriter(urlRepository, eventPublisher), new RandomShortUrlGenerator(7), shortUrlFilter, urlDeduplicator, meterRegistry);
         ReflectionTestUtils.setField(urlService, "generationUniqueUrlRetry", 3);
-        when(redisTemplate.opsForList()).thenReturn(listOperations);
-        urlService = new UrlService(urlRepository, redisTemplate);
-
     }
     @Test
     public void testIsValidURL_ValidUrl() {
@@ -59,7 +71,7 @@ public class UrlServiceTest {
         UrlRequest urlRequest = new UrlRequest();
         urlRequest.setLongUrl("https://example.com/this/is/a/very/long/url/that/is/more/than/100/characters/in/length/and/should/fail/validity/check");
 
-        assertTrue(urlService.isValidURL(urlRequest));
+        assertFalse(urlService.isValidURL(urlRequest));
     }
 
     @Test
@@ -83,6 +95,78 @@ public class UrlServiceTest {
         assertNotNull(shortenedURL);
     }
 
+    @Test
+    public void testShortenURL_CollisionFreeGeneratorSkipsLookup() throws Exception {
+        ShortUrlGenerator generator = mock(ShortUrlGenerator.class);
+        when(generator.next()).thenReturn("abcdefg");
+        when(generator.isCollisionFree()).thenReturn(true);
+        urlService = new UrlService(new JpaUrlMappingStore(urlRepository), new DirectUrlWriter(urlRepository, eventPublisher), generator, shortUrlFilter, urlDeduplicator, meterRegistry);
+
+        assertEquals("abcdefg", urlService.shortenURL("https://example.com", "127.0.0.1"));
+        verify(urlRepository, never()).findByShortUrl(anyString());
+        verify(urlRepository, times(1)).save(any(Url.class));
+    }
+
+    @Test
+    public void testShortenURL_RetriesExhausted() throws Exception {
+        ShortUrlGenerator generator = mock(ShortUrlGenerator.class);
+        when(generator.next()).thenReturn("abcdefg");
+        Url existing = new Url();
+        existing.setLongUrl("https://other.com/");
+        existing.setExpirationDate(LocalDate.now().plusDays(1));
+        when(urlRepository.findByShortUrl("abcdefg")).thenReturn(existing);
+        urlService = new UrlService(new JpaUrlMappingStore(urlRepository), new DirectUrlWriter(urlRepository, eventPublisher), generator, shortUrlFilter, urlDeduplicator, meterRegistry);
+
+        assertNull(urlService.shortenURL("https://example.com", "127.0.0.1"));
+        assertEquals(1, meterRegistry.get("shortener.generate.exhausted").counter().count());
+        assertEquals(3, meterRegistry.get("shortener.generate.attempts").summary().totalAmount());
+        assertEquals(3, meterRegistry.get("shortener.store.find").timer().count());
+        assertEquals(0, meterRegistry.get("shortener.store.save").tag("batch", "false").timer().count());
+    }
+
+    @Test
+    public void testShortenURLs_SingleCollisionQueryPerAttempt() {
+        ShortUrlGenerator generator = mock(ShortUrlGenerator.class);
+        when(generator.next()).thenReturn("aaaaaaa", "bbbbbbb", "ccccccc", "ddddddd");
+        when(urlRepository.findExistingShortUrls(anyCollection())).thenReturn(List.of("bbbbbbb"), List.of());
+        urlService = new UrlService(new JpaUrlMappingStore(urlRepository), new DirectUrlWriter(urlRepository, eventPublisher), generator, shortUrlFilter, urlDeduplicator, meterRegistry);
+
+        List<String> shortUrls = urlService.shortenURLs(List.of("https://a.com", "https://b.com", "https://c.com"), "127.0.0.1");
+
+        assertEquals(List.of("aaaaaaa", "ddddddd", "ccccccc"), shortUrls);
+        verify(urlRepository, times(2)).findExistingShortUrls(anyCollection());
+        verify(urlRepository, times(1)).saveAll(anyList());
+        verify(urlRepository, never()).findByShortUrl(anyString());
+    }
+
+    @Test
+    public void testShortenURL_DedupReturnsExistingShortUrl() throws Exception {
+        urlDeduplicator = new UrlDeduplicator(new JpaUrlMappingStore(urlRepository), new ConcurrentMapCacheManager(), true, "global");
+        urlService = new UrlService(new JpaUrlMappingStore(urlRepository), new DirectUrlWriter(urlRepository, eventPublisher), new RandomShortUrlGenerator(7), shortUrlFilter, urlDeduplicator, meterRegistry);
+
+        String first = urlService.shortenURL("https://example.com/", "127.0.0.1");
+        String second = urlService.shortenURL("https://example.com/", "10.0.0.1");
+
+        assertEquals(first, second);
+        verify(urlRepository, times(1)).save(argThat(url -> url.getLongUrlHash() != null));
+    }
+
+    @Test
+    public void testShortenURLs_DedupRepeatedUrlsShareShortUrl() {
+        ShortUrlGenerator generator = mock(ShortUrlGenerator.class);
+        when(generator.next()).thenReturn("aaaaaaa", "bbbbbbb");
+        when(urlRepository.findExistingShortUrls(anyCollection())).thenReturn(List.of());
+        urlDeduplicator = new UrlDeduplicator(new JpaUrlMappingStore(urlRepository), new ConcurrentMapCacheManager(), true, "global");
+        urlService = new UrlService(new JpaUrlMappingStore(urlRepository), new DirectUrlWriter(urlRepository, eventPublisher), generator, shortUrlFilter, urlDeduplicator, meterRegistry);
+
+        List<String> shortUrls = urlService.shortenURLs(List.of("https://a.com/", "https://b.com/", "https://a.com/"), "127.0.0.1");
+
+        assertEquals(shortUrls.get(0), shortUrls.get(2));
+        assertNotEquals(shortUrls.get(0), shortUrls.get(1));
+        verify(urlRepository, times(1)).findReusableByLongUrlHashIn(anyCollection(), any(LocalDate.class), any());
+        verify(urlRepository, times(1)).saveAll(argThat(urls -> ((List<Url>) urls).size() == 2));
+    }
+
     @Test
     public void testShortenURL_Exception() {
         String longURL = "https://example.com";
@@ -95,22 +179,16 @@ public class UrlServiceTest {
     }
 
     @Test
-    public void testCreateUrl_ValidUrl() {
-        String longURL = "https://example.com";
+    public void testIsValidURL_NormalizesUrl() {
+        UrlRequest urlRequest = new UrlRequest();
+        urlRequest.setLongUrl("Example.COM");
 
-        try {
-            Url url = new Url();
-            url.setLongUrl(longURL);
-            URL createdURL = urlService.createURL(longURL);
-            assertNotNull(createdURL);
-            assertEquals(longURL, createdURL.toString());
-        } catch (MalformedURLException e) {
-            fail("MalformedURLException should not be thrown for valid URL");
-        }
+        assertTrue(urlService.isValidURL(urlRequest));
+        assertEquals("https://example.com/", urlRequest.getLongUrl());
     }
 
     @Test
-    public void testGetOriginalUrl_NotExpired() {
+    public void testResolve_NotExpired() {
         String shortUrl = "abc";
         String longUrl = "https://example.com";
 
@@ -119,13 +197,13 @@ public class UrlServiceTest {
         url.setLongUrl(longUrl);
         url.setExpirationDate(LocalDate.now().plusDays(1));
         when(urlRepository.findByShortUrl(shortUrl)).thenReturn(url);
-        String originalUrl = urlService.getOriginalUrl(shortUrl);
+        UrlMapping mapping = urlService.resolve(shortUrl);
 
-        assertEquals(longUrl, originalUrl);
+        assertEquals(new UrlMapping(longUrl, url.getExpirationDate()), mapping);
     }
 
     @Test
-    public void testGetOriginalUrl_Expired() {
+    public void testResolve_Expired() {
         String shortUrl = "abc";
         String longUrl = "https://example.com";
 
@@ -135,11 +213,31 @@ public class UrlServiceTest {
         expiredUrl.setExpirationDate(LocalDate.now().minusDays(1));
         when(urlRepository.findByShortUrl(shortUrl)).thenReturn(expiredUrl);
 
-        String originalUrl = urlService.getOriginalUrl(shortUrl);
+        assertNull(urlService.resolve(shortUrl));
+
+        verify(urlRepository, never()).delete(any(Url.class));
+    }
+
+    @Test
+    public void testResolve_UnknownUrlIsNegativelyCached() {
+        when(urlRepository.findByShortUrl("unknown")).thenReturn(null);
+
+        assertNull(urlService.resolve("unknown"));
+        assertNull(urlService.resolve("unknown"));
+
+        verify(urlRepository, times(1)).findByShortUrl("unknown");
+    }
+
+    @Test
+    public void testShortenURL_ClearsNegativeCache() throws Exception {
+        ShortUrlGenerator generator = mock(ShortUrlGenerator.class);
+        when(generator.next()).thenReturn("abcdefg");
+        urlService = new UrlService(new JpaUrlMappingStore(urlRepository), new DirectUrlWriter(urlRepository, eventPublisher), generator, shortUrlFilter, urlDeduplicator, meterRegistry);
+        shortUrlFilter.recordMiss("abcdefg");
 
-        assertEquals("", originalUrl);
+        urlService.shortenURL("https://example.com", "127.0.0.1");
 
-        verify(urlRepository, times(1)).delete(expiredUrl);
+        assertTrue(shortUrlFilter.mightExist("abcdefg"));
     }
 
     @Test
@@ -148,17 +246,17 @@ public class UrlServiceTest {
         mockUrl.setShortUrl("abc");
         mockUrl.setLongUrl("https://example.com");
         when(urlRepository.findByShortUrl("abc")).thenReturn(mockUrl);
-        Url fetchedUrl = urlService.fetchUrl("abc");
+        UrlMapping fetchedUrl = urlService.fetchUrl("abc");
 
         assertNotNull(fetchedUrl);
-        assertEquals(mockUrl, fetchedUrl);
+        assertEquals("https://example.com", fetchedUrl.longUrl());
     }
 
     @Test
     public void testFetchUrl_NonExistingUrl() {
         when(urlRepository.findByShortUrl("non_existing_url")).thenReturn(null);
 
-        Url fetchedUrl = urlService.fetchUrl("non_existing_url");
+        UrlMapping fetchedUrl = urlService.fetchUrl("non_existing_url");
 
         assertNull(fetchedUrl);
     }
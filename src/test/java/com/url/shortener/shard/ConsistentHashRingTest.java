@@ -0,0 +1,54 @@
+package com.url.shortener.shard;
+
+import com.url.shortener.generator.RandomShortUrlGenerator;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConsistentHashRingTest {
+
+    private static final int KEYS = 100_000;
+
+    @Test
+    public void testGet_SpreadsKeysEvenly() {
+        ConsistentHashRing<String> ring = new ConsistentHashRing<>(nodes(4), 160);
+        RandomShortUrlGenerator generator = new RandomShortUrlGenerator(7);
+        Map<String, Integer> counts = new HashMap<>();
+        for (int i = 0; i < KEYS; i++) {
+            counts.merge(ring.get(generator.next()), 1, Integer::sum);
+        }
+
+        assertEquals(4, counts.size());
+        counts.values().forEach(count -> assertTrue(count > KEYS * 0.2 && count < KEYS * 0.3, counts.toString()));
+    }
+
+    @Test
+    public void testGet_AddingNodeOnlyMovesKeysToIt() {
+        ConsistentHashRing<String> before = new ConsistentHashRing<>(nodes(4), 160);
+        ConsistentHashRing<String> after = new ConsistentHashRing<>(nodes(5), 160);
+        RandomShortUrlGenerator generator = new RandomShortUrlGenerator(7);
+        int moved = 0;
+        for (int i = 0; i < KEYS; i++) {
+            String key = generator.next();
+            String owner = after.get(key);
+            if (!owner.equals(before.get(key))) {
+                assertEquals("node-4", owner);
+                moved++;
+            }
+        }
+
+        assertTrue(moved > KEYS * 0.15 && moved < KEYS * 0.25, String.valueOf(moved));
+    }
+
+    private static Map<String, String> nodes(int count) {
+        Map<String, String> nodes = new LinkedHashMap<>();
+        for (int i = 0; i < count; i++) {
+            nodes.put("node-" + i, "node-" + i);
+        }
+        return nodes;
+    }
+}
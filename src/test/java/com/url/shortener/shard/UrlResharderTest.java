@@ -0,0 +1,102 @@
+package com.url.shortener.shard;
+
+import com.url.shortener.entity.Url;
+import com.url.shortener.events.UrlEventPublisher;
+import com.url.shortener.persistence.ShardedUrlWriter;
+import com.url.shortener.store.JdbcUrlMappingStore;
+import com.url.shortener.store.ShardedUrlMappingStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+public class UrlResharderTest {
+
+    private static final int URLS = 300;
+
+    private final List<UrlShards> opened = new ArrayList<>();
+
+    private EmbeddedDatabase primary;
+
+    private String first;
+
+    private String second;
+
+    @BeforeEach
+    public void setUp() {
+        primary = new EmbeddedDatabaseBuilder().generateUniqueName(true).setType(EmbeddedDatabaseType.H2).addScript("db/shard-schema.sql").build();
+        first = "jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1";
+        second = "jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1";
+    }
+
+    @AfterEach
+    public void tearDown() {
+        opened.forEach(UrlShards::close);
+        primary.shutdown();
+    }
+
+    @Test
+    public void testReshard_MovesUrlsToNewShardWhileServingLookups() {
+        UrlShards before = open(List.of(first), null);
+        new ShardedUrlWriter(before, UrlEventPublisher.NONE).writeAll(urls());
+
+        UrlShards resharding = open(List.of(first, second), List.of(first));
+        ShardedUrlMappingStore store = new ShardedUrlMappingStore(resharding);
+        urls().forEach(url -> assertNotNull(store.find(url.getShortUrl())));
+
+        Map<String, Integer> moved = new UrlResharder(resharding, 50).reshard();
+
+        int total = moved.values().stream().mapToInt(Integer::intValue).sum();
+        UrlShards resharded = open(List.of(first, second), null);
+        long changedOwner = urls().stream()
+                .filter(url -> !shardName(before, url.getShortUrl()).equals(shardName(resharded, url.getShortUrl())))
+                .count();
+        assertTrue(total > 0 && total < URLS, moved.toString());
+        assertEquals(changedOwner, total, moved.toString());
+        for (Url url : urls()) {
+            JdbcUrlMappingStore owner = resharded.owner(url.getShortUrl());
+            assertNotNull(owner.find(url.getShortUrl()));
+            resharded.all().values().stream()
+                    .filter(shard -> shard != owner)
+                    .forEach(shard -> assertNull(shard.find(url.getShortUrl())));
+        }
+        assertEquals(Map.of(UrlShards.PRIMARY, 0, first, 0, second, 0), new UrlResharder(resharded, 50).reshard());
+    }
+
+    private UrlShards open(List<String> urls, List<String> previousUrls) {
+        UrlShards shards = new UrlShards(primary, urls, previousUrls, "sa", "", 2, Duration.ofSeconds(2), 16, null);
+        opened.add(shards);
+        return shards;
+    }
+
+    private static String shardName(UrlShards shards, String shortUrl) {
+        JdbcUrlMappingStore owner = shards.owner(shortUrl);
+        return shards.all().entrySet().stream()
+                .filter(shard -> shard.getValue() == owner)
+                .map(Map.Entry::getKey)
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private static List<Url> urls() {
+        List<Url> urls = new ArrayList<>();
+        for (int i = 0; i < URLS; i++) {
+            Url url = new Url();
+            url.setShortUrl(String.format("c%06d", i));
+            url.setLongUrl("https://example.com/" + i);
+            url.setExpirationDate(LocalDate.of(2024, 5, 31));
+            urls.add(url);
+        }
+        return urls;
+    }
+}
@@ -0,0 +1,213 @@
+package com.url.shortener.store;
+
+import com.url.shortener.entity.Url;
+import com.url.shortener.repository.ShortUrlView;
+import com.url.shortener.repository.UrlMappingView;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigInteger;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EmbeddedLogUrlMappingStoreTest extends UrlMappingStoreConformanceTest {
+
+    private static final int MAX_SIZE = 1 << 16;
+
+    @TempDir
+    private Path directory;
+
+    private final Map<String, Url> database = new ConcurrentHashMap<>();
+
+    private final AtomicLong ids = new AtomicLong();
+
+    private final MapUrlMappingStore fallback = new MapUrlMappingStore();
+
+    private EmbeddedLogUrlMappingStore store;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        store = open("url-mappings.log", MAX_SIZE);
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        store.close();
+    }
+
+    @Override
+    protected UrlMappingStore store() {
+        return store;
+    }
+
+    @Override
+    protected void insert(List<Url> urls) {
+        for (Url url : urls) {
+            url.setId(BigInteger.valueOf(ids.incrementAndGet()));
+            database.put(url.getShortUrl(), url);
+        }
+    }
+
+    @Test
+    public void testFind_IndexedMappingsAreNotReadFromFallback() {
+        insert(List.of(url("abcdefg", "https://example.com/", TODAY.plusDays(30))));
+        store.find("abcdefg");
+        store.find("abcdefg");
+
+        assertEquals(1, fallback.lookups);
+    }
+
+    @Test
+    public void testFind_ExpiredMappingIsReadFromFallback() {
+        store.stored(List.of(url("abcdefg", "https://old.com/", TODAY.minusDays(1))));
+        Url renewed = url("abcdefg", "https://new.com/", TODAY.plusDays(30));
+        insert(List.of(renewed));
+
+        assertEquals(UrlMapping.of(renewed), store.find("abcdefg"));
+        assertEquals(UrlMapping.of(renewed), store.find("abcdefg"));
+        assertEquals(1, fallback.lookups);
+
+        database.clear();
+        store.stored(List.of(url("hijklmn", "https://gone.com/", TODAY.minusDays(1))));
+        assertNull(store.find("hijklmn"));
+        assertEquals(1, store.size());
+    }
+
+    @Test
+    public void testReopen_ReplaysLog() throws Exception {
+        Url kept = url("aaaaaaa", "https://a.com/", TODAY.plusDays(30));
+        store.stored(List.of(kept, url("bbbbbbb", "https://b.com/", TODAY.minusDays(1))));
+        insert(List.of(url("bbbbbbb", "https://b.com/", TODAY.minusDays(1))));
+        store.delete(store.findExpired(TODAY, 10));
+        store.close();
+        database.clear();
+
+        store = open("url-mappings.log", MAX_SIZE);
+
+        assertEquals(1, store.size());
+        assertEquals(UrlMapping.of(kept), store.find("aaaaaaa"));
+        assertNull(store.find("bbbbbbb"));
+    }
+
+    @Test
+    public void testFullLog_FallsBackWithoutAppending() throws Exception {
+        store.close();
+        store = open("small.log", 64);
+        insert(List.of(url("aaaaaaa", "https://a.com/", TODAY.plusDays(30)),
+                url("bbbbbbb", "https://b.com/", TODAY.plusDays(30))));
+
+        assertNotNull(store.find("aaaaaaa"));
+        assertNotNull(store.find("bbbbbbb"));
+        assertNotNull(store.find("bbbbbbb"));
+
+        assertEquals(1, store.size());
+        assertEquals(3, fallback.lookups);
+    }
+
+    private EmbeddedLogUrlMappingStore open(String name, int maxSize) throws Exception {
+        return new EmbeddedLogUrlMappingStore(directory.resolve(name), maxSize, fallback, () -> TODAY);
+    }
+
+    private class MapUrlMappingStore implements UrlMappingStore {
+
+        private int lookups;
+
+        @Override
+        public UrlMapping find(String shortUrl) {
+            lookups++;
+            Url url = database.get(shortUrl);
+            return url != null ? UrlMapping.of(url) : null;
+        }
+
+        @Override
+        public List<String> findExisting(Collection<String> shortUrls) {
+            return shortUrls.stream().filter(database::containsKey).toList();
+        }
+
+        @Override
+        public List<ShortUrlView> findLive(BigInteger after, LocalDate today, int limit) {
+            return rows(url -> url.getId().compareTo(after) > 0 && !url.getExpirationDate().isBefore(today), limit)
+                    .map(MapUrlMappingStore::shortUrlRow)
+                    .toList();
+        }
+
+        @Override
+        public List<UrlMappingView> findLiveMappings(BigInteger after, LocalDate today, int limit) {
+            return rows(url -> url.getId().compareTo(after) > 0 && !url.getExpirationDate().isBefore(today), limit)
+                    .map(MapUrlMappingStore::urlMappingRow)
+                    .toList();
+        }
+
+        @Override
+        public List<UrlMappingView> findLiveMappings(Collection<String> shortUrls, LocalDate today) {
+            return rows(url -> shortUrls.contains(url.getShortUrl()) && !url.getExpirationDate().isBefore(today),
+                    Integer.MAX_VALUE)
+                    .map(MapUrlMappingStore::urlMappingRow)
+                    .toList();
+        }
+
+        @Override
+        public List<UrlMappingView> findRecentLiveMappings(BigInteger before, LocalDate today, int limit) {
+            return database.values().stream()
+                    .filter(url -> url.getId().compareTo(before) < 0 && !url.getExpirationDate().isBefore(today))
+                    .sorted(Comparator.comparing(Url::getId).reversed())
+                    .limit(limit)
+                    .map(MapUrlMappingStore::urlMappingRow)
+                    .toList();
+        }
+
+        @Override
+        public List<Url> findReusable(long hash, LocalDate minExpirationDate, int limit) {
+            return findReusable(List.of(hash), minExpirationDate, limit);
+        }
+
+        @Override
+        public List<Url> findReusable(Collection<Long> hashes, LocalDate minExpirationDate, int limit) {
+            return database.values().stream()
+                    .filter(url -> hashes.contains(url.getLongUrlHash())
+                            && !url.getExpirationDate().isBefore(minExpirationDate))
+                    .sorted(Comparator.comparing(Url::getExpirationDate).reversed())
+                    .limit(limit)
+                    .toList();
+        }
+
+        @Override
+        public List<ShortUrlView> findExpired(LocalDate today, int limit) {
+            return rows(url -> url.getExpirationDate().isBefore(today), limit)
+                    .map(MapUrlMappingStore::shortUrlRow)
+                    .toList();
+        }
+
+        @Override
+        public void delete(Collection<ShortUrlView> urls) {
+            urls.forEach(url -> database.remove(url.getShortUrl()));
+        }
+
+        private Stream<Url> rows(Predicate<Url> filter, int limit) {
+            return database.values().stream()
+                    .filter(filter)
+                    .sorted(Comparator.comparing(Url::getId))
+                    .limit(limit);
+        }
+
+        private static ShortUrlView shortUrlRow(Url url) {
+            return new ShortUrlRow(url.getId(), url.getShortUrl());
+        }
+
+        private static UrlMappingView urlMappingRow(Url url) {
+            return new UrlMappingRow(url.getId(), url.getShortUrl(), url.getLongUrl(), url.getExpirationDate());
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.url.shortener.store;
+
+import com.url.shortener.entity.Url;
+import com.url.shortener.repository.UrlRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+@DataJpaTest
+public class JdbcUrlMappingStoreTest extends UrlMappingStoreConformanceTest {
+
+    @Autowired
+    private UrlRepository urlRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private JdbcUrlMappingStore store;
+
+    @BeforeEach
+    public void setUp() {
+        urlRepository.deleteAllInBatch();
+        store = new JdbcUrlMappingStore(jdbcTemplate);
+    }
+
+    @Override
+    protected UrlMappingStore store() {
+        return store;
+    }
+
+    @Override
+    protected void insert(List<Url> urls) {
+        urlRepository.saveAllAndFlush(urls);
+    }
+}
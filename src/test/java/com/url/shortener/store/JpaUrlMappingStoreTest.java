@@ -0,0 +1,34 @@
+package com.url.shortener.store;
+
+import com.url.shortener.entity.Url;
+import com.url.shortener.repository.UrlRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.util.List;
+
+@DataJpaTest
+public class JpaUrlMappingStoreTest extends UrlMappingStoreConformanceTest {
+
+    @Autowired
+    private UrlRepository urlRepository;
+
+    private JpaUrlMappingStore store;
+
+    @BeforeEach
+    public void setUp() {
+        urlRepository.deleteAllInBatch();
+        store = new JpaUrlMappingStore(urlRepository);
+    }
+
+    @Override
+    protected UrlMappingStore store() {
+        return store;
+    }
+
+    @Override
+    protected void insert(List<Url> urls) {
+        urlRepository.saveAllAndFlush(urls);
+    }
+}
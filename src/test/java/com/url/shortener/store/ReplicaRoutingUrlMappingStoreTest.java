@@ -0,0 +1,126 @@
+package com.url.shortener.store;
+
+import com.url.shortener.entity.Url;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class ReplicaRoutingUrlMappingStoreTest {
+
+    private static final UrlMapping MAPPING = new UrlMapping("https://example.com/", LocalDate.of(2024, 5, 31));
+
+    @Mock
+    private UrlMappingStore primary;
+
+    @Mock
+    private UrlMappingStore replica0;
+
+    @Mock
+    private UrlMappingStore replica1;
+
+    private final AtomicLong now = new AtomicLong(-1_000);
+
+    private ReplicaRoutingUrlMappingStore store;
+
+    @BeforeEach
+    public void setUp() {
+        MockitoAnnotations.initMocks(this);
+        store = new ReplicaRoutingUrlMappingStore(primary, List.of(replica0, replica1), Duration.ofSeconds(5),
+                Duration.ofSeconds(30), now::get);
+    }
+
+    @Test
+    public void testFind_RoundRobinsOverReplicas() {
+        when(replica0.find("abcdefg")).thenReturn(MAPPING);
+        when(replica1.find("abcdefg")).thenReturn(MAPPING);
+
+        assertEquals(MAPPING, store.find("abcdefg"));
+        assertEquals(MAPPING, store.find("abcdefg"));
+
+        verify(replica0).find("abcdefg");
+        verify(replica1).find("abcdefg");
+        verifyNoInteractions(primary);
+    }
+
+    @Test
+    public void testFind_RecentlyStoredCodeGoesToPrimary() {
+        Url url = new Url();
+        url.setShortUrl("abcdefg");
+        store.stored(List.of(url));
+        when(primary.find("abcdefg")).thenReturn(MAPPING);
+
+        assertEquals(MAPPING, store.find("abcdefg"));
+
+        verify(primary).stored(List.of(url));
+        verifyNoInteractions(replica0, replica1);
+    }
+
+    @Test
+    public void testFind_ReplicaMissFallsBackToPrimary() {
+        when(primary.find("abcdefg")).thenReturn(MAPPING);
+
+        assertEquals(MAPPING, store.find("abcdefg"));
+
+        verify(replica0).find("abcdefg");
+    }
+
+    @Test
+    public void testFind_ReplicaFailureFallsBackToPrimary() {
+        when(replica0.find("abcdefg")).thenThrow(new IllegalStateException("replica down"));
+        when(primary.find("abcdefg")).thenReturn(MAPPING);
+
+        assertEquals(MAPPING, store.find("abcdefg"));
+    }
+
+    @Test
+    public void testFind_FailedReplicaSkippedUntilBackoffEnds() {
+        when(replica0.find("abcdefg")).thenThrow(new IllegalStateException("replica down")).thenReturn(MAPPING);
+        when(replica1.find("abcdefg")).thenReturn(MAPPING);
+        when(primary.find("abcdefg")).thenReturn(MAPPING);
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals(MAPPING, store.find("abcdefg"));
+        }
+        verify(replica0, times(1)).find("abcdefg");
+        verify(replica1, times(4)).find("abcdefg");
+        verify(primary, times(1)).find("abcdefg");
+
+        now.addAndGet(Duration.ofSeconds(30).toNanos());
+        store.find("abcdefg");
+        store.find("abcdefg");
+        verify(replica0, times(2)).find("abcdefg");
+    }
+
+    @Test
+    public void testFind_AllReplicasFailedGoesToPrimary() {
+        when(replica0.find("abcdefg")).thenThrow(new IllegalStateException("replica down"));
+        when(replica1.find("abcdefg")).thenThrow(new IllegalStateException("replica down"));
+        when(primary.find("abcdefg")).thenReturn(MAPPING);
+
+        for (int i = 0; i < 4; i++) {
+            assertEquals(MAPPING, store.find("abcdefg"));
+        }
+
+        verify(replica0, times(1)).find("abcdefg");
+        verify(replica1, times(1)).find("abcdefg");
+        verify(primary, times(4)).find("abcdefg");
+    }
+
+    @Test
+    public void testFindExisting_AsksPrimary() {
+        when(primary.findExisting(List.of("abcdefg"))).thenReturn(List.of("abcdefg"));
+
+        assertEquals(List.of("abcdefg"), store.findExisting(List.of("abcdefg")));
+
+        verifyNoInteractions(replica0, replica1);
+    }
+}
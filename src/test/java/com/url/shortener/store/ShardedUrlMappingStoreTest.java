@@ -0,0 +1,54 @@
+package com.url.shortener.store;
+
+import com.url.shortener.entity.Url;
+import com.url.shortener.events.UrlEventPublisher;
+import com.url.shortener.persistence.ShardedUrlWriter;
+import com.url.shortener.shard.UrlShards;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+public class ShardedUrlMappingStoreTest extends UrlMappingStoreConformanceTest {
+
+    private EmbeddedDatabase primary;
+
+    private UrlShards shards;
+
+    private ShardedUrlMappingStore store;
+
+    private ShardedUrlWriter writer;
+
+    @BeforeEach
+    public void setUp() {
+        primary = new EmbeddedDatabaseBuilder().generateUniqueName(true).setType(EmbeddedDatabaseType.H2).addScript("db/shard-schema.sql").build();
+        shards = new UrlShards(primary, List.of(h2Url(), h2Url()), null, "sa", "", 2, Duration.ofSeconds(2), 16, null);
+        store = new ShardedUrlMappingStore(shards);
+        writer = new ShardedUrlWriter(shards, UrlEventPublisher.NONE);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        shards.close();
+        primary.shutdown();
+    }
+
+    @Override
+    protected UrlMappingStore store() {
+        return store;
+    }
+
+    @Override
+    protected void insert(List<Url> urls) {
+        writer.writeAll(urls);
+    }
+
+    static String h2Url() {
+        return "jdbc:h2:mem:" + UUID.randomUUID();
+    }
+}
@@ -0,0 +1,213 @@
+package com.url.shortener.store;
+
+import com.url.shortener.entity.Url;
+import com.url.shortener.repository.ShortUrlView;
+import com.url.shortener.repository.UrlMappingView;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Behaviour every {@link UrlMappingStore} must have. Subclasses provide the store and the database it reads from.
+ */
+public abstract class UrlMappingStoreConformanceTest {
+
+    protected static final LocalDate TODAY = LocalDate.of(2024, 5, 1);
+
+    protected abstract UrlMappingStore store();
+
+    /**
+     * Inserts the urls into the database behind the store, the way a {@link com.url.shortener.persistence.UrlWriter}
+     * would.
+     */
+    protected abstract void insert(List<Url> urls);
+
+
+    @Test
+    public void testFind_ReturnsLongUrlAndExpirationDate() {
+        insert(List.of(url("abcdefg", "https://example.com/", TODAY.plusDays(30))));
+
+        assertEquals(new UrlMapping("https://example.com/", TODAY.plusDays(30)), store().find("abcdefg"));
+    }
+
+    @Test
+    public void testFind_UnknownShortUrl() {
+        insert(List.of(url("abcdefg", "https://example.com/", TODAY.plusDays(30))));
+
+        assertNull(store().find("zzzzzzz"));
+    }
+
+    @Test
+    public void testFind_ReturnsExpiredMappings() {
+        insert(List.of(url("expired", "https://example.com/old", TODAY.minusDays(1))));
+
+        UrlMapping mapping = store().find("expired");
+
+        assertNotNull(mapping);
+        assertTrue(mapping.isExpired(TODAY));
+    }
+
+    @Test
+    public void testFind_RepeatedLookupsAreStable() {
+        insert(List.of(url("abcdefg", "https://example.com/", TODAY.plusDays(30))));
+
+        UrlMapping first = store().find("abcdefg");
+
+        assertEquals(first, store().find("abcdefg"));
+    }
+
+    @Test
+    public void testFindExisting_ReturnsTakenShortUrlsOnly() {
+        insert(List.of(url("aaaaaaa", "https://a.com/", TODAY.plusDays(30)),
+                url("bbbbbbb", "https://b.com/", TODAY.minusDays(1))));
+
+        List<String> existing = store().findExisting(List.of("aaaaaaa", "bbbbbbb", "ccccccc"));
+
+        assertEquals(2, existing.size());
+        assertTrue(existing.containsAll(List.of("aaaaaaa", "bbbbbbb")));
+        assertTrue(store().findExisting(List.of()).isEmpty());
+    }
+
+    @Test
+    public void testStored_NewUrlIsFound() {
+        store().find("abcdefg");
+        Url url = url("abcdefg", "https://example.com/new", TODAY.plusDays(30));
+        insert(List.of(url));
+        store().stored(List.of(url));
+
+        assertEquals(UrlMapping.of(url), store().find("abcdefg"));
+    }
+
+    @Test
+    public void testFindLive_PagesLiveUrlsById() {
+        insert(List.of(url("aaaaaaa", "https://a.com/", TODAY.plusDays(30)),
+                url("bbbbbbb", "https://b.com/", TODAY),
+                url("ccccccc", "https://c.com/", TODAY.minusDays(1)),
+                url("ddddddd", "https://d.com/", TODAY.plusDays(1))));
+
+        List<ShortUrlView> first = store().findLive(BigInteger.ZERO, TODAY, 2);
+        List<ShortUrlView> second = store().findLive(first.get(1).getId(), TODAY, 2);
+
+        assertEquals(2, first.size());
+        assertTrue(first.get(0).getId().compareTo(first.get(1).getId()) < 0);
+        assertEquals(1, second.size());
+        Set<String> live = new HashSet<>();
+        first.forEach(url -> live.add(url.getShortUrl()));
+        second.forEach(url -> live.add(url.getShortUrl()));
+        assertEquals(Set.of("aaaaaaa", "bbbbbbb", "ddddddd"), live);
+    }
+
+    @Test
+    public void testFindLiveMappings_PagesLiveUrlsWithTheirMappings() {
+        insert(List.of(url("aaaaaaa", "https://a.com/", TODAY.plusDays(30)),
+                url("bbbbbbb", "https://b.com/", TODAY.minusDays(1)),
+                url("ccccccc", "https://c.com/", TODAY)));
+
+        List<UrlMappingView> first = store().findLiveMappings(BigInteger.ZERO, TODAY, 1);
+        List<UrlMappingView> second = store().findLiveMappings(first.get(0).getId(), TODAY, 2);
+
+        assertEquals(1, first.size());
+        assertEquals(1, second.size());
+        Map<String, UrlMapping> live = new HashMap<>();
+        first.forEach(url -> live.put(url.getShortUrl(), new UrlMapping(url.getLongUrl(), url.getExpirationDate())));
+        second.forEach(url -> live.put(url.getShortUrl(), new UrlMapping(url.getLongUrl(), url.getExpirationDate())));
+        assertEquals(Map.of("aaaaaaa", new UrlMapping("https://a.com/", TODAY.plusDays(30)),
+                "ccccccc", new UrlMapping("https://c.com/", TODAY)), live);
+    }
+
+    @Test
+    public void testFindLiveMappings_ReturnsLiveUrlsAmongShortUrls() {
+        insert(List.of(url("aaaaaaa", "https://a.com/", TODAY.plusDays(30)),
+                url("bbbbbbb", "https://b.com/", TODAY.minusDays(1)),
+                url("ccccccc", "https://c.com/", TODAY)));
+
+        List<UrlMappingView> live = store().findLiveMappings(List.of("aaaaaaa", "bbbbbbb", "ccccccc", "zzzzzzz"), TODAY);
+
+        assertEquals(Set.of("aaaaaaa", "ccccccc"), Set.copyOf(live.stream().map(UrlMappingView::getShortUrl).toList()));
+        assertTrue(store().findLiveMappings(List.of(), TODAY).isEmpty());
+    }
+
+    @Test
+    public void testFindRecentLiveMappings_PagesLiveUrlsNewestFirst() {
+        insert(List.of(url("aaaaaaa", "https://a.com/", TODAY.plusDays(30)),
+                url("bbbbbbb", "https://b.com/", TODAY.minusDays(1)),
+                url("ccccccc", "https://c.com/", TODAY),
+                url("ddddddd", "https://d.com/", TODAY.plusDays(1))));
+
+        BigInteger before = BigInteger.valueOf(Long.MAX_VALUE);
+        List<UrlMappingView> first = store().findRecentLiveMappings(before, TODAY, 2);
+        List<UrlMappingView> second = store().findRecentLiveMappings(first.get(1).getId(), TODAY, 2);
+
+        assertEquals(2, first.size());
+        assertTrue(first.get(0).getId().compareTo(first.get(1).getId()) > 0);
+        assertEquals(1, second.size());
+        Set<String> live = new HashSet<>();
+        first.forEach(url -> live.add(url.getShortUrl()));
+        second.forEach(url -> live.add(url.getShortUrl()));
+        assertEquals(Set.of("aaaaaaa", "ccccccc", "ddddddd"), live);
+    }
+
+    @Test
+    public void testFindReusable_MatchesHashesLatestExpirationFirst() {
+        insert(List.of(url("aaaaaaa", "https://a.com/", TODAY.plusDays(10), 1L),
+                url("bbbbbbb", "https://a.com/", TODAY.plusDays(30), 1L),
+                url("ccccccc", "https://a.com/", TODAY, 1L),
+                url("ddddddd", "https://d.com/", TODAY.plusDays(20), 2L),
+                url("eeeeeee", "https://e.com/", TODAY.plusDays(20), 3L)));
+
+        List<Url> single = store().findReusable(1L, TODAY.plusDays(1), 10);
+        List<Url> bulk = store().findReusable(List.of(1L, 2L), TODAY.plusDays(1), 10);
+
+        assertEquals(List.of("bbbbbbb", "aaaaaaa"), single.stream().map(Url::getShortUrl).toList());
+        assertEquals(List.of("bbbbbbb", "ddddddd", "aaaaaaa"), bulk.stream().map(Url::getShortUrl).toList());
+        assertEquals("https://a.com/", bulk.get(0).getLongUrl());
+        assertEquals(1, store().findReusable(List.of(1L, 2L), TODAY.plusDays(1), 1).size());
+    }
+
+    @Test
+    public void testFindExpired_ReturnsExpiredUrlsOnly() {
+        insert(List.of(url("aaaaaaa", "https://a.com/", TODAY.minusDays(2)),
+                url("bbbbbbb", "https://b.com/", TODAY),
+                url("ccccccc", "https://c.com/", TODAY.minusDays(1))));
+
+        List<ShortUrlView> expired = store().findExpired(TODAY, 10);
+
+        assertEquals(Set.of("aaaaaaa", "ccccccc"), Set.copyOf(expired.stream().map(ShortUrlView::getShortUrl).toList()));
+        assertEquals(1, store().findExpired(TODAY, 1).size());
+    }
+
+    @Test
+    public void testDelete_UrlIsNoLongerFound() {
+        insert(List.of(url("aaaaaaa", "https://a.com/", TODAY.minusDays(1)),
+                url("bbbbbbb", "https://b.com/", TODAY.plusDays(30))));
+        store().find("aaaaaaa");
+
+        store().delete(store().findExpired(TODAY, 10));
+
+        assertNull(store().find("aaaaaaa"));
+        assertNotNull(store().find("bbbbbbb"));
+        assertEquals(List.of("bbbbbbb"), store().findExisting(List.of("aaaaaaa", "bbbbbbb")));
+    }
+
+    protected static Url url(String shortUrl, String longUrl, LocalDate expirationDate, Long longUrlHash) {
+        Url url = url(shortUrl, longUrl, expirationDate);
+        url.setLongUrlHash(longUrlHash);
+        return url;
+    }
+
+    protected static Url url(String shortUrl, String longUrl, LocalDate expirationDate) {
+        Url url = new Url();
+        url.setShortUrl(shortUrl);
+        url.setLongUrl(longUrl);
+        url.setExpirationDate(expirationDate);
+        return url;
+    }
+}
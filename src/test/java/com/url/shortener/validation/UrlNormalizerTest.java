@@ -0,0 +1,62 @@
+package com.url.shortener.validation;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class UrlNormalizerTest {
+
+    @Test
+    public void testNormalize_DefaultsScheme() {
+        assertEquals("https://example.com/path", UrlNormalizer.normalize("example.com/path"));
+        assertEquals("http://example.com/", UrlNormalizer.normalize("http://example.com"));
+    }
+
+    @Test
+    public void testNormalize_EquivalentUrls() {
+        String expected = "https://example.com/a~b?q=%2F#top";
+        assertEquals(expected, UrlNormalizer.normalize("HTTPS://Example.COM.:443/a%7eb?q=%2f#top"));
+        assertEquals(expected, UrlNormalizer.normalize("example.com/a~b?q=%2F#top"));
+        assertEquals("http://example.com:8080/", UrlNormalizer.normalize("http://example.com:8080"));
+        assertEquals("http://example.com/", UrlNormalizer.normalize("http://example.com:80/"));
+    }
+
+    @Test
+    public void testNormalize_InternationalizedUrls() {
+        assertEquals("https://xn--mnchen-3ya.de/%C3%BC", UrlNormalizer.normalize("münchen.de/ü"));
+        assertEquals("https://[::1]:8443/", UrlNormalizer.normalize("https://[::1]:8443"));
+    }
+
+    @Test
+    public void testNormalize_InvalidUrls() {
+        assertNull(UrlNormalizer.normalize(null));
+        assertNull(UrlNormalizer.normalize(""));
+        assertNull(UrlNormalizer.normalize("invalid_url"));
+        assertNull(UrlNormalizer.normalize("localhost"));
+        assertNull(UrlNormalizer.normalize("ftp://example.com"));
+        assertNull(UrlNormalizer.normalize("javascript:alert(1)"));
+        assertNull(UrlNormalizer.normalize("https://user@example.com"));
+        assertNull(UrlNormalizer.normalize("https://-example.com"));
+        assertNull(UrlNormalizer.normalize("https://example..com"));
+        assertNull(UrlNormalizer.normalize("https://example.com:99999"));
+        assertNull(UrlNormalizer.normalize("https://example.com/a b"));
+        assertNull(UrlNormalizer.normalize("https://example.com/%zz"));
+        assertNull(UrlNormalizer.normalize("https://example.com/#a#b"));
+    }
+
+    @Test
+    public void testNormalize_MaxLength() {
+        String url = "https://example.com/" + "a".repeat(UrlNormalizer.MAX_LENGTH - 20);
+        assertEquals(url, UrlNormalizer.normalize(url));
+        assertNull(UrlNormalizer.normalize(url + "a"));
+    }
+
+    @Test
+    public void testNormalize_MaxLengthAppliesToCanonicalForm() {
+        String path = "a".repeat(UrlNormalizer.MAX_LENGTH - 20);
+        assertEquals("https://example.com/" + path, UrlNormalizer.normalize("example.com:443/" + path.replace("a", "%61")));
+        assertNull(UrlNormalizer.normalize("example.com/" + path + "a"));
+        assertNull(UrlNormalizer.normalize("https://example.com/" + "é".repeat(UrlNormalizer.MAX_LENGTH / 6)));
+    }
+}
@@ -0,0 +1,113 @@
+package com.url.shortener.warmup;
+
+import com.url.shortener.cache.CacheInvalidationPublisher;
+import com.url.shortener.cache.TwoTierCacheManager;
+import com.url.shortener.repository.UrlMappingView;
+import com.url.shortener.repository.UrlRepository;
+import com.url.shortener.service.UrlService;
+import com.url.shortener.store.JpaUrlMappingStore;
+import com.url.shortener.store.UrlMapping;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.data.domain.Limit;
+
+import java.math.BigInteger;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class CacheWarmerTest {
+
+    private static final LocalDate EXPIRATION_DATE = LocalDate.of(2030, 1, 1);
+
+    @Mock
+    private UrlRepository urlRepository;
+
+    @TempDir
+    private Path directory;
+
+    private TwoTierCacheManager cacheManager;
+
+    @BeforeEach
+    public void setUp() {
+        MockitoAnnotations.initMocks(this);
+        cacheManager = new TwoTierCacheManager(new ConcurrentMapCacheManager(), CacheInvalidationPublisher.NONE, 100, Duration.ofMinutes(1));
+    }
+
+    @Test
+    public void testWarmUp_SnapshotThenRecentUrlsWithinBudget() throws Exception {
+        Path snapshot = directory.resolve("hot-keys.txt");
+        Files.write(snapshot, List.of("hot0001", "hot0002"));
+        when(urlRepository.findLiveUrls(anyCollection(), any(LocalDate.class)))
+                .thenReturn(List.of(view(5, "hot0001", "https://hot.com/1"), view(6, "hot0002", "https://hot.com/2")));
+        when(urlRepository.findRecentLiveUrls(any(), any(LocalDate.class), any(Limit.class)))
+                .thenReturn(List.of(view(10, "new0010", "https://new.com/10"), view(6, "hot0002", "https://hot.com/2")))
+                .thenReturn(List.of(view(4, "new0004", "https://new.com/4")));
+
+        CacheWarmer cacheWarmer = new CacheWarmer(new JpaUrlMappingStore(urlRepository), cacheManager, 4, 2, snapshot.toString());
+
+        assertEquals(4, cacheWarmer.warmUp(LocalDate.now()));
+        Cache cache = cacheManager.getCache(UrlService.URL_MAPPING_CACHE);
+        assertEquals(new UrlMapping("https://hot.com/1", EXPIRATION_DATE), cache.get("hot0001", UrlMapping.class));
+        assertEquals(new UrlMapping("https://new.com/10", EXPIRATION_DATE), cache.get("new0010", UrlMapping.class));
+        assertEquals(new UrlMapping("https://new.com/4", EXPIRATION_DATE), cache.get("new0004", UrlMapping.class));
+        verify(urlRepository).findRecentLiveUrls(eq(BigInteger.valueOf(6)), any(LocalDate.class), eq(Limit.of(1)));
+    }
+
+    @Test
+    public void testWarmUp_NoSnapshotFile() throws Exception {
+        when(urlRepository.findRecentLiveUrls(any(), any(LocalDate.class), any(Limit.class))).thenReturn(List.of());
+
+        CacheWarmer cacheWarmer = new CacheWarmer(new JpaUrlMappingStore(urlRepository), cacheManager, 10, 5, directory.resolve("missing.txt").toString());
+
+        assertEquals(0, cacheWarmer.warmUp(LocalDate.now()));
+        verify(urlRepository, never()).findLiveUrls(anyCollection(), any(LocalDate.class));
+    }
+
+    @Test
+    public void testWriteSnapshot_HottestNearCacheKeys() throws Exception {
+        Path snapshot = directory.resolve("hot-keys.txt");
+        Cache cache = cacheManager.getCache(UrlService.URL_MAPPING_CACHE);
+        cache.put("abcdefg", new UrlMapping("https://example.com", EXPIRATION_DATE));
+        cache.put("hijklmn", new UrlMapping("https://example.org", EXPIRATION_DATE));
+
+        new CacheWarmer(new JpaUrlMappingStore(urlRepository), cacheManager, 10, 5, snapshot.toString()).writeSnapshot();
+
+        assertEquals(List.of("abcdefg", "hijklmn"), Files.readAllLines(snapshot).stream().sorted().toList());
+    }
+
+    private static UrlMappingView view(long id, String shortUrl, String longUrl) {
+        return new UrlMappingView() {
+            @Override
+            public BigInteger getId() {
+                return BigInteger.valueOf(id);
+            }
+
+            @Override
+            public String getShortUrl() {
+                return shortUrl;
+            }
+
+            @Override
+            public String getLongUrl() {
+                return longUrl;
+            }
+
+            @Override
+            public LocalDate getExpirationDate() {
+                return EXPIRATION_DATE;
+            }
+        };
+    }
+}